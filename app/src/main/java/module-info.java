@@ -1,4 +1,5 @@
 module uk.ac.soton.comp1206 {
+    requires transitive uk.ac.soton.comp1206.engine;
     requires java.scripting;
     requires javafx.controls;
     requires javafx.fxml;
@@ -2,10 +2,6 @@ package uk.ac.soton.comp1206.component;
 
 import javafx.animation.*;
 import javafx.application.Platform;
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.value.ChangeListener;
-import javafx.beans.value.ObservableValue;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
@@ -21,7 +17,7 @@ import org.apache.logging.log4j.Logger;
  * <p>
  * Displays an empty square (when the value is 0) or a coloured square depending on value.
  * <p>
- * The GameBlock value should be bound to a corresponding block in the Grid model.
+ * The GameBlock value is set by its GameBoard whenever the corresponding cell of the Grid model changes.
  */
 public class GameBlock extends Canvas {
 
@@ -54,6 +50,16 @@ public class GameBlock extends Canvas {
             Color.WHITE
     };
 
+    /**
+     * Gets the colour of a piece value, reusing the colours in order for catalogues with more pieces than colours.
+     *
+     * @param value : piece value, at least 1.
+     * @return colour.
+     */
+    public static Color colour(int value) {
+        return COLOURS[(value - 1) % (COLOURS.length - 1) + 1];
+    }
+
     private final uk.ac.soton.comp1206.component.GameBoard gameBoard;
 
     private final double width;
@@ -65,6 +71,21 @@ public class GameBlock extends Canvas {
      */
     private Boolean allowHover = true;
 
+    /**
+     * Whether this block is part of the suggested placement.
+     */
+    private boolean hint;
+
+    /**
+     * Whether the current piece can be played centred on this block.
+     */
+    private boolean valid;
+
+    /**
+     * Fades out the flash of a cleared cell, null when the block is not flashing.
+     */
+    private AnimationTimer flashTimer;
+
 
     /**
      * The column this block exists as in the grid
@@ -79,7 +100,7 @@ public class GameBlock extends Canvas {
     /**
      * The value of this block (0 = empty, otherwise specifies the colour to render as)
      */
-    private final IntegerProperty value = new SimpleIntegerProperty(0);
+    private int value;
 
     /**
      * Create a new single Game Block
@@ -102,52 +123,42 @@ public class GameBlock extends Canvas {
         setHeight(height);
 
         //Do an initial paint
-        paint();
-
-        value.bind(this.gameBoard.getGrid().getGridProperty(this.x, this.y));
-
-        //When the value property is updated, call the internal updateValue method
-        value.addListener(this::updateValue);
+        setValue(gameBoard.getGrid().getShown(x, y));
 
 
     }
 
-    /**
-     * When the value of this block is updated,
-     *
-     * @param observable what was updated
-     * @param oldValue   the old value
-     * @param newValue   the new value
-     */
-    private void updateValue(ObservableValue<? extends Number> observable, Number oldValue, Number newValue) {
-        paint();
-
-    }
-
     /**
      * Handle painting of the block canvas.
      * Paints according to theme.
      */
     public void paint() {
-        if (value.get() == 0) {
+        if (value == 0) {
             //If the block is empty, paint as empty
             paintEmpty();
+            if (valid) {
+                drawValid();
+            }
+            if (hint) {
+                drawHint();
+            }
 
-        } else if (value.get() == -1) {
-            Platform.runLater(this::flash);
+        } else if (value == -1) {
+            //The flash animation draws the block until it ends and repaints it
+            return;
         } else {
             if (gameBoard.getTheme().get().equals("sea")) {
                 //Tiles set if the theme is sea.
-                setTile(gameBoard.getTile(value.get()));
+                setTile(gameBoard.getTile(value));
 
             } else {
                 EMPTY_COLOUR = Color.rgb(82, 82, 82, 0.6);
 
                 //If the block is not empty, paint with the colour represented by the value
                 if (gameBoard.tileProperty().get() == 1) {
-                    paintSquare(COLOURS[value.get()]);
+                    paintSquare(colour(value));
                 } else {
-                    paintTriangle(COLOURS[value.get()]);
+                    paintTriangle(colour(value));
                 }
             }
 
@@ -265,16 +276,28 @@ public class GameBlock extends Canvas {
      * @return value
      */
     public int getValue() {
-        return this.value.get();
+        return this.value;
     }
 
     /**
-     * Bind the value of this block to another property. Used to link the visual block to a corresponding block in the Grid.
+     * Set the value of this block and repaint it. Called by the GameBoard when the corresponding cell in the Grid changes.
+     * Starts the flash animation when the cell starts flashing, so repainting a flashing block never starts another.
      *
-     * @param input property to bind the value to
+     * @param value new value
      */
-    public void bind(ObservableValue<? extends Number> input) {
-        value.bind(input);
+    public void setValue(int value) {
+        boolean flash = value == -1 && this.value != -1;
+        this.value = value;
+        if (flash) {
+            //Skipped if the flash ended, for example by the grid being cleared, before it could start
+            Platform.runLater(() -> {
+                if (this.value == -1) {
+                    flash();
+                }
+            });
+        } else {
+            paint();
+        }
     }
 
 
@@ -288,6 +311,48 @@ public class GameBlock extends Canvas {
         gc.fillRect(0, 0, getWidth(), getHeight());
     }
 
+    /**
+     * Draws the hint marker on block.
+     */
+    private void drawHint() {
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.setStroke(Color.rgb(255, 215, 0, 0.9));
+        gc.setLineWidth(3);
+        gc.strokeRect(4, 4, getWidth() - 8, getHeight() - 8);
+        gc.setLineWidth(1);
+    }
+
+    /**
+     * Shades block to show the current piece fits here.
+     */
+    private void drawValid() {
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.setFill(Color.rgb(255, 255, 255, 0.12));
+        gc.fillRect(0, 0, getWidth(), getHeight());
+    }
+
+    /**
+     * Marks or unmarks this block as a square the current piece can be played on.
+     *
+     * @param valid : whether the current piece fits centred on the block.
+     */
+    public void setValid(boolean valid) {
+        if (this.valid == valid) return;
+        this.valid = valid;
+        paint();
+    }
+
+    /**
+     * Marks or unmarks this block as part of the suggested placement.
+     *
+     * @param hint : whether the block is part of the hint.
+     */
+    public void setHint(boolean hint) {
+        if (this.hint == hint) return;
+        this.hint = hint;
+        paint();
+    }
+
     /**
      * Set boolean for overlay feature.
      * Used for different uses of gameblocks.
@@ -349,6 +414,9 @@ public class GameBlock extends Canvas {
      * Handles flash animation called when clearing rows and columns in the game.
      */
     public void flash() {
+        if (flashTimer != null) {
+            flashTimer.stop();
+        }
         var gc = getGraphicsContext2D();
         //Initial white flash.
         gc.setFill(Color.rgb(255, 255, 255, 1));
@@ -369,12 +437,16 @@ public class GameBlock extends Canvas {
 
 
                 if (((Color) gc.getFill()).getOpacity() <= 0.1) {
-                    gameBoard.getGrid().set(x, y, 0);
+                    //The board already holds the cell as empty, or as a piece placed during the flash.
                     stop();
+                    flashTimer = null;
+                    gameBoard.getGrid().endFlash(x, y);
+                    paint();
                 }
             }
         };
 
+        flashTimer = timer;
         timer.start();
     }
 
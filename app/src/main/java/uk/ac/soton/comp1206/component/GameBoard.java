@@ -8,6 +8,8 @@ import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.MoveIndex;
 import uk.ac.soton.comp1206.event.BlockClickedListener;
 import uk.ac.soton.comp1206.event.RightClickedListener;
 import uk.ac.soton.comp1206.game.Grid;
@@ -168,6 +170,23 @@ public class GameBoard extends GridPane {
                 createBlock(x, y);
             }
         }
+
+        //Repaint the changed blocks once per grid update
+        grid.addGridChangeListener(this::repaint);
+    }
+
+    /**
+     * Shows the new values of changed cells, repainting only their blocks.
+     *
+     * @param cells : indices y * cols + x of the changed cells.
+     * @param count : number of changed cells.
+     */
+    private void repaint(int[] cells, int count) {
+        for (int i = 0; i < count; i++) {
+            int x = cells[i] % cols;
+            int y = cells[i] / cols;
+            blocks[x][y].setValue(grid.getShown(x, y));
+        }
     }
 
     /**
@@ -189,9 +208,6 @@ public class GameBoard extends GridPane {
         //Add to our block directory
         blocks[x][y] = block;
 
-        //Link the GameBlock component to the corresponding value in the Grid
-        block.bind(grid.getGridProperty(x, y));
-
         //Add a mouse click handler to the block to trigger GameBoard blockClicked method
         block.setOnMouseClicked((e) -> blockClicked(e, block));
 
@@ -260,6 +276,33 @@ public class GameBoard extends GridPane {
         blocks[xy[0][0]][xy[0][1]].toggleOverlay(toggle);
     }
 
+    /**
+     * Marks the cells of a suggested placement.
+     *
+     * @param mask : occupancy mask of the placement, bit y * cols + x, or 0 to clear the hint.
+     */
+    public void showHint(long mask) {
+        for (var y = 0; y < rows; y++) {
+            for (var x = 0; x < cols; x++) {
+                blocks[x][y].setHint((mask >>> (y * cols + x) & 1) != 0);
+            }
+        }
+    }
+
+    /**
+     * Shades the empty blocks a piece can be played on, so the player can see where it fits.
+     *
+     * @param moves : legal moves of the game's pieces.
+     * @param piece : piece in the rotation to shade for, or null to clear the shading.
+     */
+    public void showValid(MoveIndex moves, GamePiece piece) {
+        for (var y = 0; y < rows; y++) {
+            for (var x = 0; x < cols; x++) {
+                blocks[x][y].setValid(piece != null && moves.isLegal(piece, x, y));
+            }
+        }
+    }
+
     /**
      * Returns block based on coordinates on the board.
      *
@@ -312,7 +355,7 @@ public class GameBoard extends GridPane {
      * @return : tile image.
      */
     public Image getTile(int i) {
-        return SEA_TILES[i - 1];
+        return SEA_TILES[(i - 1) % SEA_TILES.length];
     }
 
     /**
@@ -0,0 +1,137 @@
+package uk.ac.soton.comp1206.component;
+
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.PieceQueue;
+import uk.ac.soton.comp1206.ui.GameWindow;
+
+/**
+ * Board created to handle the display of game pieces and user boards in spectate mode.
+ */
+public class PieceBoard extends GameBoard {
+
+    private Boolean circle = true;
+
+    /**
+     * Constructor for PieceBoard class.
+     *
+     * @param cols   : number of columns in grid.
+     * @param rows   : number of rows in grid.
+     * @param width  : width of component.
+     * @param height : height of component.
+     */
+    public PieceBoard(int cols, int rows, double width, double height, GameWindow window) {
+        super(cols, rows, width, height, window);
+
+    }
+
+    /**
+     * Constructor for PieceBoard class.
+     *
+     * @param cols   : number of columns in grid.
+     * @param rows   : number of rows in grid.
+     * @param width  : width of component.
+     * @param height : height of component.
+     * @param circle : boolean for displaying center circle.
+     * @param window : GameWindow to be passed to superclass to handle themes.
+     */
+    public PieceBoard(int cols, int rows, double width, double height, GameWindow window, boolean circle) {
+        super(cols, rows, width, height, window);
+        this.circle = circle;
+
+    }
+
+    /**
+     * Sets new value to piece.
+     * Displays piece centred on the grid, which must be at least as wide as the piece's footprint.
+     *
+     * @param piece: new game piece to display.
+     */
+
+    public void displayPiece(GamePiece piece) {
+        getGrid().beginUpdate();
+        getGrid().clearGrid();
+
+        int centreX = (getGrid().getCols() - 1) / 2;
+        int centreY = (getGrid().getRows() - 1) / 2;
+        drawPiece(piece, centreX, centreY);
+        getGrid().endUpdate();
+
+        if (circle) {
+            getBlock(centreX, centreY).addCenterCircle();
+        }
+
+        removeHover();
+    }
+
+    /**
+     * Displays the pieces of a queue from the front, one below another.
+     * The grid is split into square bands as wide as it is, and as many pieces are shown as there are bands.
+     *
+     * @param queue : pieces to display.
+     */
+    public void displayQueue(PieceQueue queue) {
+        getGrid().beginUpdate();
+        getGrid().clearGrid();
+
+        int band = getGrid().getCols();
+        int count = Math.min(queue.size(), getGrid().getRows() / band);
+        for (int i = 0; i < count; i++) {
+            drawPiece(queue.get(i), (band - 1) / 2, i * band + (band - 1) / 2);
+        }
+        getGrid().endUpdate();
+
+        removeHover();
+    }
+
+    /**
+     * Draws a piece centred on a square, as part of an update.
+     *
+     * @param piece   : piece to draw.
+     * @param centreX : column of the centre square.
+     * @param centreY : row of the centre square.
+     */
+    private void drawPiece(GamePiece piece, int centreX, int centreY) {
+        int offset = (piece.getSize() - 1) / 2;
+        for (int row = 0; row < piece.getSize(); row++) {
+            for (int col = 0; col < piece.getSize(); col++) {
+                if (piece.getBlock(row, col) != 0) {
+                    getGrid().set(centreX - offset + col, centreY - offset + row, piece.getBlock(row, col));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes hover capabilities from every block.
+     */
+    private void removeHover() {
+        for (int i = 0; i < getGrid().getCols(); i++) {
+            for (int z = 0; z < getGrid().getRows(); z++) {
+                getBlock(i, z).setAllowHover(false);
+            }
+        }
+    }
+
+    /**
+     * Displays piece board in spectate mode.
+     *
+     * @param board : board from server to display.
+     */
+    public void displayBoard(String board) {
+        String[] values = board.split(" ");
+
+        //Apply the whole board as one update so each changed block is repainted once
+        getGrid().beginUpdate();
+        getGrid().clearGrid();
+
+        int counter = 0;
+
+        for (int x = 0; x < getGrid().getCols(); x++) {
+            for (int y = 0; y < getGrid().getRows(); y++) {
+                getGrid().set(x, y, Integer.parseInt(values[counter]));
+                counter++;
+            }
+        }
+        getGrid().endUpdate();
+    }
+}
@@ -7,7 +7,7 @@ import javafx.geometry.Pos;
 import javafx.scene.layout.GridPane;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 
@@ -46,10 +46,11 @@ public class PieceGrid extends GridPane {
      * Generates all the piece boards for the game pieces.
      */
     private void setPieces() {
-        for (int i = 0; i < 15; i++) {
+        int size = Math.max(3, PieceCatalogue.STANDARD.getMaxSize());
+        for (int i = 0; i < PieceCatalogue.STANDARD.size(); i++) {
             logger.info("Creating piece boards...");
-            PieceBoard piece = new PieceBoard(3, 3, 50, 50,window );
-            piece.displayPiece(GamePiece.createPiece(i));
+            PieceBoard piece = new PieceBoard(size, size, 50, 50,window );
+            piece.displayPiece(PieceCatalogue.STANDARD.getPiece(i));
             pieces.add(piece);
         }
     }
@@ -63,7 +64,7 @@ public class PieceGrid extends GridPane {
 
         //Adding boards to grid and setting indexes.
         logger.info("Adding boards to grid and setting indexes...");
-        for (int i = 0; i < 15; i++) {
+        for (int i = 0; i < pieces.size(); i++) {
             if (col  >= 5) {
                 col = 0;
                 row++;
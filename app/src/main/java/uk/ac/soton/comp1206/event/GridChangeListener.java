@@ -0,0 +1,15 @@
+package uk.ac.soton.comp1206.event;
+
+/**
+ * Handles changes to the cells of a grid.
+ */
+public interface GridChangeListener {
+
+    /**
+     * Fired once at the end of every update to a grid, after the grid's properties hold the new values.
+     *
+     * @param cells : indices y * cols + x of the changed cells, shared and only valid during the call.
+     * @param count : number of changed cells.
+     */
+    void gridChanged(int[] cells, int count);
+}
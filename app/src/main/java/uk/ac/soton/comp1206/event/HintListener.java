@@ -0,0 +1,16 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.engine.solver.Solution;
+
+/**
+ * Handles hints found for the current pieces.
+ */
+public interface HintListener {
+
+    /**
+     * Fired on the FX thread whenever a better hint is found, or when the shown hint is out of date.
+     *
+     * @param hint : suggested move, or null to clear the shown hint.
+     */
+    void onHint(Solution hint);
+}
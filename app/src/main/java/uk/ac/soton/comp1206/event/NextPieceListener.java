@@ -1,6 +1,6 @@
 package uk.ac.soton.comp1206.event;
 
-import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.engine.GamePiece;
 
 /**
  * Handles changes to UI when next piece is spawned.
@@ -5,54 +5,77 @@ import javafx.scene.Scene;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.engine.Board;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.LineClear;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+import uk.ac.soton.comp1206.engine.event.EventBus;
+import uk.ac.soton.comp1206.engine.event.GameEvent;
+import uk.ac.soton.comp1206.engine.replay.ReplayRecorder;
+import uk.ac.soton.comp1206.engine.save.Autosaver;
+import uk.ac.soton.comp1206.engine.save.SavedGame;
 import uk.ac.soton.comp1206.event.*;
 import uk.ac.soton.comp1206.media.Media;
 import uk.ac.soton.comp1206.scores.ScoreFileHandler;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Random;
 
 /**
  * The Game class handles the main logic, state and properties of the TetrECS game. Methods to manipulate the game state
  * and to handle actions made by the player should take place inside this class.
+ * <p>
+ * The rules themselves are applied by a GameEngine, which has no dependency on JavaFX. The Game adapts it to the UI,
+ * mirroring the engine's state into properties and publishing an event on its EventBus after each action. Listeners
+ * added to the game subscribe to the bus, so any number can listen for the same event. Sound listeners are called on
+ * the audio thread, so loading a sound never holds up a placement; listeners updating the scene are called on the UI
+ * thread before publishing returns.
  */
 public class Game {
 
     private static final Logger logger = LogManager.getLogger(Game.class);
 
     /**
-     * Number of rows
+     * Directory replays are recorded to.
      */
-    protected final int rows;
+    public static final File REPLAY_DIRECTORY = new File("replays");
 
     /**
-     * Number of columns
+     * File the game in progress is autosaved to.
      */
-    protected final int cols;
+    public static final File AUTOSAVE_FILE = new File("autosave" + SavedGame.EXTENSION);
 
     /**
-     * The grid model linked to the game
+     * Number of turns between autosaves.
      */
-    protected final Grid grid;
+    public static final int AUTOSAVE_INTERVAL = 5;
 
     /**
-     * Create a new game with the specified rows and columns. Creates a corresponding grid model.
-     *
-     * @param cols number of columns
-     * @param rows number of rows
+     * Number of rows
+     */
+    protected final int rows;
+
+    /**
+     * Number of columns
      */
+    protected final int cols;
 
     /**
-     * Stores current game piece.
+     * Engine applying the rules of the game
      */
-    protected GamePiece currentPiece;
+    protected final GameEngine engine;
 
     /**
-     * Stores next game piece.
+     * The grid model linked to the game
      */
-    protected GamePiece nextPiece;
+    protected final Grid grid;
 
+    /**
+     * Seed of the piece sequence, can be shared to replay the same pieces.
+     */
+    private final long seed;
 
 
     /**
@@ -77,13 +100,9 @@ public class Game {
     public SimpleIntegerProperty highScoreProperty = new SimpleIntegerProperty();
 
     /**
-     * Listener for next piece.
-     */
-    protected NextPieceListener nextPieceListener;
-    /**
-     * Listener for swap event.
+     * Delivers the events of this game to the scene and any other subscribers.
      */
-    private SwapListener swapListener;
+    protected final EventBus events;
 
     /**
      * Current square for keyboard support.
@@ -101,36 +120,35 @@ public class Game {
      * Listener for playing piece with keyboard.
      */
     private KeyBoardEnterListener keyBoardEnterListener;
-    /**
-     * Listener for handling end of game events.
-     */
-    protected EndGameListener endGameListener;
     /**
      * Listener for escape key being pressed.
      */
     protected EscapeListener escapeListener;
+
     /**
-     * Listener for triggering fail sound.
+     * Game timer for game loop control.
      */
-    private FailSoundListener failSoundListener;
+    protected GameTimer timer;
+
     /**
-     * Listener for triggering clear sound.
+     * Listener for handling chat event in multiplayer.
      */
-    private ClearSoundListener clearSoundListener;
+    protected ChatListener chatListener;
+
     /**
-     * Listener for triggering place sound.
+     * Records the actions of this game, null when not recording.
      */
-    private PlaceSoundListener placeSoundListener;
+    protected ReplayRecorder recorder;
 
     /**
-     * Game timer for game loop control.
+     * Saves this game in the background, null when not autosaving.
      */
-    protected GameTimer timer;
+    private Autosaver autosaver;
 
     /**
-     * Listener for handling chat event in multiplayer.
+     * Turns played since the last autosave.
      */
-    protected ChatListener chatListener;
+    private int unsaved;
 
     /**
      * Constructor for game.
@@ -140,18 +158,54 @@ public class Game {
      * @param rows
      */
     public Game(int cols, int rows) {
-        this.cols = cols;
-        this.rows = rows;
+        this(cols, rows, new SeededPieceSource());
+    }
 
-        //Create a new grid model to represent the game state
-        this.grid = new Grid(cols, rows);
+    /**
+     * Constructor for a game replaying the piece sequence of the given seed.
+     *
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param seed seed of the piece sequence
+     */
+    public Game(int cols, int rows, long seed) {
+        this(cols, rows, new SeededPieceSource(seed));
+    }
+
+    /**
+     * Constructor for a game taking its pieces from the given seeded source.
+     *
+     * @param cols        number of columns
+     * @param rows        number of rows
+     * @param pieceSource source of the piece sequence
+     */
+    private Game(int cols, int rows, SeededPieceSource pieceSource) {
+        this(new GameEngine(cols, rows, pieceSource), pieceSource.getSeed());
+    }
+
+    /**
+     * Constructor for a game displaying an existing engine.
+     *
+     * @param engine engine applying the rules of the game
+     * @param seed   seed of the engine's piece sequence
+     */
+    protected Game(GameEngine engine, long seed) {
+        Board board = engine.getBoard();
+        this.cols = board.getCols();
+        this.rows = board.getRows();
+        this.seed = seed;
+
+        //Create a grid model to display the engine's board
+        this.engine = engine;
+        this.grid = new Grid(board);
+        this.events = new EventBus(cols, rows);
     }
 
     /**
      * Start the game
      */
     public void start() {
-        logger.info("Starting game");
+        logger.info("Starting game with seed {}", seed);
         initialiseGame();
     }
 
@@ -178,18 +232,39 @@ public class Game {
      * Game loop control for handling timer and lives.
      */
     public void gameLoop() {
-        timer.addZeroListener(() -> {
-            if (livesProperty.get() - 1 == -1) {
-                timer.end();
-                endGame();
-
-            } else {
-                System.out.println("##GAME LOOP##");
-                livesProperty.set(livesProperty.get() - 1);
-                multiplierProperty.set(1);
-                nextPiece(false);
-            }
-        });
+        timer.addZeroListener(this::endTurn);
+    }
+
+    /**
+     * Ends the turn without a placement, as when the timer runs out. Loses a life and moves on to the next piece, or
+     * ends the game when there are no lives left.
+     */
+    public void endTurn() {
+        if (recorder != null) {
+            recorder.timeout();
+        }
+        if (!engine.timeout()) {
+            timer.end();
+            endGame();
+
+        } else {
+            System.out.println("##GAME LOOP##");
+            syncProperties();
+            fire(GameEvent.TIMEOUT);
+            nextPiece(false);
+            autosave();
+        }
+    }
+
+    /**
+     * Ends the turn straight away if neither piece fits anywhere on the board, rather than waiting for the timer.
+     */
+    protected void checkStuck() {
+        if (engine.isStuck()) {
+            logger.info("No legal move for {} or {}, ending the turn", engine.getCurrentPiece(), engine.getNextPiece());
+            fire(GameEvent.STUCK);
+            endTurn();
+        }
     }
 
     /**
@@ -203,14 +278,26 @@ public class Game {
         int y = gameBlock.getY();
 
 
-        if (!grid.canPlayPiece(x, y, currentPiece)) {
-            failSoundListener.onFail();
-            return;
+        //The placement, line clear and flash reach the board as one update
+        grid.beginUpdate();
+        try {
+            int rotation = engine.getCurrentPiece().getRotation();
+            if (!engine.play(x, y)) {
+                claim(GameEvent.REJECT).setPosition(x, y, rotation);
+                events.publish();
+                return;
+            }
+            if (recorder != null) {
+                recorder.place(x, y, rotation);
+            }
+            claim(GameEvent.PLACE).setPosition(x, y, rotation);
+            events.publish();
+            afterPlay(engine.getLastClear());
+        } finally {
+            grid.endUpdate();
         }
-        grid.playPiece(x, y, currentPiece);
-        placeSoundListener.onPlace();
-        afterPlay();
         nextPiece(false);
+        autosave();
 
     }
 
@@ -223,6 +310,24 @@ public class Game {
         return grid;
     }
 
+    /**
+     * Get the seed of this game's piece sequence
+     *
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the engine applying the rules of this game
+     *
+     * @return game engine
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
     /**
      * Get the number of columns in this game
      *
@@ -247,8 +352,7 @@ public class Game {
      * @return : new game piece.
      */
     public GamePiece spawnPiece() {
-        Random rand = new Random();
-        GamePiece piece = GamePiece.createPiece(rand.nextInt(15));
+        GamePiece piece = engine.spawnPiece();
         logger.info("Current piece: " + piece.toString());
         return piece;
     }
@@ -259,7 +363,7 @@ public class Game {
      * @return : currentPiece.
      */
     public GamePiece getCurrentPiece() {
-        return currentPiece;
+        return engine.getCurrentPiece();
     }
 
     /**
@@ -268,7 +372,7 @@ public class Game {
      * @return : nextPiece.
      */
     public GamePiece getNextPiece() {
-        return nextPiece;
+        return engine.getNextPiece();
     }
 
 
@@ -283,14 +387,11 @@ public class Game {
      * Puts the next piece as the current piece and generates a new piece.
      */
     public void nextPiece(Boolean start) {
-        if (start) {
-            currentPiece = spawnPiece();
-        } else {
-            currentPiece = nextPiece;
-        }
-        nextPiece = spawnPiece();
-        nextPieceListener.nextPiece(new GamePiece[]{currentPiece, nextPiece});
+        engine.nextPiece(start);
+        logger.info("Current piece: " + engine.getCurrentPiece());
         timer.reset(getTimerDelay());
+        fire(GameEvent.PIECES);
+        checkStuck();
     }
 
 
@@ -300,118 +401,116 @@ public class Game {
      * @param listener: listener to be implemented.
      */
     public void addNextPieceListener(NextPieceListener listener) {
-        this.nextPieceListener = listener;
+        events.subscribe(EventBus.DIRECT,
+                event -> listener.nextPiece(new GamePiece[]{event.getCurrentPiece(), event.getNextPiece()}),
+                GameEvent.PIECES);
     }
 
     /**
      * Swaps current and next piece.
      */
     public void swapCurrentPiece() {
-        GamePiece tmp = currentPiece;
-        currentPiece = nextPiece;
-        nextPiece = tmp;
-
+        engine.swap();
+        if (recorder != null) {
+            recorder.swap();
+        }
 
-        swapListener.onSwap();
+        fire(GameEvent.SWAP);
     }
 
     /**
      * Allows swap listener to be added to scene and implemented elsewhere.
      */
     public void addSwapListener(SwapListener listener) {
-        swapListener = listener;
+        events.subscribe(EventBus.DIRECT, event -> listener.onSwap(), GameEvent.SWAP);
     }
 
     /**
-     * Creates arraylist of rows and columns.
-     * Adds indexes rows and columns to arraylists.
-     * Iterates through the columns and rows, removing any from the arrayList that have blank values.
-     * Clears any full rows.
+     * Gets the bus this game's events are published on, for subscribers other than the scene.
+     *
+     * @return event bus.
      */
-    public void afterPlay() {
-        ArrayList<Integer> clearCol = new ArrayList<>();
-        ArrayList<Integer> clearRow = new ArrayList<>();
-        for (int i = 0; i < 5; i++) {
-            clearRow.add(i);
-            clearCol.add(i);
-        }
+    public EventBus getEvents() {
+        return events;
+    }
 
-        for (int i = 0; i < 5; i++) {
-            for (int z = 0; z < 5; z++) {
-                if (grid.getGridProperty(i, z).get() == 0) {
-                    clearRow.remove(Integer.valueOf(z));
-                }
-            }
+    /**
+     * Claims an event on the bus, filled with the pieces, score, multiplier, level and lives of the engine. It is
+     * delivered once events.publish is called.
+     *
+     * @param type : type of the event.
+     * @return event to add to.
+     */
+    protected GameEvent claim(int type) {
+        return events.claim(type).setState(engine.getCurrentPiece(), engine.getNextPiece(), engine.getScore(),
+                engine.getMultiplier(), engine.getLevel(), engine.getLives());
+    }
 
-        }
-        for (int i = 0; i < 5; i++) {
-            for (int z = 0; z < 5; z++) {
-                if (grid.getGridProperty(z, i).get() == 0) {
-                    clearCol.remove(Integer.valueOf(z));
-                }
-            }
+    /**
+     * Publishes an event holding the state of the engine.
+     *
+     * @param type : type of the event.
+     */
+    protected void fire(int type) {
+        claim(type);
+        events.publish();
+    }
 
+    /**
+     * Reflects a placement applied by the engine.
+     * Plays the clear sound and flashes any cleared lines, then updates the properties and high score.
+     *
+     * @param clear : lines cleared by the placement.
+     */
+    public void afterPlay(LineClear clear) {
+        if (!clear.isEmpty()) {
+            logger.info("Clearing {} rows and {} columns", clear.getRowCount(), clear.getColumnCount());
+            claim(GameEvent.CLEAR).setClear(clear);
+            events.publish();
+            grid.flash(clear);
         }
 
-        //Clears columns.
-        for (int i : clearCol) {
-            logger.info("Clearing columns");
-            for (int z = 0; z < 5; z++) {
-                clearSoundListener.onClear();
-                grid.getGridProperty(i, z).set(-1);
-            }
-        }
-        //Clears rows.
-        for (int i : clearRow) {
-            logger.info("Clearing rows");
-            for (int z = 0; z < 5; z++) {
-                clearSoundListener.onClear();
-                grid.getGridProperty(z, i).set(-1);
-            }
-        }
-        //Changes score.
-        setScoreProperty(getScore() + score(clearCol, clearRow));
+        syncProperties();
+        syncHighScore();
+    }
+
+    /**
+     * Makes the high score follow the score once the score reaches it.
+     */
+    protected void syncHighScore() {
         if (scoreProperty.get() >= highScoreProperty.get()) {
             highScoreProperty.bind(scoreProperty);
         }
-
-        //Handles multiplier changes.
-        if (clearCol.size() == 0 && clearRow.size() == 0) {
-            setMultiplierProperty(1);
-        } else {
-            setMultiplierProperty(getMultiplier() + 1);
-        }
-        if (getScore() >= 1000) {
-            setLevelProperty(getLevel() + 1);
-        }
-
     }
 
     /**
-     * Calculates score when pieces are cleared.
+     * Calculates score when lines are cleared.
      *
-     * @param cols
-     * @param rows
-     * @return
+     * @param clear : the cleared lines.
+     * @return points for the clear at the current multiplier.
      */
-    public int score(ArrayList<Integer> cols, ArrayList<Integer> rows) {
-        int lines = cols.size() + rows.size();
-
-        int blocks = cols.size() * 5;
-
-        if(cols.size()==0){
-            blocks = rows.size() * 5;
-        }
-        else {
-            for (int i : rows) {
-                blocks += 5 - cols.size();
-            }
-        }
+    public int score(LineClear clear) {
+        return engine.score(clear);
+    }
 
-        logger.info("cols: " + cols.size() + " rows: " + rows.size());
-        logger.info("lines: "+ lines + " blocks: " + blocks + " multiplier: " + getMultiplier());
+    /**
+     * Sets the rule line clears are scored by, for modes that do not use the classic rule. Must be called before the
+     * game starts.
+     *
+     * @param rule : scoring rule.
+     */
+    public void setScoring(ScoringRule rule) {
+        engine.setScoring(rule);
+    }
 
-        return blocks * lines * 10* getMultiplier();
+    /**
+     * Copies the engine's score, multiplier, level and lives into their properties.
+     */
+    protected void syncProperties() {
+        scoreProperty.set(engine.getScore());
+        multiplierProperty.set(engine.getMultiplier());
+        levelProperty.set(engine.getLevel());
+        livesProperty.set(engine.getLives());
     }
 
     /**
@@ -421,14 +520,15 @@ public class Game {
      * @return rotated piece.
      */
     public GamePiece rotatePiece(boolean left) {
-        if (left) {
-            currentPiece.rotate(3);
-        } else {
-            currentPiece.rotate();
+        GamePiece piece = engine.rotate(left);
+        if (recorder != null) {
+            recorder.rotate(left);
         }
+        claim(GameEvent.ROTATE).setPosition(0, 0, piece.getRotation());
+        events.publish();
         logger.info("Piece rotated...");
 
-        return currentPiece;
+        return piece;
     }
 
     /**
@@ -455,6 +555,7 @@ public class Game {
      * @param scoreProperty: new value to be set.
      */
     public void setScoreProperty(int scoreProperty) {
+        engine.setScore(scoreProperty);
         this.scoreProperty.set(scoreProperty);
     }
 
@@ -464,6 +565,7 @@ public class Game {
      * @param multiplierProperty: new value to be set.
      */
     public void setMultiplierProperty(int multiplierProperty) {
+        engine.setMultiplier(multiplierProperty);
         this.multiplierProperty.set(multiplierProperty);
     }
 
@@ -509,6 +611,7 @@ public class Game {
      * @param levelProperty : new value to be set.
      */
     public void setLevelProperty(int levelProperty) {
+        engine.setLevel(levelProperty);
         this.levelProperty.set(levelProperty);
     }
 
@@ -536,6 +639,7 @@ public class Game {
      * @param livesProperty: new value to be set.
      */
     public void setLivesProperty(int livesProperty) {
+        engine.setLives(livesProperty);
         this.livesProperty.set(livesProperty);
     }
 
@@ -576,7 +680,7 @@ public class Game {
                     logger.info(currentSquare[0][0] + " " + currentSquare[0][1]);
                 }
                 case DOWN, S -> {
-                    if (currentSquare[0][1] == 4) break;
+                    if (currentSquare[0][1] == rows - 1) break;
                     currentSquareListener.onChange(false);
                     currentSquare[0][1]++;
                     currentSquareListener.onChange(true);
@@ -590,7 +694,7 @@ public class Game {
                     logger.info(currentSquare[0][0] + " " + currentSquare[0][1]);
                 }
                 case RIGHT, D -> {
-                    if (currentSquare[0][0] == 4) break;
+                    if (currentSquare[0][0] == cols - 1) break;
                     currentSquareListener.onChange(false);
                     currentSquare[0][0]++;
                     currentSquareListener.onChange(true);
@@ -599,11 +703,11 @@ public class Game {
                 case X, ENTER -> keyBoardEnterListener.onEnter(currentSquare);
                 case CLOSE_BRACKET, E, Q -> {
                     rotatePiece(true);
-                    rotateListener.OnKeyBoardRotate(currentPiece);
+                    rotateListener.OnKeyBoardRotate(engine.getCurrentPiece());
                 }
                 case OPEN_BRACKET, C, Z -> {
                     rotatePiece(false);
-                    rotateListener.OnKeyBoardRotate(currentPiece);
+                    rotateListener.OnKeyBoardRotate(engine.getCurrentPiece());
                 }
                 case ESCAPE -> escapeListener.onEscape();
                 case T -> {
@@ -656,7 +760,7 @@ public class Game {
      * @param listener : listener to be added.
      */
     public void addEndGameListener(EndGameListener listener) {
-        endGameListener = listener;
+        events.subscribe(EventBus.DIRECT, event -> listener.endGame(), GameEvent.GAME_OVER);
     }
 
     /**
@@ -669,30 +773,30 @@ public class Game {
     }
 
     /**
-     * Adds ClearSound listener.
+     * Adds ClearSound listener, called on the audio thread.
      *
      * @param listener : listener to be added.
      */
     public void addClearSoundListener(ClearSoundListener listener) {
-        clearSoundListener = listener;
+        events.subscribe(Media.AUDIO, event -> listener.onClear(), GameEvent.CLEAR);
     }
 
     /**
-     * Adds FailSound listener.
+     * Adds FailSound listener, called on the audio thread.
      *
      * @param listener : listener to be added.
      */
     public void addFailSoundListener(FailSoundListener listener) {
-        failSoundListener = listener;
+        events.subscribe(Media.AUDIO, event -> listener.onFail(), GameEvent.REJECT, GameEvent.STUCK);
     }
 
     /**
-     * Adds PlaceSound listener.
+     * Adds PlaceSound listener, called on the audio thread.
      *
      * @param listener : listener to be added.
      */
     public void addPlaceSoundListener(PlaceSoundListener listener) {
-        placeSoundListener = listener;
+        events.subscribe(Media.AUDIO, event -> listener.onPlace(), GameEvent.PLACE);
     }
 
     /**
@@ -710,8 +814,88 @@ public class Game {
     public void endGame() {
         //Show high score screen.
         logger.info("Open high score screen");
-        endGameListener.endGame();
+        stopRecording();
+        if (autosaver != null) {
+            //A finished game cannot be resumed
+            autosaver.discard();
+            autosaver.close();
+            autosaver = null;
+        }
+        fire(GameEvent.GAME_OVER);
+
+    }
+
+    /**
+     * Stops the game's background work when it is left before the end, saving it so it can be resumed and closing
+     * the replay.
+     */
+    public void stop() {
+        stopAutosave();
+        stopRecording();
+    }
+
+    /**
+     * Starts recording this game's actions to a new replay in the given directory.
+     * Must be called once the game has started, so the replay starts from its initial score and lives.
+     *
+     * @param directory : directory for the replay file.
+     */
+    public void startRecording(File directory) {
+        try {
+            recorder = ReplayRecorder.create(directory, seed, cols, rows, engine.getScore(), engine.getLives(),
+                    engine.getScoring());
+            logger.info("Recording replay to " + directory);
+        } catch (IOException e) {
+            logger.error("Unable to record replay: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Stops recording, writing out anything still buffered.
+     */
+    public void stopRecording() {
+        if (recorder == null) return;
+        recorder.close();
+        recorder = null;
+    }
+
+    /**
+     * Starts saving this game to the given file every AUTOSAVE_INTERVAL turns, so it can be resumed after the game
+     * is closed. Must be called once the game has started.
+     *
+     * @param file : file to save to.
+     */
+    public void startAutosave(File file) {
+        autosaver = new Autosaver(file);
+        saveNow();
+        logger.info("Autosaving to " + file);
+    }
+
+    /**
+     * Saves the game as it stands and stops autosaving, writing out the save before returning.
+     */
+    public void stopAutosave() {
+        if (autosaver == null) return;
+        saveNow();
+        autosaver.close();
+        autosaver = null;
+    }
+
+    /**
+     * Counts a turn, and hands a save to the autosaver once enough turns have been played since the last.
+     */
+    protected void autosave() {
+        if (autosaver != null && ++unsaved >= AUTOSAVE_INTERVAL) {
+            saveNow();
+        }
+    }
+
+    /**
+     * Captures the game and hands it to the autosaver, which writes it off this thread.
+     */
+    private void saveNow() {
+        autosaver.save(new SavedGame(engine, seed, timer.getTime()));
+        unsaved = 0;
     }
 
     /**
@@ -720,10 +904,7 @@ public class Game {
      * @return calculated time.
      */
     public int getTimerDelay() {
-        if (12000 - (500 * getLevel()) < 2500) {
-            return 2500;
-        }
-        return 12000 - (500 * getLevel());
+        return engine.getTimerDelay();
     }
 
     /**
@@ -0,0 +1,399 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.engine.Board;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.LineClear;
+import uk.ac.soton.comp1206.engine.PlacementTable;
+import uk.ac.soton.comp1206.event.GridChangeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The Grid is a model which holds the state of a game board. It is made up of a set of Integer values arranged in a 2D
+ * arrow, with rows and columns.
+ * <p>
+ * The state itself is held by an engine Board, as an occupancy bitmask and a byte array of cell values. The Grid wraps
+ * the Board and adds the view state shown on screen, the cells flashing after a line clear.
+ * <p>
+ * Changes are delivered as a stream of dirty cells. A GridChangeListener is told the indices of the cells whose shown
+ * value changed, so renderers and senders only visit what changed. Writes can be grouped into an update with
+ * beginUpdate and endUpdate: cells written during an update are only collected, and when the outermost update ends
+ * a single event lists every changed cell once. Writes outside an update are published straight away.
+ * <p>
+ * The Grid contains functions related to modifying the model, for example, placing a piece inside the grid.
+ * <p>
+ * The Grid should be linked to a GameBoard for it's display.
+ */
+public class Grid {
+
+    private static final Logger logger = LogManager.getLogger(Grid.class);
+
+    /**
+     * Value shown in the view while a cleared cell flashes.
+     */
+    public static final int FLASH = -1;
+
+    /**
+     * The board holding the state of this grid
+     */
+    private final Board board;
+
+    /**
+     * The number of columns in this grid
+     */
+    private final int cols;
+
+    /**
+     * The number of rows in this grid
+     */
+    private final int rows;
+
+    /**
+     * Whether each cell is currently shown flashing, indexed by y * cols + x.
+     */
+    private final boolean[] flashing;
+
+    /**
+     * Whether each cell is waiting to be published, indexed by y * cols + x.
+     */
+    private final boolean[] dirty;
+
+    /**
+     * Cells waiting to be published, in the order they were first written.
+     */
+    private final int[] dirtyCells;
+
+    /**
+     * Number of cells waiting to be published.
+     */
+    private int dirtyCount;
+
+    /**
+     * Number of updates currently open.
+     */
+    private int updateDepth;
+
+    /**
+     * Listeners told about each published change.
+     */
+    private final List<GridChangeListener> listeners = new ArrayList<>();
+
+    /**
+     * Create a new Grid with the specified number of columns and rows and initialise them
+     *
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public Grid(int cols, int rows) {
+        this(new Board(cols, rows));
+    }
+
+    /**
+     * Create a new Grid as a view of an existing board
+     *
+     * @param board board holding the state
+     */
+    public Grid(Board board) {
+        this.board = board;
+        this.cols = board.getCols();
+        this.rows = board.getRows();
+
+        flashing = new boolean[cols * rows];
+        dirty = new boolean[cols * rows];
+        dirtyCells = new int[cols * rows];
+
+        //Mirror every write to the board
+        board.setListener((x, y, value) -> markDirty(y * cols + x));
+    }
+
+    /**
+     * Adds a listener told about the cells changed by each update.
+     *
+     * @param listener : listener to be added.
+     */
+    public void addGridChangeListener(GridChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with addGridChangeListener.
+     *
+     * @param listener : listener to be removed.
+     */
+    public void removeGridChangeListener(GridChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts an update. Changes are held back until every started update has ended.
+     */
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    /**
+     * Ends an update, publishing the changed cells once the outermost update ends.
+     */
+    public void endUpdate() {
+        if (--updateDepth == 0 && dirtyCount > 0) {
+            publish();
+        }
+    }
+
+    /**
+     * Applies changes as a single update.
+     *
+     * @param changes : writes to apply.
+     */
+    public void update(Runnable changes) {
+        beginUpdate();
+        try {
+            changes.run();
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * Marks a cell as changed, publishing it straight away when no update is open.
+     *
+     * @param cell : index y * cols + x.
+     */
+    private void markDirty(int cell) {
+        if (!dirty[cell]) {
+            dirty[cell] = true;
+            dirtyCells[dirtyCount++] = cell;
+        }
+        if (updateDepth == 0) {
+            publish();
+        }
+    }
+
+    /**
+     * Tells the listeners about every changed cell. Writes made by listeners are held back and published afterwards as
+     * their own change.
+     */
+    private void publish() {
+        updateDepth++;
+        int count = dirtyCount;
+        for (int i = 0; i < count; i++) {
+            dirty[dirtyCells[i]] = false;
+        }
+        for (GridChangeListener listener : listeners) {
+            listener.gridChanged(dirtyCells, count);
+        }
+        dirtyCount -= count;
+        System.arraycopy(dirtyCells, count, dirtyCells, 0, dirtyCount);
+        updateDepth--;
+        if (updateDepth == 0 && dirtyCount > 0) {
+            publish();
+        }
+    }
+
+    /**
+     * Get the value shown for a cell: FLASH while it flashes after a line clear, otherwise the value held by the board.
+     *
+     * @param x column
+     * @param y row
+     * @return the shown value
+     */
+    public int getShown(int x, int y) {
+        return flashing[y * cols + x] ? FLASH : board.get(x, y);
+    }
+
+    /**
+     * Update the value at the given x and y index within the grid
+     *
+     * @param x     column
+     * @param y     row
+     * @param value the new value
+     */
+    public void set(int x, int y, int value) {
+        board.set(x, y, value);
+    }
+
+    /**
+     * Get the value represented at the given x and y index within the grid
+     *
+     * @param x column
+     * @param y row
+     * @return the value
+     */
+    public int get(int x, int y) {
+        return board.get(x, y);
+    }
+
+    /**
+     * Get the number of columns in this game
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows in this game
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the board holding the state of this grid
+     *
+     * @return board
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Get the Zobrist hash of the occupied cells in this grid, kept up to date by placements and line clears
+     *
+     * @return occupancy hash
+     */
+    public long getHash() {
+        return board.getHash();
+    }
+
+    /**
+     * Get the bitmask of occupied cells in this grid. Only available on grids of at most Board.MASK_CELLS cells.
+     *
+     * @return occupancy mask, bit y * cols + x
+     */
+    public long getOccupied() {
+        return board.getOccupied();
+    }
+
+    /**
+     * Checks whether every cell in the given row is occupied.
+     *
+     * @param y row
+     * @return true if the row is full
+     */
+    public boolean isRowFull(int y) {
+        return board.isRowFull(y);
+    }
+
+    /**
+     * Checks whether every cell in the given column is occupied.
+     *
+     * @param x column
+     * @return true if the column is full
+     */
+    public boolean isColumnFull(int x) {
+        return board.isColumnFull(x);
+    }
+
+    /**
+     * Finds every full row and column.
+     *
+     * @param result : reused result to fill with the full rows, columns and the cells they cover.
+     * @return result.
+     */
+    public LineClear findLineClears(LineClear result) {
+        return board.findLineClears(result);
+    }
+
+    /**
+     * Shows the cells of a line clear as flashing. Only the view changes, the board already holds them as empty.
+     *
+     * @param clear : cleared lines.
+     */
+    public void flash(LineClear clear) {
+        beginUpdate();
+        for (int i = 0; i < clear.getRowCount(); i++) {
+            int y = clear.getRow(i);
+            for (int x = 0; x < cols; x++) {
+                setFlashing(y * cols + x, true);
+            }
+        }
+        for (int i = 0; i < clear.getColumnCount(); i++) {
+            int x = clear.getColumn(i);
+            for (int y = 0; y < rows; y++) {
+                setFlashing(y * cols + x, true);
+            }
+        }
+        endUpdate();
+    }
+
+    /**
+     * Ends the flash of a cleared cell, returning the view to the value held by the board.
+     *
+     * @param x column
+     * @param y row
+     */
+    public void endFlash(int x, int y) {
+        setFlashing(y * cols + x, false);
+    }
+
+    /**
+     * Starts or ends the flash of a cell in the view.
+     *
+     * @param cell     : index y * cols + x.
+     * @param flashing : whether the cell is shown flashing.
+     */
+    private void setFlashing(int cell, boolean flashing) {
+        if (this.flashing[cell] != flashing) {
+            this.flashing[cell] = flashing;
+            markDirty(cell);
+        }
+    }
+
+    /**
+     * Get the precomputed piece data for this grid's size
+     *
+     * @return placement table
+     */
+    public PlacementTable getPlacements() {
+        return board.getPlacements();
+    }
+
+    /**
+     * Places the value of the piece in every cell of its footprint centred on the chosen square.
+     *
+     * @param x     : x coordinate of the chosen center square.
+     * @param y     : y coordinate of the chosen center square.
+     * @param piece : piece to be played onto the grid.
+     */
+    public void playPiece(int x, int y, GamePiece piece) {
+        beginUpdate();
+        try {
+            board.playPiece(x, y, piece);
+        } finally {
+            endUpdate();
+        }
+    }
+
+    /**
+     * Clears the grid.
+     * Changes all grid values to 0 and ends any flashes, as a single update.
+     */
+    public void clearGrid() {
+        beginUpdate();
+        board.clear();
+        for (int cell = 0; cell < flashing.length; cell++) {
+            setFlashing(cell, false);
+        }
+        endUpdate();
+    }
+
+
+    /**
+     * Checks if a piece can be played.
+     *
+     * @param x     : x coordinate of the chosen center square.
+     * @param y     : y coordinate of the chosen center square.
+     * @param piece : piece to be played.
+     * @return true/false : depending on whether a piece can be played.
+     */
+    public boolean canPlayPiece(int x, int y, GamePiece piece) {
+        return board.canPlayPiece(x, y, piece);
+    }
+}
@@ -0,0 +1,142 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.application.Platform;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.solver.SearchDeadline;
+import uk.ac.soton.comp1206.engine.solver.Solver;
+import uk.ac.soton.comp1206.event.HintListener;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Searches for the best move in the background while the player thinks.
+ * <p>
+ * Each request cancels the previous search and starts a new one on a worker thread, searching deeper until its time
+ * budget runs out. Every completed depth is passed to the listener on the FX thread. Requests are numbered, and a
+ * result is only shown if no newer request or cancel has happened since, so a hint for pieces that have changed is
+ * never shown. Requests and cancels must be made on the FX thread.
+ */
+public class HintService {
+
+    private static final Logger logger = LogManager.getLogger(HintService.class);
+
+    /**
+     * Deepest search tried.
+     */
+    public static final int MAX_DEPTH = 3;
+
+    /**
+     * Longest a single search may take, in milliseconds.
+     */
+    public static final long MAX_BUDGET = 3000;
+
+    /**
+     * Solver for the game's board size.
+     */
+    private final Solver solver;
+
+    /**
+     * Worker thread running the searches.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hint-service");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Number of the latest request, only read and written on the FX thread.
+     */
+    private long generation;
+
+    /**
+     * Deadline of the running search, cancelled when it is replaced.
+     */
+    private SearchDeadline deadline;
+
+    /**
+     * Listener for hints found.
+     */
+    private HintListener hintListener;
+
+    /**
+     * Create a hint service for boards of the given size.
+     *
+     * @param cols      : number of columns.
+     * @param rows      : number of rows.
+     * @param catalogue : pieces the game is played with.
+     * @param scoring   : rule the game scores line clears by.
+     */
+    public HintService(int cols, int rows, PieceCatalogue catalogue, ScoringRule scoring) {
+        this.solver = new Solver(cols, rows, catalogue, scoring);
+    }
+
+    /**
+     * Adds listener for hints found.
+     *
+     * @param listener : listener to be added.
+     */
+    public void addHintListener(HintListener listener) {
+        hintListener = listener;
+    }
+
+    /**
+     * Starts searching for a hint for the engine's current state, replacing any search in progress.
+     *
+     * @param engine : engine to read the board, pieces and multiplier from.
+     * @param budget : milliseconds the search may take, capped at MAX_BUDGET.
+     */
+    public void request(GameEngine engine, long budget) {
+        cancel();
+        if (engine.getCurrentPiece() == null || engine.getNextPiece() == null) {
+            return;
+        }
+
+        //Copy the state on the FX thread, the engine is not safe to read from the worker
+        long occupied = engine.getBoard().getOccupied();
+        int current = engine.getCurrentPiece().getType();
+        int next = engine.getNextPiece().getType();
+        int multiplier = engine.getMultiplier();
+
+        long request = generation;
+        SearchDeadline search = new SearchDeadline(Math.max(0, Math.min(budget, MAX_BUDGET)));
+        deadline = search;
+
+        executor.execute(() -> {
+            if (search.isCancelled()) return;
+            solver.deepen(occupied, current, next, multiplier, MAX_DEPTH, search, hint -> Platform.runLater(() -> {
+                if (request == generation && hintListener != null) {
+                    hintListener.onHint(hint);
+                }
+            }));
+        });
+    }
+
+    /**
+     * Cancels any search in progress and clears the shown hint.
+     */
+    public void cancel() {
+        generation++;
+        if (deadline != null) {
+            deadline.cancel();
+            deadline = null;
+        }
+        if (hintListener != null) {
+            hintListener.onHint(null);
+        }
+    }
+
+    /**
+     * Cancels any search and stops the worker thread.
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+        logger.info("Hint service stopped");
+    }
+}
@@ -7,6 +7,11 @@ import javafx.collections.FXCollections;
 import javafx.util.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.PieceQueue;
+import uk.ac.soton.comp1206.engine.Zobrist;
+import uk.ac.soton.comp1206.engine.event.GameEvent;
 import uk.ac.soton.comp1206.event.BoardUpdate;
 import uk.ac.soton.comp1206.event.ConnectionLostListener;
 import uk.ac.soton.comp1206.event.LeaderboardChange;
@@ -15,11 +20,20 @@ import uk.ac.soton.comp1206.scores.Player;
 import uk.ac.soton.comp1206.scores.Sorter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 
 /**
  * Multiplayer game class.
  * Handles differences from base game class.
+ * <p>
+ * Boards are compared by a Zobrist hash of their cell values, kept up to date as cells change. The board is only sent
+ * when its hash differs from the one last sent, and boards received for other players are only shown when their hash
+ * differs from the one last shown. A server that also exchanges hashes announces it by sending one, after which the
+ * hash alone is sent at the end of each turn so it can check for divergence, and the full board again whenever the
+ * server sends RESYNC. A player's HASH that does not match the board last shown for them asks for theirs with
+ * RESYNC and their name.
  */
 public class MultiplayerGame extends Game {
 
@@ -28,9 +42,14 @@ public class MultiplayerGame extends Game {
      */
     private Communicator comm;
     /**
-     * Data structure to store pieces.
+     * Most pieces sent by the server held ahead of play.
      */
-    private ArrayList<GamePiece> pieces = new ArrayList<>();
+    private static final int PREFETCH_CAPACITY = 16;
+
+    /**
+     * Pieces sent by the server and not yet played, only touched on the UI thread.
+     */
+    private final PieceQueue pieces = new PieceQueue(PREFETCH_CAPACITY, PieceCatalogue.STANDARD);
 
     private static Logger logger = LogManager.getLogger(MultiplayerGame.class);
 
@@ -66,6 +85,31 @@ public class MultiplayerGame extends Game {
      */
     private ConnectionLostListener connectionLostListener;
 
+    /**
+     * Cell values last sent to the server, indexed by y * cols + x.
+     */
+    private final int[] sentBoard;
+
+    /**
+     * Zobrist hash of the cell values last sent.
+     */
+    private long sentHash;
+
+    /**
+     * Zobrist hash of the board last sent in full.
+     */
+    private long fullHash;
+
+    /**
+     * Whether the server exchanges board hashes, known once it sends one. Only touched on the UI thread.
+     */
+    private boolean hashExchange;
+
+    /**
+     * Zobrist hash of the board last shown for each other player. Only touched on the UI thread.
+     */
+    private final Map<String, Long> boardHashes = new HashMap<>();
+
     /**
      * Constructor for game.
      * Sets columns nad rows and other objects for the game.
@@ -77,7 +121,10 @@ public class MultiplayerGame extends Game {
         super(cols, rows);
 
         this.comm = comm;
+        this.sentBoard = new int[cols * rows];
 
+        //Send the board whenever an update changes a cell value, flashes alone do not change it
+        grid.addGridChangeListener(this::boardChanged);
 
         handleCommListeners();
         initializeQueue();
@@ -97,18 +144,21 @@ public class MultiplayerGame extends Game {
     public void nextPiece(Boolean start) {
         logger.info("Multiplayer next piece");
 
-        comm.send(sendBoard());
-
         if (start) {
-            currentPiece = newCurrentPiece();
+            comm.send(sendBoard());
+            engine.setCurrentPiece(newCurrentPiece());
 
         } else {
-            currentPiece = nextPiece;
+            engine.setCurrentPiece(engine.getNextPiece());
             dequeue();
+            if (hashExchange) {
+                comm.send("HASH " + Long.toHexString(sentHash));
+            }
         }
         Platform.runLater(() -> {
-            nextPiece = newNextPiece();
-            nextPieceListener.nextPiece(new GamePiece[]{currentPiece, nextPiece});
+            engine.setNextPiece(newNextPiece());
+            fire(GameEvent.PIECES);
+            checkStuck();
         });
         comm.send("PIECE");
         comm.send("SCORES");
@@ -127,8 +177,8 @@ public class MultiplayerGame extends Game {
             if (communication.startsWith("PIECE ")) {
                 communication = communication.replace("PIECE ", "");
                 // logger.info("##PIECE##  " + communication);
-                enqueue(GamePiece.createPiece(Integer.parseInt(communication) - 1));
-                System.out.println(pieces.size());
+                GamePiece piece = GamePiece.createPiece(Integer.parseInt(communication) - 1);
+                Platform.runLater(() -> enqueue(piece));
                 logger.info("Adding ##PIECE## " + communication);
 
             }
@@ -166,18 +216,70 @@ public class MultiplayerGame extends Game {
                 latestMessage.set(communication);
 
             }
-            //Handles new boards being received.
+            //Handles new boards being received, on the UI thread with the hashes they are checked against.
             else if (communication.startsWith("BOARD ")) {
-                logger.info(communication);
                 String player = communication.substring(6, communication.indexOf(":"));
-                communication = communication.replace(communication.substring(0, communication.indexOf(":") + 1), "");
-
-                boardUpdateListener.onUpdate(communication, player);
-
+                String board = communication.replace(communication.substring(0, communication.indexOf(":") + 1), "");
+                Platform.runLater(() -> boardReceived(player, board));
+            }
+            //Handles board hashes.
+            else if (communication.startsWith("HASH ")) {
+                String hash = communication.replace("HASH ", "");
+                Platform.runLater(() -> hashReceived(hash));
+            }
+            //Handles the server asking for the full board.
+            else if (communication.equals("RESYNC")) {
+                Platform.runLater(this::resyncRequested);
             }
         });
     }
 
+    /**
+     * Shows a board received for another player, unless it is the one already shown.
+     * Runs on the UI thread.
+     *
+     * @param player : player the board belongs to.
+     * @param board  : cell values separated by spaces.
+     */
+    private void boardReceived(String player, String board) {
+        long hash = hashBoard(board);
+        Long shown = boardHashes.put(player, hash);
+        if (shown == null || shown != hash) {
+            logger.info("##BOARD## " + player);
+            boardUpdateListener.onUpdate(board, player);
+        }
+    }
+
+    /**
+     * Handles a board hash from the server, asking for the board of a player whose hash differs from the one shown.
+     * Runs on the UI thread.
+     *
+     * @param message : player and hash in hex, separated by a colon.
+     */
+    private void hashReceived(String message) {
+        hashExchange = true;
+        int split = message.lastIndexOf(":");
+        if (split < 0) return;
+        String player = message.substring(0, split);
+        long hash = Long.parseUnsignedLong(message.substring(split + 1), 16);
+
+        Long shown = boardHashes.get(player);
+        if (shown == null || shown != hash) {
+            logger.warn("Board of " + player + " has diverged, asking for it again");
+            comm.send("RESYNC " + player);
+        }
+    }
+
+    /**
+     * Sends the full board again after the server has seen its hash differ.
+     * Runs on the UI thread, where the board being sent is updated.
+     */
+    private void resyncRequested() {
+        hashExchange = true;
+        logger.warn("Server board has diverged, sending it again");
+        comm.send(sendBoard());
+    }
+
     /**
      * Initializes queue at the start.
      * Preloads 5 piece.
@@ -194,7 +296,7 @@ public class MultiplayerGame extends Game {
      * @return : piece to be played.
      */
     private GamePiece dequeue() {
-        return pieces.remove(0);
+        return pieces.remove();
     }
 
     /**
@@ -203,7 +305,9 @@ public class MultiplayerGame extends Game {
      * @param piece : piece to be added.
      */
     private void enqueue(GamePiece piece) {
-        pieces.add(piece);
+        if (!pieces.offer(piece)) {
+            logger.warn("Piece queue full, dropping " + piece);
+        }
     }
 
     /**
@@ -221,12 +325,11 @@ public class MultiplayerGame extends Game {
      * @return piece or null (if server issues occur).
      */
     public GamePiece newNextPiece() {
-        try {
+        if (pieces.size() > 1) {
             return pieces.get(1);
-        } catch (Exception e) {
-            connectionLostListener.onConnectionLost();
-            endGameListener.endGame();
         }
+        connectionLostListener.onConnectionLost();
+        fire(GameEvent.GAME_OVER);
         return null;
     }
 
@@ -277,22 +380,67 @@ public class MultiplayerGame extends Game {
     }
 
     /**
-     * Sends user's board to server.
+     * Sends the board to the server if any of the changed cells hold a different value to the one last sent.
+     *
+     * @param cells : indices y * cols + x of the changed cells.
+     * @param count : number of changed cells.
+     */
+    private void boardChanged(int[] cells, int count) {
+        for (int i = 0; i < count; i++) {
+            int cell = cells[i];
+            int value = getGrid().get(cell % cols, cell / cols);
+            sentHash ^= Zobrist.value(cell, sentBoard[cell]) ^ Zobrist.value(cell, value);
+            sentBoard[cell] = value;
+        }
+        if (sentHash != fullHash) {
+            comm.send(sendBoard());
+        }
+    }
+
+    /**
+     * Builds the user's board to send to the server, marking it as the board last sent in full.
      *
      * @return board message to be sent.
      */
     private String sendBoard() {
+        fullHash = sentHash;
         StringBuilder builder = new StringBuilder();
         builder.append("BOARD ");
 
-        for (int i = 0; i < rows; i++) {
-            for (int z = 0; z < cols; z++) {
-                builder.append((getGrid().get(i, z))).append(" ");
+        for (int x = 0; x < cols; x++) {
+            for (int y = 0; y < rows; y++) {
+                builder.append(sentBoard[y * cols + x]).append(" ");
             }
         }
         return builder.toString();
     }
 
+    /**
+     * Hashes a board received from the server, whose values are sent a column at a time.
+     *
+     * @param board : cell values separated by spaces.
+     * @return Zobrist hash of the cell values.
+     */
+    private long hashBoard(String board) {
+        long hash = 0;
+        int index = 0;
+        int value = 0;
+        boolean digits = false;
+        for (int i = 0; i <= board.length(); i++) {
+            char c = i < board.length() ? board.charAt(i) : ' ';
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + c - '0';
+                digits = true;
+            } else if (digits) {
+                hash ^= Zobrist.value((index % rows) * cols + index / rows, value);
+                index++;
+                value = 0;
+                digits = false;
+            }
+        }
+        return hash;
+    }
+
     /**
      * Handles end of game events.
      */
@@ -300,7 +448,7 @@ public class MultiplayerGame extends Game {
     public void endGame() {
         //Show high score screen.
         logger.info("Open high score screen");
-        endGameListener.endGame();
+        fire(GameEvent.GAME_OVER);
     }
 
     /**
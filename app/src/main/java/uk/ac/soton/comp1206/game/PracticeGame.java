@@ -0,0 +1,99 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.engine.EngineSnapshot;
+import uk.ac.soton.comp1206.engine.UndoHistory;
+import uk.ac.soton.comp1206.engine.event.GameEvent;
+
+/**
+ * A single player Game whose placements can be undone and redone.
+ * <p>
+ * The engine's state is captured as an EngineSnapshot before every successful placement and kept in an UndoHistory.
+ * Undo and redo restore a snapshot as a single grid update and bring the pieces, properties and timer in line with
+ * it.
+ */
+public class PracticeGame extends Game {
+
+    private static final Logger logger = LogManager.getLogger(PracticeGame.class);
+
+    /**
+     * States to step back and forward through.
+     */
+    private final UndoHistory history = new UndoHistory();
+
+    /**
+     * Constructor for a practice game.
+     *
+     * @param cols : number of columns.
+     * @param rows : number of rows.
+     */
+    public PracticeGame(int cols, int rows) {
+        super(cols, rows);
+    }
+
+    /**
+     * Records the state before a placement, then plays it.
+     *
+     * @param gameBlock the block that was clicked
+     */
+    @Override
+    public void blockClicked(GameBlock gameBlock) {
+        if (engine.canPlay(gameBlock.getX(), gameBlock.getY())) {
+            history.record(engine.snapshot());
+        }
+        super.blockClicked(gameBlock);
+    }
+
+    /**
+     * Returns to the state before the last placement.
+     *
+     * @return true if there was a placement to undo.
+     */
+    public boolean undo() {
+        EngineSnapshot state = history.undo(engine.snapshot());
+        if (state == null) {
+            return false;
+        }
+        logger.info("Undo, {} left", history.getUndoCount());
+        show(state);
+        return true;
+    }
+
+    /**
+     * Replays the last undone placement.
+     *
+     * @return true if there was a placement to redo.
+     */
+    public boolean redo() {
+        EngineSnapshot state = history.redo(engine.snapshot());
+        if (state == null) {
+            return false;
+        }
+        logger.info("Redo, {} left", history.getRedoCount());
+        show(state);
+        return true;
+    }
+
+    /**
+     * Gets the history of this game.
+     *
+     * @return undo history.
+     */
+    public UndoHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Restores a state and updates the properties, pieces and timer to match.
+     *
+     * @param state : state to restore.
+     */
+    private void show(EngineSnapshot state) {
+        grid.update(() -> engine.restore(state));
+        syncProperties();
+        fire(GameEvent.PIECES);
+        timer.reset(getTimerDelay());
+    }
+}
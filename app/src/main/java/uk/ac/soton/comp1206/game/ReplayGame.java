@@ -0,0 +1,181 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.event.GameEvent;
+import uk.ac.soton.comp1206.engine.replay.Replay;
+import uk.ac.soton.comp1206.engine.replay.ReplayFormat;
+import uk.ac.soton.comp1206.engine.replay.ReplayPlayer;
+
+/**
+ * A Game that plays back a recorded replay instead of taking input from the player.
+ * <p>
+ * The actions are applied by a ReplayPlayer to its own engine, which this game displays. The game loop is never
+ * started, so the game only moves when the scene steps or seeks the replay.
+ */
+public class ReplayGame extends Game {
+
+    private static final Logger logger = LogManager.getLogger(ReplayGame.class);
+
+    /**
+     * Player applying the recorded actions.
+     */
+    private final ReplayPlayer player;
+
+    /**
+     * Constructor for a game playing back a replay.
+     *
+     * @param replay : replay to play.
+     */
+    public ReplayGame(Replay replay) {
+        this(new ReplayPlayer(replay));
+    }
+
+    /**
+     * Constructor for a game displaying the given player.
+     *
+     * @param player : player applying the recorded actions.
+     */
+    private ReplayGame(ReplayPlayer player) {
+        super(player.getEngine(), player.getReplay().getSeed());
+        this.player = player;
+    }
+
+    /**
+     * Shows the start of the replay without starting the game loop.
+     */
+    @Override
+    public void initialiseGame() {
+        logger.info("Playing replay of {} actions", player.getReplay().length());
+        setHighScoreProperty(getHighScore());
+        refresh();
+    }
+
+    /**
+     * Clicks are ignored while watching a replay.
+     *
+     * @param gameBlock the block that was clicked
+     */
+    @Override
+    public void blockClicked(GameBlock gameBlock) {
+    }
+
+    /**
+     * Swapping is ignored while watching a replay.
+     */
+    @Override
+    public void swapCurrentPiece() {
+    }
+
+    /**
+     * Rotating is ignored while watching a replay.
+     *
+     * @param left : direction of rotation.
+     * @return current piece.
+     */
+    @Override
+    public GamePiece rotatePiece(boolean left) {
+        return engine.getCurrentPiece();
+    }
+
+    /**
+     * Applies every action recorded up to the given time, as it happened in the game.
+     *
+     * @param time : milliseconds from the start of the game.
+     */
+    public void playUntil(long time) {
+        Replay replay = player.getReplay();
+        grid.beginUpdate();
+        try {
+            playActions(replay, time);
+        } finally {
+            grid.endUpdate();
+        }
+    }
+
+    /**
+     * Steps through the actions recorded up to the given time.
+     *
+     * @param replay : replay being played.
+     * @param time   : milliseconds from the start of the game.
+     */
+    private void playActions(Replay replay, long time) {
+        while (!player.isFinished() && replay.getTime(player.getPosition()) <= time) {
+            int index = player.getPosition();
+            int action = player.step();
+            if (action == ReplayFormat.PLACE) {
+                claim(GameEvent.PLACE).setPosition(replay.getX(index), replay.getY(index), replay.getArgument(index));
+                events.publish();
+                afterPlay(engine.getLastClear());
+            }
+            syncProperties();
+            showPieces();
+            if (action == ReplayFormat.PLACE || action == ReplayFormat.TIMEOUT) {
+                timer.reset(getTimerDelay());
+            }
+        }
+    }
+
+    /**
+     * Jumps to the given time without playing the actions in between.
+     *
+     * @param time : milliseconds from the start of the game.
+     */
+    public void seek(long time) {
+        grid.update(() -> player.seekTime(time));
+        refresh();
+    }
+
+    /**
+     * Jumps to the end of the replay.
+     */
+    public void fastForward() {
+        grid.update(player::fastForward);
+        refresh();
+    }
+
+    /**
+     * Gets the time of the last action shown.
+     *
+     * @return milliseconds from the start of the game.
+     */
+    public long getTime() {
+        return player.getTime();
+    }
+
+    /**
+     * Gets the length of the replay.
+     *
+     * @return milliseconds from the start to the last action.
+     */
+    public long getDuration() {
+        return player.getReplay().getDuration();
+    }
+
+    /**
+     * Checks whether every action has been shown.
+     *
+     * @return true at the end of the replay.
+     */
+    public boolean isFinished() {
+        return player.isFinished();
+    }
+
+    /**
+     * Updates the properties, pieces and timer to the engine's state.
+     */
+    private void refresh() {
+        syncProperties();
+        showPieces();
+        timer.reset(getTimerDelay());
+    }
+
+    /**
+     * Displays the engine's current and next piece.
+     */
+    private void showPieces() {
+        fire(GameEvent.PIECES);
+    }
+}
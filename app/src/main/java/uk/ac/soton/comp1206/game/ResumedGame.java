@@ -0,0 +1,44 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.engine.event.GameEvent;
+import uk.ac.soton.comp1206.engine.save.SavedGame;
+
+/**
+ * A single player Game continued from a save, picking up with the same board, pieces, score and turn time.
+ */
+public class ResumedGame extends Game {
+
+    private static final Logger logger = LogManager.getLogger(ResumedGame.class);
+
+    /**
+     * Save the game continues from.
+     */
+    private final SavedGame save;
+
+    /**
+     * Constructor for a game continuing a save.
+     *
+     * @param save : saved game to continue.
+     */
+    public ResumedGame(SavedGame save) {
+        super(save.createEngine(), save.getSeed());
+        this.save = save;
+    }
+
+    /**
+     * Shows the saved state and starts the game loop with the turn time that was left.
+     */
+    @Override
+    public void initialiseGame() {
+        logger.info("Resuming game at score {}", engine.getScore());
+
+        syncProperties();
+        setHighScoreProperty(getHighScore());
+        fire(GameEvent.PIECES);
+
+        timer.reset(save.getTime());
+        gameLoop();
+    }
+}
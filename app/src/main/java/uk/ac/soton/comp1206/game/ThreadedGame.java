@@ -0,0 +1,305 @@
+package uk.ac.soton.comp1206.game;
+
+import javafx.animation.AnimationTimer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.component.GameBlock;
+import uk.ac.soton.comp1206.engine.EngineFrame;
+import uk.ac.soton.comp1206.engine.EngineSnapshot;
+import uk.ac.soton.comp1206.engine.EngineThread;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.LineClear;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+import uk.ac.soton.comp1206.engine.event.GameEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single player Game whose rules are applied on a logic thread rather than the UI thread.
+ * <p>
+ * Once started, the game hands a copy of its engine to an EngineThread and sends it the player's actions. The UI
+ * thread renders what the logic thread publishes: every pulse it takes the new frames, publishes their events with the
+ * state of their snapshots and records them, then restores the latest snapshot into the engine shown by the grid as
+ * one update. The grid mirrors its board
+ * through a listener, so the logic thread keeps an engine of its own and never touches the board on screen.
+ * <p>
+ * Rotating and swapping cannot fail, so they are shown straight away as well as sent, and the snapshot the logic
+ * thread publishes for them matches what is already on screen. A snapshot is only restored once the logic thread has
+ * caught up with every action sent, so it never undoes one shown ahead of it.
+ */
+public class ThreadedGame extends Game {
+
+    private static final Logger logger = LogManager.getLogger(ThreadedGame.class);
+
+    /**
+     * Applies the rules, null until the game starts and after it stops.
+     */
+    private EngineThread logic;
+
+    /**
+     * Latest state published and not yet shown, or null.
+     */
+    private EngineSnapshot latest;
+
+    /**
+     * Lines cleared by the placements published and not yet shown, one per placement.
+     */
+    private final List<LineClear> placed = new ArrayList<>();
+
+    /**
+     * Turns ended since the last state shown, by a placement or a timeout.
+     */
+    private int turns;
+
+    /**
+     * Whether the game over has been published.
+     */
+    private boolean over;
+
+    /**
+     * Shows the frames published by the logic thread, once per rendered frame.
+     */
+    private final AnimationTimer pulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            render();
+        }
+    };
+
+    /**
+     * Constructor for a game applying its rules on a logic thread.
+     *
+     * @param cols : number of columns.
+     * @param rows : number of rows.
+     */
+    public ThreadedGame(int cols, int rows) {
+        super(cols, rows);
+    }
+
+    /**
+     * Starts the game, then hands a copy of the engine to the logic thread.
+     */
+    @Override
+    public void start() {
+        super.start();
+
+        GameEngine copy = new GameEngine(cols, rows, new SeededPieceSource(getSeed(), engine.getCatalogue()),
+                engine.getCatalogue());
+        copy.setScoring(engine.getScoring());
+        copy.setPacing(engine.getPacing());
+        copy.restore(engine.snapshot());
+        logic = new EngineThread(copy);
+        pulse.start();
+        logger.info("Applying rules on the logic thread");
+    }
+
+    /**
+     * Sends a placement to the logic thread.
+     *
+     * @param gameBlock the block that was clicked
+     */
+    @Override
+    public void blockClicked(GameBlock gameBlock) {
+        if (logic == null) return;
+        logic.place(gameBlock.getX(), gameBlock.getY());
+    }
+
+    /**
+     * Rotates the piece shown and sends the rotation to the logic thread.
+     *
+     * @param left : direction of rotation.
+     * @return rotated piece.
+     */
+    @Override
+    public GamePiece rotatePiece(boolean left) {
+        GamePiece piece = engine.rotate(left);
+        if (logic != null) {
+            logic.rotate(left);
+        }
+        claim(GameEvent.ROTATE).setPosition(0, 0, piece.getRotation());
+        events.publish();
+        return piece;
+    }
+
+    /**
+     * Swaps the pieces shown and sends the swap to the logic thread.
+     */
+    @Override
+    public void swapCurrentPiece() {
+        engine.swap();
+        if (logic != null) {
+            logic.swap();
+        }
+        fire(GameEvent.SWAP);
+    }
+
+    /**
+     * Sends the end of the turn to the logic thread.
+     */
+    @Override
+    public void endTurn() {
+        if (logic == null) return;
+        logic.timeout();
+    }
+
+    /**
+     * Does nothing, the logic thread ends turns that cannot be played.
+     */
+    @Override
+    protected void checkStuck() {
+    }
+
+    /**
+     * Stops the logic thread, then saves the game and closes the replay.
+     */
+    @Override
+    public void stop() {
+        stopLogic();
+        super.stop();
+    }
+
+    /**
+     * Stops the logic thread and handles the end of the game.
+     */
+    @Override
+    public void endGame() {
+        stopLogic();
+        super.endGame();
+    }
+
+    /**
+     * Takes the frames published since the last pulse, and shows the latest state once the logic thread is idle.
+     */
+    private void render() {
+        if (logic == null) return;
+
+        //Checked before polling, so every frame of the commands sent so far is published when it is 0
+        boolean idle = logic.getPendingCount() == 0;
+        EngineFrame frame;
+        while ((frame = logic.poll()) != null) {
+            take(frame);
+        }
+        if (!idle || latest == null) return;
+
+        grid.beginUpdate();
+        try {
+            engine.restore(latest);
+            for (LineClear clear : placed) {
+                if (!clear.isEmpty()) {
+                    grid.flash(clear);
+                }
+            }
+        } finally {
+            grid.endUpdate();
+        }
+        syncProperties();
+        syncHighScore();
+        latest = null;
+        placed.clear();
+
+        if (over) {
+            timer.end();
+            endGame();
+            return;
+        }
+        if (turns > 0) {
+            timer.reset(getTimerDelay());
+            fire(GameEvent.PIECES);
+            for (; turns > 0; turns--) {
+                autosave();
+            }
+        }
+    }
+
+    /**
+     * Records a frame and publishes its events. Its state is shown later with the rest of the pulse, so the events
+     * hold the state of the frame's snapshot rather than the engine shown.
+     *
+     * @param frame : frame published by the logic thread.
+     */
+    private void take(EngineFrame frame) {
+        EngineSnapshot state = frame.getSnapshot();
+        latest = state;
+        switch (frame.getAction()) {
+            case EngineFrame.PLACE -> {
+                if (recorder != null) {
+                    recorder.place(frame.getX(), frame.getY(), frame.getArgument());
+                }
+                claim(GameEvent.PLACE, state).setPosition(frame.getX(), frame.getY(), frame.getArgument());
+                events.publish();
+                LineClear clear = frame.getClear();
+                if (!clear.isEmpty()) {
+                    logger.info("Clearing {} rows and {} columns", clear.getRowCount(), clear.getColumnCount());
+                    claim(GameEvent.CLEAR, state).setClear(clear);
+                    events.publish();
+                }
+                placed.add(clear);
+                turns++;
+            }
+            case EngineFrame.REJECT -> {
+                claim(GameEvent.REJECT, state).setPosition(frame.getX(), frame.getY(), frame.getArgument());
+                events.publish();
+            }
+            case EngineFrame.ROTATE -> {
+                if (recorder != null) {
+                    recorder.rotate(frame.getArgument() == 1);
+                }
+            }
+            case EngineFrame.SWAP -> {
+                if (recorder != null) {
+                    recorder.swap();
+                }
+            }
+            case EngineFrame.STUCK -> fire(GameEvent.STUCK, state);
+            case EngineFrame.TIMEOUT, EngineFrame.GAME_OVER -> {
+                if (recorder != null) {
+                    recorder.timeout();
+                }
+                if (frame.getAction() == EngineFrame.GAME_OVER) {
+                    over = true;
+                } else {
+                    fire(GameEvent.TIMEOUT, state);
+                }
+                turns++;
+            }
+        }
+    }
+
+    /**
+     * Claims an event on the bus, filled with the pieces, score, multiplier, level and lives of a snapshot. It is
+     * delivered once events.publish is called.
+     *
+     * @param type  : type of the event.
+     * @param state : state published by the logic thread.
+     * @return event to add to.
+     */
+    private GameEvent claim(int type, EngineSnapshot state) {
+        return events.claim(type).setState(state.getCurrentPiece(), state.getNextPiece(), state.getScore(),
+                state.getMultiplier(), state.getLevel(), state.getLives());
+    }
+
+    /**
+     * Publishes an event holding the state of a snapshot.
+     *
+     * @param type  : type of the event.
+     * @param state : state published by the logic thread.
+     */
+    private void fire(int type, EngineSnapshot state) {
+        claim(type, state);
+        events.publish();
+    }
+
+    /**
+     * Stops the pulse and the logic thread, logging how much work the logic thread did.
+     */
+    private void stopLogic() {
+        if (logic == null) return;
+        pulse.stop();
+        logic.close();
+        logger.info("Logic thread applied {} commands in {} ms", logic.getCommandCount(),
+                logic.getBusyNanos() / 1_000_000);
+        logic = null;
+    }
+}
@@ -3,24 +3,50 @@ package uk.ac.soton.comp1206.media;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.scene.media.MediaPlayer;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
 /**
  * Handles all sounds and music played.
+ * <p>
+ * Sound effects may be played from the UI thread or from AUDIO, the thread the sounds of game events are played on, so
+ * loading a sound never holds up the game.
  */
 public class Media {
+
+    /**
+     * Executor playing the sound effects of game events, one at a time on a thread of its own.
+     */
+    public static final Executor AUDIO = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-audio");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * MediaPlayer to play music.
      */
     private static MediaPlayer music;
     /**
-     * MediaPlayer to handle sound effects.
+     * MediaPlayer to handle sound effects, replaced from either thread sounds are played on.
      */
-    private static MediaPlayer audio;
+    private static volatile MediaPlayer audio;
 
     /**
      * Property for controlling volumes.
      */
     private static SimpleDoubleProperty volumeProperty = new SimpleDoubleProperty(100);
 
+    static {
+        //Registered once, so sounds played off the UI thread only read the volume
+        volumeProperty.addListener((observableValue, number, t1) -> {
+            MediaPlayer player = audio;
+            if (player != null) {
+                player.setVolume(volumeProperty.get() / 100);
+            }
+        });
+    }
+
 
 
     /**
@@ -54,12 +80,11 @@ public class Media {
      */
     public void playSound(String file) {
         javafx.scene.media.Media sound = new javafx.scene.media.Media(Media.class.getResource("/sounds/default/" + file).toExternalForm());
-        audio = new MediaPlayer(sound);
-
-        volumeProperty.addListener((observableValue, number, t1) -> audio.setVolume(volumeProperty.get() / 100));
-        audio.setVolume(volumeProperty.get()/100);
+        MediaPlayer player = new MediaPlayer(sound);
+        player.setVolume(volumeProperty.get()/100);
+        audio = player;
 
-        audio.play();
+        player.play();
     }
 
     /**
@@ -73,13 +98,11 @@ public class Media {
         file = "/sounds/" + theme + "/" + file;
 
         javafx.scene.media.Media sound = new javafx.scene.media.Media(Media.class.getResource(file).toExternalForm());
-        audio = new MediaPlayer(sound);
-
-        volumeProperty.addListener((observableValue, number, t1) -> audio.setVolume(volumeProperty.get() / 100));
-
-        audio.setVolume(volumeProperty.get()/100);
+        MediaPlayer player = new MediaPlayer(sound);
+        player.setVolume(volumeProperty.get()/100);
+        audio = player;
 
-        audio.play();
+        player.play();
     }
 
     /**
@@ -14,10 +14,14 @@ import javafx.scene.text.Text;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.component.*;
+import uk.ac.soton.comp1206.engine.Board;
+import uk.ac.soton.comp1206.engine.GameEngine;
 import uk.ac.soton.comp1206.event.ClearSoundListener;
 import uk.ac.soton.comp1206.event.FailSoundListener;
 import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.game.GameTimer;
+import uk.ac.soton.comp1206.game.HintService;
+import uk.ac.soton.comp1206.game.ThreadedGame;
 import uk.ac.soton.comp1206.media.Animator;
 import uk.ac.soton.comp1206.media.Media;
 import uk.ac.soton.comp1206.ui.GamePane;
@@ -43,6 +47,11 @@ public class ChallengeScene extends BaseScene {
      */
     private PieceBoard current, next;
 
+    /**
+     * PieceBoard for the pieces after the next one, null when none are previewed.
+     */
+    private PieceBoard previews;
+
     /**
      * Container for gameBoard and chat for multiplayer.
      */
@@ -52,6 +61,11 @@ public class ChallengeScene extends BaseScene {
      */
     protected GameTimer timer = new GameTimer();
 
+    /**
+     * Searches for hints in the background, null when hints are off.
+     */
+    protected HintService hints;
+
     /**
      * Main container for the scene.
      */
@@ -81,6 +95,7 @@ public class ChallengeScene extends BaseScene {
         logger.info("Building " + this.getClass().getName());
 
         setupGame();
+        game.getEngine().setPreviewDepth(previewDepth());
 
 
         root = new GamePane(gameWindow.getWidth(), gameWindow.getHeight());
@@ -156,11 +171,22 @@ public class ChallengeScene extends BaseScene {
         });
 
 
+        if (hintsEnabled()) {
+            GameEngine engine = game.getEngine();
+            hints = new HintService(game.getCols(), game.getRows(), engine.getCatalogue(), engine.getScoring());
+            hints.addHintListener(hint -> board.showHint(hint == null ? 0 : game.getGrid().getPlacements()
+                    .mask(hint.getPiece(), hint.getRotation(), hint.getX(), hint.getY())));
+        }
+
         current = handleCurrentPieceBoards();
         next = handleNextPieceBoard();
+        previews = handlePreviewBoard();
         handlePieceBoardListeners(current, next, board);
 
         borderHolder.getChildren().addAll(handleLabel("Incoming"), current, handleLabel("Future"), next);
+        if (previews != null) {
+            borderHolder.getChildren().addAll(handleLabel("Later"), previews);
+        }
 
         borderHolder.setAlignment(Pos.CENTER);
 
@@ -175,8 +201,11 @@ public class ChallengeScene extends BaseScene {
         game.addEscapeListener(() -> {
             logger.info("Pressed");
             Platform.runLater(() -> {
+                //Saved first, so the menu offers to resume the game
+                game.stop();
                 gameWindow.startMenu();
                 timer.end();
+                stopHints();
                 game = null;
             });
         });
@@ -202,8 +231,8 @@ public class ChallengeScene extends BaseScene {
     public void setupGame() {
         logger.info("Starting a new challenge");
 
-        //Start new game
-        game = new Game(5, 5);
+        //Start new game, applying the rules on a logic thread if set
+        game = gameWindow.threadedProperty().get() ? new ThreadedGame(5, 5) : new Game(5, 5);
     }
 
     /**
@@ -216,6 +245,50 @@ public class ChallengeScene extends BaseScene {
         getScene().getStylesheets().add(getClass().getResource("/style/" + gameWindow.themeProperty().get() + ".css").toExternalForm());
         handleKeyBoard();
         game.start();
+        if (gameWindow.recordProperty().get()) {
+            startRecording();
+        }
+        startAutosave();
+    }
+
+    /**
+     * Checks whether hints should be shown in this scene. The solver only handles boards small enough for a mask.
+     *
+     * @return true if hints are turned on in the settings.
+     */
+    protected boolean hintsEnabled() {
+        return gameWindow.hintProperty().get() && game.getCols() * game.getRows() <= Board.MASK_CELLS;
+    }
+
+    /**
+     * Starts a background search for a hint for the current pieces, with half the turn's remaining time as budget.
+     */
+    private void requestHint() {
+        if (hints == null) return;
+        hints.request(game.getEngine(), timer.getTime() / 2);
+    }
+
+    /**
+     * Stops searching for hints.
+     */
+    private void stopHints() {
+        if (hints == null) return;
+        hints.shutdown();
+        hints = null;
+    }
+
+    /**
+     * Starts recording the game once it has started.
+     */
+    protected void startRecording() {
+        game.startRecording(Game.REPLAY_DIRECTORY);
+    }
+
+    /**
+     * Starts autosaving the game once it has started, so it can be resumed from the menu if it is closed.
+     */
+    protected void startAutosave() {
+        game.startAutosave(Game.AUTOSAVE_FILE);
     }
 
     /**
@@ -242,6 +315,7 @@ public class ChallengeScene extends BaseScene {
         board.setOnRightClicked(() -> {
             logger.info("Rotate received...");
             currentPiece.displayPiece(game.getCurrentPiece());
+            showPlacements(board);
         });
 
         currentPiece.setOnMouseClicked(e -> {
@@ -251,6 +325,7 @@ public class ChallengeScene extends BaseScene {
             game.rotatePiece(false);
             media.playSound("rotate.wav");
             currentPiece.displayPiece(game.getCurrentPiece());
+            showPlacements(board);
         });
 
         nextPiece.setOnMouseClicked(e -> {
@@ -261,25 +336,43 @@ public class ChallengeScene extends BaseScene {
             media.playSound("transition.wav");
             currentPiece.displayPiece(game.getCurrentPiece());
             nextPiece.displayPiece(game.getNextPiece());
+            showPlacements(board);
+            requestHint();
         });
 
         game.addNextPieceListener(piece -> {
             currentPiece.displayPiece(piece[0]);
             nextPiece.displayPiece(piece[1]);
+            if (previews != null) {
+                previews.displayQueue(game.getEngine().getPreviews());
+            }
+            showPlacements(board);
+            requestHint();
         });
 
         game.addOnRotateListener(piece -> {
             currentPiece.displayPiece(game.getCurrentPiece());
             media.playSound("rotate.wav");
+            showPlacements(board);
+            requestHint();
         });
     }
 
+    /**
+     * Shades the squares the current piece can be played on in its current rotation.
+     *
+     * @param board : board to shade.
+     */
+    private void showPlacements(GameBoard board) {
+        board.showValid(game.getEngine().getMoves(), game.getCurrentPiece());
+    }
+
     /**
      * Creates piece board to display the current piece.
      */
 
     public PieceBoard handleCurrentPieceBoards() {
-        PieceBoard currentPiece = new PieceBoard(3, 3, 75, 75, gameWindow);
+        PieceBoard currentPiece = new PieceBoard(pieceBoardSize(), pieceBoardSize(), 75, 75, gameWindow);
         VBox.setMargin(currentPiece, new Insets(0, 0, 10, 0));
         return currentPiece;
     }
@@ -303,7 +396,38 @@ public class ChallengeScene extends BaseScene {
      */
 
     public PieceBoard handleNextPieceBoard() {
-        return new PieceBoard(3, 3, 75, 75, gameWindow);
+        return new PieceBoard(pieceBoardSize(), pieceBoardSize(), 75, 75, gameWindow);
+    }
+
+    /**
+     * Creates piece board to display the pieces after the next one, one below another.
+     *
+     * @return piece board, or null if no pieces are previewed.
+     */
+    public PieceBoard handlePreviewBoard() {
+        int depth = game.getEngine().getPreviewDepth();
+        if (depth == 0) {
+            return null;
+        }
+        return new PieceBoard(pieceBoardSize(), pieceBoardSize() * depth, 40, 40 * depth, gameWindow, false);
+    }
+
+    /**
+     * Gets how many pieces after the next one the game previews.
+     *
+     * @return preview depth chosen in the settings.
+     */
+    protected int previewDepth() {
+        return gameWindow.previewProperty().get();
+    }
+
+    /**
+     * Gets the number of rows and columns of the piece boards, enough for the widest piece of the game.
+     *
+     * @return piece board size.
+     */
+    private int pieceBoardSize() {
+        return Math.max(3, game.getEngine().getCatalogue().getMaxSize());
     }
 
     /**
@@ -320,6 +444,7 @@ public class ChallengeScene extends BaseScene {
      */
     public void endGame() {
         game.addEndGameListener(() -> {
+            stopHints();
             gameWindow.startScores(game);
             timer.end();
         });
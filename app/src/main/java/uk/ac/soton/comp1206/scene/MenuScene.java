@@ -10,6 +10,7 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.media.Animator;
 import uk.ac.soton.comp1206.themes.SeaButton;
 import uk.ac.soton.comp1206.ui.GamePane;
@@ -90,6 +91,20 @@ public class MenuScene extends BaseScene {
         gameWindow.startChallenge();
     }
 
+    /**
+     * Handle when the Resume button is pressed
+     */
+    private void startResume() {
+        gameWindow.startResume();
+    }
+
+    /**
+     * Handle when the Practice button is pressed
+     */
+    private void startPractice() {
+        gameWindow.startPractice();
+    }
+
     /**
      * Handle when the Instructions button is pressed
      */
@@ -182,28 +197,42 @@ public class MenuScene extends BaseScene {
         Animator animator = new Animator();
 
         //Creates buttons.
+        Button resume = new Button("Resume");
         Button single = new Button("Single Player");
+        Button practice = new Button("Practice");
         Button multi = new Button("Multiplayer");
         Button instr = new Button("How To Play");
         Button settings = new Button("Settings");
 
         //Styling for buttons.
+        resume.getStyleClass().add("menu-buttons");
         single.getStyleClass().add("menu-buttons");
+        practice.getStyleClass().add("menu-buttons");
         multi.getStyleClass().add("menu-buttons");
         instr.getStyleClass().add("menu-buttons");
         settings.getStyleClass().add("menu-buttons");
 
         //Adds listeners for shake animation.
+        resume.setOnMouseEntered(mouseEvent -> animator.shakeButton(resume));
         single.setOnMouseEntered(mouseEvent -> animator.shakeButton(single));
+        practice.setOnMouseEntered(mouseEvent -> animator.shakeButton(practice));
         multi.setOnMouseEntered(mouseEvent -> animator.shakeButton(multi));
         instr.setOnMouseEntered(mouseEvent -> animator.shakeButton(instr));
         settings.setOnMouseEntered(mouseEvent -> animator.shakeButton(settings));
 
         //Adds listeners for action event.
+        resume.setOnAction(event -> {
+            media.playThemeSound(gameWindow.getTheme(), "button-select.mp3");
+            startResume();
+        });
         single.setOnAction(event -> {
             media.playThemeSound(gameWindow.getTheme(), "button-select.mp3");
             startGame();
         });
+        practice.setOnAction(event -> {
+            media.playThemeSound(gameWindow.getTheme(), "button-select.mp3");
+            startPractice();
+        });
         multi.setOnAction(event -> {
             media.playThemeSound(gameWindow.getTheme(), "button-select.mp3");
             startMultiplayer();
@@ -219,14 +248,24 @@ public class MenuScene extends BaseScene {
 
         buttonContainer.setAlignment(Pos.CENTER);
 
+        //Resume is only offered when there is an autosaved game.
+        boolean saved = Game.AUTOSAVE_FILE.isFile();
+
         //Creates sea buttons if theme is sea.
         if (theme.get().equals("sea")) {
+            if (saved) {
+                buttonContainer.getChildren().add(new SeaButton(resume, 250, 320));
+            }
             buttonContainer.getChildren().add(new SeaButton(single, 250, 320));
+            buttonContainer.getChildren().add(new SeaButton(practice, 250, 320));
             buttonContainer.getChildren().add(new SeaButton(multi, 250, 320));
             buttonContainer.getChildren().add(new SeaButton(instr, 250, 320));
             buttonContainer.getChildren().add(new SeaButton(settings, 250, 320));
         } else {
-            buttonContainer.getChildren().addAll(single, multi, instr, settings);
+            if (saved) {
+                buttonContainer.getChildren().add(resume);
+            }
+            buttonContainer.getChildren().addAll(single, practice, multi, instr, settings);
         }
 
         return buttonContainer;
@@ -109,6 +109,16 @@ public class MultiplayerScene extends ChallengeScene {
 
     }
 
+    /**
+     * Previews no pieces, as the server only sends them a few at a time.
+     *
+     * @return 0.
+     */
+    @Override
+    protected int previewDepth() {
+        return 0;
+    }
+
     /**
      * Sets up basic scene.
      */
@@ -133,6 +143,30 @@ public class MultiplayerScene extends ChallengeScene {
         chatContainer.getChildren().add(new MessageItem("Type T to chat...", true));
     }
 
+    /**
+     * Hints are not shown in multiplayer games.
+     *
+     * @return false.
+     */
+    @Override
+    protected boolean hintsEnabled() {
+        return false;
+    }
+
+    /**
+     * Multiplayer games take their pieces from the server, so they are not recorded.
+     */
+    @Override
+    protected void startRecording() {
+    }
+
+    /**
+     * Multiplayer games cannot be continued without the server, so they are not autosaved.
+     */
+    @Override
+    protected void startAutosave() {
+    }
+
     /**
      * Build the layout of the scene
      */
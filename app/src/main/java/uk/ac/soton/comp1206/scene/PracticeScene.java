@@ -0,0 +1,85 @@
+package uk.ac.soton.comp1206.scene;
+
+import javafx.application.Platform;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.game.PracticeGame;
+import uk.ac.soton.comp1206.ui.GameWindow;
+
+/**
+ * Scene for a single player game where placements can be taken back.
+ * <p>
+ * Plays like the challenge scene, with U or Ctrl+Z to undo the last placement and Y or Ctrl+Y to redo it. Practice
+ * games are not recorded, as a replay cannot represent an undo. They are scored by the cascade rule, so setting up
+ * several lines to clear at once, which undo makes easy to try, is rewarded.
+ */
+public class PracticeScene extends ChallengeScene {
+
+    private static final Logger logger = LogManager.getLogger(PracticeScene.class);
+
+    /**
+     * Game whose placements can be undone.
+     */
+    private PracticeGame practiceGame;
+
+    /**
+     * Create a new practice scene.
+     *
+     * @param gameWindow the Game Window
+     */
+    public PracticeScene(GameWindow gameWindow) {
+        super(gameWindow);
+        logger.info("Creating Practice Scene");
+    }
+
+    /**
+     * Sets up a game that keeps an undo history, scored by the cascade rule.
+     */
+    @Override
+    public void setupGame() {
+        logger.info("Starting a new practice game");
+        practiceGame = new PracticeGame(5, 5);
+        practiceGame.setScoring(ScoringRule.CASCADE);
+        game = practiceGame;
+    }
+
+    /**
+     * Practice games are not recorded.
+     */
+    @Override
+    protected void startRecording() {
+    }
+
+    /**
+     * Practice games are not autosaved, so they do not replace a challenge waiting to be resumed.
+     */
+    @Override
+    protected void startAutosave() {
+    }
+
+    /**
+     * Adds the undo and redo keys to the game's keyboard controls.
+     */
+    @Override
+    protected void handleKeyBoard() {
+        super.handleKeyBoard();
+
+        //A filter runs before the game's own handler, so Ctrl+Z is not also taken as a rotation
+        Platform.runLater(() -> gameWindow.getScene().addEventFilter(KeyEvent.KEY_PRESSED, e -> {
+            if (e.getCode() == KeyCode.U || (e.isShortcutDown() && e.getCode() == KeyCode.Z)) {
+                if (practiceGame.undo()) {
+                    gameWindow.getMedia().playSound("rotate.wav");
+                }
+                e.consume();
+            } else if (e.getCode() == KeyCode.Y) {
+                if (practiceGame.redo()) {
+                    gameWindow.getMedia().playSound("rotate.wav");
+                }
+                e.consume();
+            }
+        }));
+    }
+}
@@ -0,0 +1,187 @@
+package uk.ac.soton.comp1206.scene;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.geometry.Pos;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.engine.replay.Replay;
+import uk.ac.soton.comp1206.game.ReplayGame;
+import uk.ac.soton.comp1206.ui.GameWindow;
+
+/**
+ * Scene for watching a recorded single player game.
+ * <p>
+ * Shows the same UI as the challenge scene, driven by a playhead instead of the player. Keys 1 and 2 play the replay
+ * at normal and ten times speed, 3 skips to the end, space pauses, left and right seek ten seconds and escape returns
+ * to the menu.
+ */
+public class ReplayScene extends ChallengeScene {
+
+    private static final Logger logger = LogManager.getLogger(ReplayScene.class);
+
+    /**
+     * Milliseconds seeked by the arrow keys.
+     */
+    private static final long SEEK_STEP = 10000;
+
+    /**
+     * Replay being watched.
+     */
+    private final Replay replay;
+
+    /**
+     * Game playing back the replay.
+     */
+    private ReplayGame replayGame;
+
+    /**
+     * Position of the playhead in milliseconds from the start of the game.
+     */
+    private double playhead;
+
+    /**
+     * Speed the playhead moves at.
+     */
+    private int speed = 1;
+
+    /**
+     * Whether playback is paused.
+     */
+    private boolean paused;
+
+    /**
+     * Text showing the playback state.
+     */
+    private final Text status = new Text();
+
+    /**
+     * Moves the playhead every frame.
+     */
+    private final AnimationTimer playback = new AnimationTimer() {
+        private long last;
+
+        @Override
+        public void start() {
+            last = System.nanoTime();
+            super.start();
+        }
+
+        @Override
+        public void handle(long now) {
+            if (!paused) {
+                playhead = Math.min(playhead + (now - last) / 1e6 * speed, replayGame.getDuration());
+                replayGame.playUntil((long) playhead);
+            }
+            last = now;
+            updateStatus();
+        }
+    };
+
+    /**
+     * Create a new replay scene.
+     *
+     * @param gameWindow the Game Window
+     * @param replay     : replay to watch.
+     */
+    public ReplayScene(GameWindow gameWindow, Replay replay) {
+        super(gameWindow);
+        this.replay = replay;
+        logger.info("Creating Replay Scene");
+    }
+
+    /**
+     * Sets up the game playing back the replay.
+     */
+    @Override
+    public void setupGame() {
+        logger.info("Watching a replay of seed {}", replay.getSeed());
+        replayGame = new ReplayGame(replay);
+        game = replayGame;
+    }
+
+    /**
+     * Build the Replay window
+     */
+    @Override
+    public void build() {
+        super.build();
+
+        status.setFill(Color.WHITE);
+        status.setFont(Font.font("Montserrat", 20));
+        pane.setTop(status);
+        BorderPane.setAlignment(status, Pos.CENTER);
+    }
+
+    /**
+     * Hints are not shown while watching a replay.
+     *
+     * @return false.
+     */
+    @Override
+    protected boolean hintsEnabled() {
+        return false;
+    }
+
+    /**
+     * Initialise the scene and start playback.
+     */
+    @Override
+    public void initialise() {
+        logger.info("Initialising Replay");
+
+        getScene().getStylesheets().add(getClass().getResource("/style/" + gameWindow.themeProperty().get() + ".css").toExternalForm());
+        handleKeyBoard();
+        game.start();
+        playback.start();
+    }
+
+    /**
+     * Handles playback controls.
+     */
+    @Override
+    protected void handleKeyBoard() {
+        Platform.runLater(() -> gameWindow.getScene().setOnKeyPressed(e -> {
+            switch (e.getCode()) {
+                case DIGIT1 -> speed = 1;
+                case DIGIT2 -> speed = 10;
+                case DIGIT3 -> {
+                    replayGame.fastForward();
+                    playhead = replayGame.getDuration();
+                }
+                case SPACE -> paused = !paused;
+                case LEFT -> seek(playhead - SEEK_STEP);
+                case RIGHT -> seek(playhead + SEEK_STEP);
+                case ESCAPE -> {
+                    playback.stop();
+                    timer.end();
+                    gameWindow.startMenu();
+                }
+            }
+        }));
+    }
+
+    /**
+     * Moves the playhead, jumping straight to the state at that time.
+     *
+     * @param time : milliseconds from the start of the game.
+     */
+    private void seek(double time) {
+        playhead = Math.max(0, Math.min(time, replayGame.getDuration()));
+        replayGame.seek((long) playhead);
+    }
+
+    /**
+     * Shows the playhead position and speed.
+     */
+    private void updateStatus() {
+        String state = replayGame.isFinished() ? "End" : paused ? "Paused" : speed + "x";
+        status.setText(String.format("Replay %d:%02d / %d:%02d  %s",
+                (long) playhead / 60000, (long) playhead / 1000 % 60,
+                replayGame.getDuration() / 60000, replayGame.getDuration() / 1000 % 60, state));
+    }
+}
@@ -0,0 +1,51 @@
+package uk.ac.soton.comp1206.scene;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.engine.save.SavedGame;
+import uk.ac.soton.comp1206.game.ResumedGame;
+import uk.ac.soton.comp1206.ui.GameWindow;
+
+/**
+ * Scene for a single player challenge continued from its autosave.
+ * <p>
+ * Plays exactly like the challenge scene and keeps autosaving. The game is not recorded, as a replay has to start
+ * from an empty board.
+ */
+public class ResumeScene extends ChallengeScene {
+
+    private static final Logger logger = LogManager.getLogger(ResumeScene.class);
+
+    /**
+     * Save the game continues from.
+     */
+    private final SavedGame save;
+
+    /**
+     * Create a new resume scene.
+     *
+     * @param gameWindow the Game Window
+     * @param save       : saved game to continue.
+     */
+    public ResumeScene(GameWindow gameWindow, SavedGame save) {
+        super(gameWindow);
+        this.save = save;
+        logger.info("Creating Resume Scene");
+    }
+
+    /**
+     * Sets up the game continuing the save.
+     */
+    @Override
+    public void setupGame() {
+        logger.info("Resuming a challenge of seed {}", save.getSeed());
+        game = new ResumedGame(save);
+    }
+
+    /**
+     * Resumed games are not recorded.
+     */
+    @Override
+    protected void startRecording() {
+    }
+}
@@ -1,5 +1,6 @@
 package uk.ac.soton.comp1206.scene;
 
+import javafx.beans.binding.Bindings;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
@@ -10,17 +11,27 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 import uk.ac.soton.comp1206.component.PieceBoard;
-import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.replay.ReplayFormat;
+import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.media.Media;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
+import java.io.File;
+
 /**
  * Scene to display and control settings of game.
  */
 public class SettingsScene extends BaseScene {
 
+    /**
+     * Most pieces after the next one that can be chosen to preview, as many as fit beside the board.
+     */
+    private static final int MAX_PREVIEWS = 3;
+
     /**
      * Main container of the class.
      */
@@ -46,6 +57,26 @@ public class SettingsScene extends BaseScene {
      */
     private VBox tileContainer = new VBox();
 
+    /**
+     * Container of replay settings.
+     */
+    private VBox replayContainer;
+
+    /**
+     * Container of hint settings.
+     */
+    private VBox hintContainer;
+
+    /**
+     * Container of logic thread settings.
+     */
+    private VBox threadContainer;
+
+    /**
+     * Container of piece preview settings.
+     */
+    private VBox previewContainer;
+
     /**
      * Multimedia object for handling sounds.
      */
@@ -177,12 +208,20 @@ public class SettingsScene extends BaseScene {
         settingContainer.getStyleClass().add("settings-container");
 
         handleVolumeContainer();
+        handleReplayContainer();
+        handleHintContainer();
+        handleThreadContainer();
+        handlePreviewContainer();
 
-        settingContainer.getChildren().addAll(themeContainer, volumeContainer, tileContainer, acknowledgements());
+        settingContainer.getChildren().addAll(themeContainer, volumeContainer, tileContainer, replayContainer, hintContainer, threadContainer, previewContainer, acknowledgements());
 
         VBox.setMargin(themeContainer, new Insets(25, 0, 0, 0));
         VBox.setMargin(volumeContainer, new Insets(20, 0, 0, 0));
         VBox.setMargin(tileContainer, new Insets(20, 0, 20, 0));
+        VBox.setMargin(replayContainer, new Insets(0, 0, 20, 0));
+        VBox.setMargin(hintContainer, new Insets(0, 0, 20, 0));
+        VBox.setMargin(threadContainer, new Insets(0, 0, 20, 0));
+        VBox.setMargin(previewContainer, new Insets(0, 0, 20, 0));
 
         settingContainer.setAlignment(Pos.CENTER);
 
@@ -215,6 +254,116 @@ public class SettingsScene extends BaseScene {
         media.getVolumeProperty().bind(slider.valueProperty());
     }
 
+    /**
+     * Initializes replay setting.
+     * Toggles recording of single player games and opens recorded games to watch.
+     */
+    private void handleReplayContainer() {
+        replayContainer = new VBox();
+
+        Text title = new Text("Replays");
+        title.getStyleClass().add("setting-titles");
+
+        Button toggle = new Button();
+        toggle.getStyleClass().add("menu-buttons");
+        toggle.textProperty().bind(Bindings.when(gameWindow.recordProperty()).then("Recording").otherwise("Off"));
+
+        toggle.setOnAction(actionEvent -> {
+            gameWindow.getMedia().playThemeSound(gameWindow.getTheme(), "button-select.mp3");
+            gameWindow.recordProperty().set(!gameWindow.recordProperty().get());
+        });
+
+        Button watch = new Button("Watch");
+        watch.getStyleClass().add("menu-buttons");
+
+        watch.setOnAction(actionEvent -> {
+            gameWindow.getMedia().playThemeSound(gameWindow.getTheme(), "button-select.mp3");
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Watch replay");
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Replays", "*" + ReplayFormat.EXTENSION));
+            if (Game.REPLAY_DIRECTORY.isDirectory()) {
+                chooser.setInitialDirectory(Game.REPLAY_DIRECTORY);
+            }
+            File file = chooser.showOpenDialog(gameWindow.getScene().getWindow());
+            if (file != null) {
+                gameWindow.startReplay(file);
+            }
+        });
+
+        replayContainer.setAlignment(Pos.CENTER);
+        replayContainer.getChildren().addAll(title, toggle, watch);
+    }
+
+    /**
+     * Initializes hint setting.
+     * Toggles hints in single player games.
+     */
+    private void handleHintContainer() {
+        hintContainer = new VBox();
+
+        Text title = new Text("Hints");
+        title.getStyleClass().add("setting-titles");
+
+        Button toggle = new Button();
+        toggle.getStyleClass().add("menu-buttons");
+        toggle.textProperty().bind(Bindings.when(gameWindow.hintProperty()).then("On").otherwise("Off"));
+
+        toggle.setOnAction(actionEvent -> {
+            gameWindow.getMedia().playThemeSound(gameWindow.getTheme(), "button-select.mp3");
+            gameWindow.hintProperty().set(!gameWindow.hintProperty().get());
+        });
+
+        hintContainer.setAlignment(Pos.CENTER);
+        hintContainer.getChildren().addAll(title, toggle);
+    }
+
+    /**
+     * Initializes logic thread setting.
+     * Toggles applying the rules of single player games off the UI thread.
+     */
+    private void handleThreadContainer() {
+        threadContainer = new VBox();
+
+        Text title = new Text("Logic Thread");
+        title.getStyleClass().add("setting-titles");
+
+        Button toggle = new Button();
+        toggle.getStyleClass().add("menu-buttons");
+        toggle.textProperty().bind(Bindings.when(gameWindow.threadedProperty()).then("On").otherwise("Off"));
+
+        toggle.setOnAction(actionEvent -> {
+            gameWindow.getMedia().playThemeSound(gameWindow.getTheme(), "button-select.mp3");
+            gameWindow.threadedProperty().set(!gameWindow.threadedProperty().get());
+        });
+
+        threadContainer.setAlignment(Pos.CENTER);
+        threadContainer.getChildren().addAll(title, toggle);
+    }
+
+    /**
+     * Initializes piece preview setting.
+     * Cycles how many pieces after the next one single player games show.
+     */
+    private void handlePreviewContainer() {
+        previewContainer = new VBox();
+
+        Text title = new Text("Previews");
+        title.getStyleClass().add("setting-titles");
+
+        Button toggle = new Button();
+        toggle.getStyleClass().add("menu-buttons");
+        toggle.textProperty().bind(Bindings.when(gameWindow.previewProperty().isEqualTo(0)).then("Off")
+                .otherwise(gameWindow.previewProperty().asString()));
+
+        toggle.setOnAction(actionEvent -> {
+            gameWindow.getMedia().playThemeSound(gameWindow.getTheme(), "button-select.mp3");
+            gameWindow.previewProperty().set((gameWindow.previewProperty().get() + 1) % (MAX_PREVIEWS + 1));
+        });
+
+        previewContainer.setAlignment(Pos.CENTER);
+        previewContainer.getChildren().addAll(title, toggle);
+    }
+
     /**
      * Handles tile settings.
      */
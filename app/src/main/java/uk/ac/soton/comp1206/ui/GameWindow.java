@@ -1,6 +1,7 @@
 package uk.ac.soton.comp1206.ui;
 
 import javafx.application.Platform;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.scene.Scene;
@@ -11,11 +12,16 @@ import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.App;
+import uk.ac.soton.comp1206.engine.replay.Replay;
+import uk.ac.soton.comp1206.engine.save.SavedGame;
 import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.media.Media;
 import uk.ac.soton.comp1206.network.Communicator;
 import uk.ac.soton.comp1206.scene.*;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * The GameWindow is the single window for the game where everything takes place. To move between screens in the game,
  * we simply change the scene.
@@ -65,6 +71,26 @@ public class GameWindow {
      */
     private final SimpleIntegerProperty tileProperty = new SimpleIntegerProperty();
 
+    /**
+     * Stores whether single player games are recorded as replays.
+     */
+    private final SimpleBooleanProperty recordProperty = new SimpleBooleanProperty();
+
+    /**
+     * Stores whether hints are shown in single player games.
+     */
+    private final SimpleBooleanProperty hintProperty = new SimpleBooleanProperty();
+
+    /**
+     * Stores whether single player games apply their rules on a logic thread.
+     */
+    private final SimpleBooleanProperty threadedProperty = new SimpleBooleanProperty();
+
+    /**
+     * Stores how many pieces after the next one single player games preview.
+     */
+    private final SimpleIntegerProperty previewProperty = new SimpleIntegerProperty();
+
     /**
      * Multimedia object for sound and music.
      */
@@ -149,6 +175,16 @@ public class GameWindow {
         media.playMusic(getTheme(),"game.mp3");
     }
 
+    /**
+     * Display a single player practice game, with undo and redo
+     */
+    public void startPractice() {
+        media.stopMusic();
+        loadScene(new PracticeScene(this));
+        media.stopMusic();
+        media.playMusic(getTheme(),"game.mp3");
+    }
+
 
     public void startMultiplayerGame() {
         media.stopMusic();
@@ -187,6 +223,40 @@ public class GameWindow {
         media.playMusic(getTheme(), "menu.mp3");
     }
 
+    /**
+     * Continue the autosaved single player challenge.
+     */
+    public void startResume() {
+        SavedGame save;
+        try {
+            save = SavedGame.read(Game.AUTOSAVE_FILE);
+        } catch (IOException e) {
+            logger.error("Unable to read saved game " + Game.AUTOSAVE_FILE + ": " + e.getMessage());
+            return;
+        }
+        media.stopMusic();
+        loadScene(new ResumeScene(this, save));
+        media.playMusic(getTheme(), "game.mp3");
+    }
+
+    /**
+     * Display a recorded game.
+     *
+     * @param file : replay file to watch.
+     */
+    public void startReplay(File file) {
+        Replay replay;
+        try {
+            replay = Replay.read(file);
+        } catch (IOException e) {
+            logger.error("Unable to read replay " + file + ": " + e.getMessage());
+            return;
+        }
+        media.stopMusic();
+        loadScene(new ReplayScene(this, replay));
+        media.playMusic(getTheme(), "game.mp3");
+    }
+
     /**
      * Display the settings scene.
      */
@@ -316,6 +386,38 @@ public class GameWindow {
         return tileProperty;
     }
 
+    /**
+     * Gets replay recording property.
+     * @return recordProperty.
+     */
+    public SimpleBooleanProperty recordProperty() {
+        return recordProperty;
+    }
+
+    /**
+     * Gets hint property.
+     * @return hintProperty.
+     */
+    public SimpleBooleanProperty hintProperty() {
+        return hintProperty;
+    }
+
+    /**
+     * Gets logic thread property.
+     * @return threadedProperty.
+     */
+    public SimpleBooleanProperty threadedProperty() {
+        return threadedProperty;
+    }
+
+    /**
+     * Gets preview depth property.
+     * @return previewProperty.
+     */
+    public SimpleIntegerProperty previewProperty() {
+        return previewProperty;
+    }
+
     /**
      * Gets media object.
      * @return media.
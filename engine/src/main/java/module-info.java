@@ -0,0 +1,9 @@
+module uk.ac.soton.comp1206.engine {
+    requires jdk.management;
+
+    exports uk.ac.soton.comp1206.engine;
+    exports uk.ac.soton.comp1206.engine.event;
+    exports uk.ac.soton.comp1206.engine.replay;
+    exports uk.ac.soton.comp1206.engine.save;
+    exports uk.ac.soton.comp1206.engine.solver;
+}
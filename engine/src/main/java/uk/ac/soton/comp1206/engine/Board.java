@@ -0,0 +1,421 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * The Board holds the state of a game grid in primitive form, with no dependency on a UI toolkit.
+ * <p>
+ * The state is a bitset of occupied cells (bit y * cols + x, 64 to a word), a byte array of cell values and a count
+ * of the occupied cells in every row and column. A line is full when its count reaches its length, so after a
+ * placement only the rows and columns the piece touched are checked and the cost does not grow with the board. Boards
+ * of any size are supported. On boards of at most MASK_CELLS cells the occupancy is a single word and placement checks
+ * are a single mask operation against the piece masks precomputed in a PlacementTable.
+ * <p>
+ * A BoardListener can be attached to mirror every cell write, which is how the UI's Grid keeps its view in step.
+ * <p>
+ * A Zobrist hash of the occupancy is kept up to date as cells are filled and emptied, by placements and line clears
+ * alike, to key caches of evaluated positions.
+ */
+public class Board {
+
+    /**
+     * Largest number of cells whose occupancy fits in a single mask.
+     */
+    public static final int MASK_CELLS = Long.SIZE;
+
+    /**
+     * The number of columns in this board
+     */
+    private final int cols;
+
+    /**
+     * The number of rows in this board
+     */
+    private final int rows;
+
+    /**
+     * Bitset of occupied cells, bit y * cols + x is set when the cell is not 0.
+     */
+    private final long[] occupied;
+
+    /**
+     * Zobrist hash of the occupied cells.
+     */
+    private long hash;
+
+    /**
+     * Number of times a cell has been filled or emptied.
+     */
+    private long version;
+
+    /**
+     * Value of every cell, indexed by y * cols + x.
+     */
+    private final byte[] values;
+
+    /**
+     * Number of occupied cells in each row.
+     */
+    private final int[] rowCounts;
+
+    /**
+     * Number of occupied cells in each column.
+     */
+    private final int[] colCounts;
+
+    /**
+     * Pieces that can be played on this board.
+     */
+    private final PieceCatalogue catalogue;
+
+    /**
+     * Precomputed piece data for the catalogue on a board of this size.
+     */
+    private final PlacementTable placements;
+
+    /**
+     * Listener mirroring cell writes, may be null.
+     */
+    private BoardListener listener;
+
+    /**
+     * Create a new empty Board with the specified number of columns and rows, for the standard pieces
+     *
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public Board(int cols, int rows) {
+        this(cols, rows, PieceCatalogue.STANDARD);
+    }
+
+    /**
+     * Create a new empty Board with the specified number of columns and rows, for the pieces of a catalogue
+     *
+     * @param cols      number of columns
+     * @param rows      number of rows
+     * @param catalogue pieces that can be played on the board
+     */
+    public Board(int cols, int rows, PieceCatalogue catalogue) {
+        if (cols < 1 || rows < 1) {
+            throw new IllegalArgumentException("Board of " + cols + "x" + rows + " has no cells");
+        }
+        this.cols = cols;
+        this.rows = rows;
+
+        values = new byte[cols * rows];
+        occupied = new long[(cols * rows + Long.SIZE - 1) / Long.SIZE];
+        rowCounts = new int[rows];
+        colCounts = new int[cols];
+        this.catalogue = catalogue;
+        placements = catalogue.getPlacements(cols, rows);
+    }
+
+    /**
+     * Set the listener to be told about every cell write.
+     *
+     * @param listener listener to set, or null to remove it
+     */
+    public void setListener(BoardListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Update the value at the given x and y index within the board
+     *
+     * @param x     column
+     * @param y     row
+     * @param value the new value
+     */
+    public void set(int x, int y, int value) {
+        int cell = y * cols + x;
+        boolean wasOccupied = values[cell] != 0;
+        values[cell] = (byte) value;
+        if (wasOccupied != (value != 0)) {
+            occupied[cell >>> 6] ^= 1L << cell;
+            hash ^= Zobrist.cell(cell);
+            version++;
+            int change = wasOccupied ? -1 : 1;
+            rowCounts[y] += change;
+            colCounts[x] += change;
+        }
+        if (listener != null) {
+            listener.cellChanged(x, y, value);
+        }
+    }
+
+    /**
+     * Get the value at the given x and y index within the board
+     *
+     * @param x column
+     * @param y row
+     * @return the value, or -1 if there is no such cell
+     */
+    public int get(int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
+            return -1;
+        }
+        return values[y * cols + x];
+    }
+
+    /**
+     * Checks whether a cell is occupied.
+     *
+     * @param x column
+     * @param y row
+     * @return true if the cell is not 0
+     */
+    public boolean isOccupied(int x, int y) {
+        int cell = y * cols + x;
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Copy every cell value of this board into an array.
+     *
+     * @param target array of cols * rows values, indexed by y * cols + x
+     */
+    public void copyValues(byte[] target) {
+        System.arraycopy(values, 0, target, 0, values.length);
+    }
+
+    /**
+     * Replace every cell value of this board. Only cells whose value changes are written.
+     *
+     * @param source array of cols * rows values, indexed by y * cols + x
+     */
+    public void loadValues(byte[] source) {
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] != source[cell]) {
+                set(cell % cols, cell / cols, source[cell]);
+            }
+        }
+    }
+
+    /**
+     * Get the number of columns in this board
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows in this board
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the bitmask of occupied cells. Only available on boards of at most MASK_CELLS cells.
+     *
+     * @return occupancy mask, bit y * cols + x
+     * @throws IllegalStateException if the board is too large for a single mask
+     */
+    public long getOccupied() {
+        if (occupied.length > 1) {
+            throw new IllegalStateException("Board of " + cols + "x" + rows + " exceeds " + MASK_CELLS + " cells");
+        }
+        return occupied[0];
+    }
+
+    /**
+     * Get the bitset of occupied cells, bit y * cols + x. The returned array is live and must not be modified.
+     *
+     * @return occupancy words
+     */
+    long[] getOccupiedWords() {
+        return occupied;
+    }
+
+    /**
+     * Get the number of times a cell has been filled or emptied, which changes whenever the occupancy does.
+     *
+     * @return occupancy version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the Zobrist hash of the occupied cells, equal to Zobrist.hash(getOccupied()) on boards small enough for a
+     * mask.
+     *
+     * @return hash
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the pieces that can be played on this board
+     *
+     * @return piece catalogue
+     */
+    public PieceCatalogue getCatalogue() {
+        return catalogue;
+    }
+
+    /**
+     * Get the precomputed piece data for this board's catalogue and size
+     *
+     * @return placement table
+     */
+    public PlacementTable getPlacements() {
+        return placements;
+    }
+
+    /**
+     * Checks whether every cell in the given row is occupied.
+     *
+     * @param y row
+     * @return true if the row is full
+     */
+    public boolean isRowFull(int y) {
+        return rowCounts[y] == cols;
+    }
+
+    /**
+     * Checks whether every cell in the given column is occupied.
+     *
+     * @param x column
+     * @return true if the column is full
+     */
+    public boolean isColumnFull(int x) {
+        return colCounts[x] == rows;
+    }
+
+    /**
+     * Checks if a piece can be played.
+     *
+     * @param x     : x coordinate of the chosen center square.
+     * @param y     : y coordinate of the chosen center square.
+     * @param piece : piece to be played.
+     * @return true/false : depending on whether a piece can be played.
+     */
+    public boolean canPlayPiece(int x, int y, GamePiece piece) {
+        checkCatalogue(piece);
+        if (placements.hasMasks()) {
+            long mask = placements.mask(piece.getType(), piece.getRotation(), x, y);
+            return mask != PlacementTable.OUT_OF_BOUNDS && (occupied[0] & mask) == 0;
+        }
+        if (!placements.inBounds(piece.getType(), piece.getRotation(), x, y)) {
+            return false;
+        }
+        int shape = piece.getType() * PlacementTable.ROTATIONS + piece.getRotation();
+        int[] blockX = placements.blockX[shape];
+        int[] blockY = placements.blockY[shape];
+        for (int block = 0; block < blockX.length; block++) {
+            if (isOccupied(x + blockX[block], y + blockY[block])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Places the value of the piece in every cell of its footprint centred on the chosen square.
+     *
+     * @param x     : x coordinate of the chosen center square.
+     * @param y     : y coordinate of the chosen center square.
+     * @param piece : piece to be played onto the board.
+     */
+    public void playPiece(int x, int y, GamePiece piece) {
+        checkCatalogue(piece);
+        if (!placements.inBounds(piece.getType(), piece.getRotation(), x, y)) {
+            throw new IndexOutOfBoundsException("Piece " + piece + " does not fit at " + x + "," + y);
+        }
+        int shape = piece.getType() * PlacementTable.ROTATIONS + piece.getRotation();
+        int[] blockX = placements.blockX[shape];
+        int[] blockY = placements.blockY[shape];
+        for (int block = 0; block < blockX.length; block++) {
+            set(x + blockX[block], y + blockY[block], piece.getValue());
+        }
+    }
+
+    /**
+     * Finds every full row and column.
+     *
+     * @param result : reused result to fill with the full rows and columns.
+     * @return result.
+     */
+    public LineClear findLineClears(LineClear result) {
+        result.reset(cols, rows);
+        for (int y = 0; y < rows; y++) {
+            if (rowCounts[y] == cols) result.addRow(y);
+        }
+        for (int x = 0; x < cols; x++) {
+            if (colCounts[x] == rows) result.addColumn(x);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the full rows and columns crossing a piece just played. Lines the piece does not touch are not checked, so
+     * this only finds every full line if the board had none before the piece was played.
+     *
+     * @param x      : x coordinate of the centre square the piece was played on.
+     * @param y      : y coordinate of the centre square the piece was played on.
+     * @param piece  : piece played.
+     * @param result : reused result to fill with the full rows and columns.
+     * @return result.
+     */
+    public LineClear findLineClears(int x, int y, GamePiece piece, LineClear result) {
+        checkCatalogue(piece);
+        int shape = piece.getType() * PlacementTable.ROTATIONS + piece.getRotation();
+        result.reset(cols, rows);
+        for (int row = y + placements.minY[shape]; row <= y + placements.maxY[shape]; row++) {
+            if (rowCounts[row] == cols) result.addRow(row);
+        }
+        for (int col = x + placements.minX[shape]; col <= x + placements.maxX[shape]; col++) {
+            if (colCounts[col] == rows) result.addColumn(col);
+        }
+        return result;
+    }
+
+    /**
+     * Empties every cell of the cleared lines.
+     *
+     * @param clear : cleared lines.
+     */
+    public void clearLines(LineClear clear) {
+        for (int i = 0; i < clear.getRowCount(); i++) {
+            int y = clear.getRow(i);
+            for (int x = 0; x < cols; x++) {
+                set(x, y, 0);
+            }
+        }
+        for (int i = 0; i < clear.getColumnCount(); i++) {
+            int x = clear.getColumn(i);
+            for (int y = 0; y < rows; y++) {
+                if (values[y * cols + x] != 0) set(x, y, 0);
+            }
+        }
+    }
+
+    /**
+     * Clears the board.
+     * Changes all values to 0.
+     */
+    public void clear() {
+        for (int word = 0; word < occupied.length; word++) {
+            while (occupied[word] != 0) {
+                int cell = word * Long.SIZE + Long.numberOfTrailingZeros(occupied[word]);
+                set(cell % cols, cell / cols, 0);
+            }
+        }
+    }
+
+    /**
+     * Checks that a piece belongs to this board's catalogue, as the placement table is indexed by piece number.
+     *
+     * @param piece : piece to check.
+     * @throws IllegalArgumentException if the piece is from another catalogue.
+     */
+    private void checkCatalogue(GamePiece piece) {
+        if (piece.getCatalogue() != catalogue) {
+            throw new IllegalArgumentException("Piece " + piece + " is not from this board's catalogue");
+        }
+    }
+}
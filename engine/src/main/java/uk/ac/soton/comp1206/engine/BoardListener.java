@@ -0,0 +1,15 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * Notified whenever a cell of a Board changes value.
+ */
+public interface BoardListener {
+
+    /**
+     * Fired after a cell is written.
+     * @param x : column of the cell.
+     * @param y : row of the cell.
+     * @param value : new value of the cell.
+     */
+    void cellChanged(int x, int y, int value);
+}
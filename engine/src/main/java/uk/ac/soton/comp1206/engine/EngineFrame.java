@@ -0,0 +1,151 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * The outcome of one command applied by an EngineThread: what was done, the lines it cleared and the state of the
+ * game afterwards.
+ * <p>
+ * Frames are immutable, so they can be handed from the logic thread to the UI thread without copying or locking.
+ */
+public final class EngineFrame {
+
+    /**
+     * The current piece was played on the board.
+     */
+    public static final int PLACE = 1;
+
+    /**
+     * The current piece did not fit where it was played.
+     */
+    public static final int REJECT = 2;
+
+    /**
+     * The current and next piece were swapped.
+     */
+    public static final int SWAP = 3;
+
+    /**
+     * The current piece was rotated.
+     */
+    public static final int ROTATE = 4;
+
+    /**
+     * The turn ended without a placement, by the timer or after a STUCK frame.
+     */
+    public static final int TIMEOUT = 5;
+
+    /**
+     * The turn ended with no lives left, so the game is over.
+     */
+    public static final int GAME_OVER = 6;
+
+    /**
+     * Neither piece fits anywhere, so the turn is about to end. Followed by a TIMEOUT or GAME_OVER frame.
+     */
+    public static final int STUCK = 7;
+
+    /**
+     * What was done, one of the constants above.
+     */
+    private final int action;
+
+    /**
+     * Column the command played on, or 0.
+     */
+    private final int x;
+
+    /**
+     * Row the command played on, or 0.
+     */
+    private final int y;
+
+    /**
+     * Rotation of the piece the command placed or rotated, or the direction of a rotation, 1 for left.
+     */
+    private final int argument;
+
+    /**
+     * Lines cleared by a placement, owned by this frame.
+     */
+    private final LineClear clear;
+
+    /**
+     * State of the game after the command.
+     */
+    private final EngineSnapshot snapshot;
+
+    /**
+     * Create a frame.
+     *
+     * @param action   : what was done.
+     * @param x        : column played on, or 0.
+     * @param y        : row played on, or 0.
+     * @param argument : rotation placed, or 1 for a left rotation.
+     * @param clear    : lines cleared, copied into the frame, may be null.
+     * @param snapshot : state after the command.
+     */
+    EngineFrame(int action, int x, int y, int argument, LineClear clear, EngineSnapshot snapshot) {
+        this.action = action;
+        this.x = x;
+        this.y = y;
+        this.argument = argument;
+        this.clear = new LineClear();
+        if (clear != null) {
+            this.clear.copyFrom(clear);
+        }
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Get what was done.
+     *
+     * @return PLACE, REJECT, SWAP, ROTATE, TIMEOUT, GAME_OVER or STUCK
+     */
+    public int getAction() {
+        return action;
+    }
+
+    /**
+     * Get the column the command played on.
+     *
+     * @return column of the centre square
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Get the row the command played on.
+     *
+     * @return row of the centre square
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Get the rotation of the piece placed, or for a rotation 1 if it was to the left.
+     *
+     * @return argument of the command
+     */
+    public int getArgument() {
+        return argument;
+    }
+
+    /**
+     * Get the lines cleared by a placement. The result must not be modified.
+     *
+     * @return cleared lines, empty for any other command
+     */
+    public LineClear getClear() {
+        return clear;
+    }
+
+    /**
+     * Get the state of the game after the command.
+     *
+     * @return snapshot
+     */
+    public EngineSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,125 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * An immutable capture of a GameEngine's full state: cell values, score, multiplier, level, lives, the current and
+ * next pieces with their rotations, and the position in the piece sequence.
+ * <p>
+ * GamePieces are immutable, so the snapshot holds the live pieces directly and later rotations cannot affect it.
+ */
+public final class EngineSnapshot {
+
+    private final byte[] cells;
+    private final int score;
+    private final int multiplier;
+    private final int level;
+    private final int lives;
+    private final GamePiece currentPiece;
+    private final GamePiece nextPiece;
+    private final long pieceState;
+
+    /**
+     * Create a snapshot. The cell array is owned by the snapshot from then on and must not be modified.
+     *
+     * @param cells        cell values indexed by y * cols + x
+     * @param score        score
+     * @param multiplier   multiplier
+     * @param level        level
+     * @param lives        lives
+     * @param currentPiece current piece, may be null
+     * @param nextPiece    next piece, may be null
+     * @param pieceState   state of the piece source
+     */
+    public EngineSnapshot(byte[] cells, int score, int multiplier, int level, int lives, GamePiece currentPiece,
+                          GamePiece nextPiece, long pieceState) {
+        this.cells = cells;
+        this.score = score;
+        this.multiplier = multiplier;
+        this.level = level;
+        this.lives = lives;
+        this.currentPiece = currentPiece;
+        this.nextPiece = nextPiece;
+        this.pieceState = pieceState;
+    }
+
+    /**
+     * Get the cell values. The returned array is shared and must not be modified.
+     *
+     * @return cell values indexed by y * cols + x
+     */
+    byte[] getCells() {
+        return cells;
+    }
+
+    /**
+     * Get the value of a cell.
+     *
+     * @param cell index y * cols + x
+     * @return value
+     */
+    public int getCell(int cell) {
+        return cells[cell];
+    }
+
+    /**
+     * Get the score.
+     *
+     * @return score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the multiplier.
+     *
+     * @return multiplier
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Get the level.
+     *
+     * @return level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Get the lives.
+     *
+     * @return lives
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Get the state of the piece source.
+     *
+     * @return piece source state
+     */
+    public long getPieceState() {
+        return pieceState;
+    }
+
+    /**
+     * Get the current piece as captured.
+     *
+     * @return piece, or null if there was none
+     */
+    public GamePiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    /**
+     * Get the next piece as captured.
+     *
+     * @return piece, or null if there was none
+     */
+    public GamePiece getNextPiece() {
+        return nextPiece;
+    }
+}
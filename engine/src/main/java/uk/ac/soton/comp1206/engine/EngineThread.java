@@ -0,0 +1,234 @@
+package uk.ac.soton.comp1206.engine;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a GameEngine on a dedicated logic thread.
+ * <p>
+ * Commands are queued from any thread and applied in order by the logic thread, which owns the engine from then on.
+ * Each applied command publishes an immutable EngineFrame holding its outcome and an EngineSnapshot of the game
+ * afterwards. A UI polls the frames once per pulse and renders the latest snapshot, so rule evaluation, scoring and
+ * move indexing never run on the UI thread. A turn that cannot be played because neither piece fits is ended on the
+ * logic thread straight away, with a STUCK frame followed by a TIMEOUT frame, as Game does on the UI thread.
+ * <p>
+ * The number of commands applied and the time spent applying them are counted, so the engine's throughput can be
+ * measured apart from rendering.
+ */
+public class EngineThread implements AutoCloseable {
+
+    /**
+     * Engine applying the commands, only touched by the logic thread.
+     */
+    private final GameEngine engine;
+
+    /**
+     * The logic thread.
+     */
+    private final ExecutorService logic;
+
+    /**
+     * Frames published and not yet polled, oldest first.
+     */
+    private final ConcurrentLinkedQueue<EngineFrame> frames = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of commands applied.
+     */
+    private final AtomicLong commands = new AtomicLong();
+
+    /**
+     * Nanoseconds spent applying commands.
+     */
+    private final AtomicLong busy = new AtomicLong();
+
+    /**
+     * Number of commands queued and not yet applied or dropped.
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * Whether the game is over, only touched by the logic thread.
+     */
+    private boolean over;
+
+    /**
+     * Take over an engine and start the logic thread. The engine must not be used by any other thread afterwards.
+     *
+     * @param engine : engine with a game in progress.
+     */
+    public EngineThread(GameEngine engine) {
+        this.engine = engine;
+        this.logic = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-logic");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue playing the current piece centred on a square.
+     *
+     * @param x : column of the centre square.
+     * @param y : row of the centre square.
+     */
+    public void place(int x, int y) {
+        submit(() -> {
+            int rotation = engine.getCurrentPiece().getRotation();
+            if (!engine.play(x, y)) {
+                publish(EngineFrame.REJECT, x, y, rotation, null);
+                return;
+            }
+            LineClear clear = engine.getLastClear();
+            engine.nextPiece(false);
+            publish(EngineFrame.PLACE, x, y, rotation, clear);
+            endStuckTurns();
+        });
+    }
+
+    /**
+     * Queue rotating the current piece.
+     *
+     * @param left : direction of rotation.
+     */
+    public void rotate(boolean left) {
+        submit(() -> {
+            engine.rotate(left);
+            publish(EngineFrame.ROTATE, 0, 0, left ? 1 : 0, null);
+        });
+    }
+
+    /**
+     * Queue swapping the current and next piece.
+     */
+    public void swap() {
+        submit(() -> {
+            engine.swap();
+            publish(EngineFrame.SWAP, 0, 0, 0, null);
+        });
+    }
+
+    /**
+     * Queue ending the turn without a placement, as when the timer runs out.
+     */
+    public void timeout() {
+        submit(() -> {
+            endTurn();
+            endStuckTurns();
+        });
+    }
+
+    /**
+     * Take the oldest frame not yet polled.
+     *
+     * @return frame, or null if there is none.
+     */
+    public EngineFrame poll() {
+        return frames.poll();
+    }
+
+    /**
+     * Get the number of commands applied so far.
+     *
+     * @return command count.
+     */
+    public long getCommandCount() {
+        return commands.get();
+    }
+
+    /**
+     * Get the number of commands queued and not yet applied, the backlog of the logic thread.
+     *
+     * @return pending command count.
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * Get the time the logic thread has spent applying commands, excluding time spent waiting for them.
+     *
+     * @return nanoseconds.
+     */
+    public long getBusyNanos() {
+        return busy.get();
+    }
+
+    /**
+     * Apply every queued command and stop the logic thread. Returns once the queue is empty. Frames already published
+     * can still be polled.
+     */
+    @Override
+    public void close() {
+        logic.shutdown();
+        try {
+            logic.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queue a command, timing it on the logic thread. Commands after the game is over are dropped.
+     *
+     * @param command : command to apply.
+     */
+    private void submit(Runnable command) {
+        pending.incrementAndGet();
+        try {
+            logic.execute(() -> {
+                if (!over) {
+                    long start = System.nanoTime();
+                    command.run();
+                    busy.addAndGet(System.nanoTime() - start);
+                    commands.incrementAndGet();
+                }
+                pending.decrementAndGet();
+            });
+        } catch (RejectedExecutionException e) {
+            //Closed, the game has been left
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Ends the turn without a placement, losing a life or ending the game.
+     */
+    private void endTurn() {
+        if (!engine.timeout()) {
+            over = true;
+            publish(EngineFrame.GAME_OVER, 0, 0, 0, null);
+            return;
+        }
+        engine.nextPiece(false);
+        publish(EngineFrame.TIMEOUT, 0, 0, 0, null);
+    }
+
+    /**
+     * Ends turns for as long as neither piece fits anywhere, publishing a STUCK frame before each.
+     */
+    private void endStuckTurns() {
+        while (!over && engine.isStuck()) {
+            publish(EngineFrame.STUCK, 0, 0, 0, null);
+            endTurn();
+        }
+    }
+
+    /**
+     * Publish the outcome of a command with a snapshot of the game.
+     *
+     * @param action   : what was done.
+     * @param x        : column played on.
+     * @param y        : row played on.
+     * @param argument : rotation placed, or 1 for a left rotation.
+     * @param clear    : lines cleared, may be null.
+     */
+    private void publish(int action, int x, int y, int argument, LineClear clear) {
+        frames.add(new EngineFrame(action, x, y, argument, clear, engine.snapshot()));
+    }
+}
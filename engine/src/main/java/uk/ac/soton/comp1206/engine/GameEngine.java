@@ -0,0 +1,592 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * The GameEngine holds the rules and state of a TetrECS game: the board, the current and next pieces, score,
+ * multiplier, level and lives. It has no dependency on a UI toolkit, so games can be played headless.
+ * <p>
+ * Actions are applied with play, swap, rotate and timeout. Moving on to the next piece is left to the caller through
+ * nextPiece, so that piece supply can be driven from elsewhere, for example a multiplayer server.
+ * <p>
+ * Pieces are drawn from the source through a PieceQueue, which holds up to MAX_PREVIEW pieces after the next one so
+ * they can be previewed. Each queued piece keeps the source state from before it was drawn, so snapshots record the
+ * source as though nothing had been drawn ahead and a game plays the same sequence whatever the preview depth.
+ */
+public class GameEngine {
+
+    /**
+     * Points awarded per cleared cell per cleared line by the classic scoring rule, before the multiplier.
+     */
+    public static final int POINTS_PER_BLOCK = 10;
+
+    /**
+     * Score needed before the level starts increasing under the classic pacing rule.
+     */
+    public static final int LEVEL_SCORE = 1000;
+
+    /**
+     * Turn time at level 0 under the classic pacing rule, in milliseconds.
+     */
+    public static final int BASE_DELAY = 12000;
+
+    /**
+     * Turn time removed per level, in milliseconds.
+     */
+    public static final int LEVEL_DELAY_STEP = 500;
+
+    /**
+     * Shortest possible turn time, in milliseconds.
+     */
+    public static final int MIN_DELAY = 2500;
+
+    /**
+     * Most pieces after the next one that can be previewed.
+     */
+    public static final int MAX_PREVIEW = 7;
+
+    /**
+     * The board the game is played on
+     */
+    private final Board board;
+
+    /**
+     * Legal moves of the current and next piece.
+     */
+    private final MoveIndex moves;
+
+    /**
+     * Source of the piece sequence
+     */
+    private PieceSource pieceSource;
+
+    /**
+     * Pieces drawn from the source and not yet played, with the source state before each was drawn.
+     */
+    private final PieceQueue previews;
+
+    /**
+     * Number of pieces after the next one kept drawn ahead.
+     */
+    private int previewDepth;
+
+    /**
+     * Lines cleared by the last placement, reused after every placement.
+     */
+    private final LineClear lastClear = new LineClear();
+
+    /**
+     * Piece to be played.
+     */
+    private GamePiece currentPiece;
+
+    /**
+     * Piece following the current piece.
+     */
+    private GamePiece nextPiece;
+
+    /**
+     * Player score.
+     */
+    private int score;
+
+    /**
+     * Score multiplier, increased for every consecutive placement that clears lines.
+     */
+    private int multiplier = 1;
+
+    /**
+     * Player level.
+     */
+    private int level;
+
+    /**
+     * Lives left before the game ends.
+     */
+    private int lives;
+
+    /**
+     * Points of every line clear under the scoring rule in use.
+     */
+    private ScoreTable scores;
+
+    /**
+     * Rule the level and turn time follow.
+     */
+    private PacingRule pacing = PacingRule.CLASSIC;
+
+    /**
+     * Create a new engine with an empty board of the given size and a randomly seeded piece sequence.
+     *
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public GameEngine(int cols, int rows) {
+        this(cols, rows, new SeededPieceSource());
+    }
+
+    /**
+     * Create a new engine with an empty board of the given size, taking pieces from the given source.
+     *
+     * @param cols        number of columns
+     * @param rows        number of rows
+     * @param pieceSource source of the piece sequence
+     */
+    public GameEngine(int cols, int rows, PieceSource pieceSource) {
+        this(cols, rows, pieceSource, PieceCatalogue.STANDARD);
+    }
+
+    /**
+     * Create a new engine with an empty board of the given size, playing the pieces of a catalogue in the order given
+     * by the source.
+     *
+     * @param cols        number of columns
+     * @param rows        number of rows
+     * @param pieceSource source of the piece sequence, drawing piece numbers of the catalogue
+     * @param catalogue   pieces to play with
+     */
+    public GameEngine(int cols, int rows, PieceSource pieceSource, PieceCatalogue catalogue) {
+        this.board = new Board(cols, rows, catalogue);
+        this.moves = new MoveIndex(board);
+        this.pieceSource = pieceSource;
+        this.previews = new PieceQueue(MAX_PREVIEW + 1, catalogue);
+        this.scores = new ScoreTable(ScoringRule.CLASSIC, cols, rows);
+    }
+
+    /**
+     * Clears the board and resets the game state for a new game.
+     *
+     * @param score : starting score.
+     * @param lives : starting lives.
+     */
+    public void reset(int score, int lives) {
+        rewind();
+        board.clear();
+        lastClear.reset(board.getCols(), board.getRows());
+        this.score = score;
+        this.multiplier = 1;
+        this.level = 0;
+        this.lives = lives;
+        currentPiece = null;
+        nextPiece = null;
+    }
+
+    /**
+     * Spawns the next piece from the piece source, keeping the preview depth drawn ahead of it.
+     *
+     * @return : new game piece.
+     */
+    public GamePiece spawnPiece() {
+        fill(previewDepth + 1);
+        return previews.remove();
+    }
+
+    /**
+     * Draws pieces from the source until the given number are queued.
+     *
+     * @param count : pieces to hold.
+     */
+    private void fill(int count) {
+        while (previews.size() < count) {
+            long state = pieceSource.getState();
+            previews.offer(pieceSource.nextPiece(), 0, state);
+        }
+    }
+
+    /**
+     * Returns the source to where it was before the queued pieces were drawn and empties the queue.
+     */
+    private void rewind() {
+        if (!previews.isEmpty()) {
+            pieceSource.setState(previews.getState(0));
+            previews.clear();
+        }
+    }
+
+    /**
+     * Get the number of pieces after the next one kept drawn ahead.
+     *
+     * @return preview depth.
+     */
+    public int getPreviewDepth() {
+        return previewDepth;
+    }
+
+    /**
+     * Set the number of pieces after the next one kept drawn ahead. The sequence played is the same at any depth.
+     *
+     * @param depth : preview depth, 0 to MAX_PREVIEW.
+     */
+    public void setPreviewDepth(int depth) {
+        if (depth < 0 || depth > MAX_PREVIEW) {
+            throw new IllegalArgumentException("Preview depth must be 0 to " + MAX_PREVIEW + ", not " + depth);
+        }
+        previewDepth = depth;
+        rewind();
+        fill(depth);
+    }
+
+    /**
+     * Get the pieces after the next one, in the order they will be played. Should only be read.
+     *
+     * @return queue of previewDepth pieces once the game has started.
+     */
+    public PieceQueue getPreviews() {
+        return previews;
+    }
+
+    /**
+     * Get the state of the piece source as though no pieces had been drawn ahead.
+     *
+     * @return piece source state.
+     */
+    public long getPieceState() {
+        return previews.isEmpty() ? pieceSource.getState() : previews.getState(0);
+    }
+
+    /**
+     * Get the source of the piece sequence.
+     *
+     * @return piece source.
+     */
+    public PieceSource getPieceSource() {
+        return pieceSource;
+    }
+
+    /**
+     * Replace the source of the piece sequence, for example to replay a seeded game.
+     *
+     * @param pieceSource : new piece source.
+     */
+    public void setPieceSource(PieceSource pieceSource) {
+        this.pieceSource = pieceSource;
+        previews.clear();
+    }
+
+    /**
+     * Puts the next piece as the current piece and spawns a new next piece.
+     *
+     * @param start : true at the start of a game, when a new current piece is spawned as well.
+     */
+    public void nextPiece(boolean start) {
+        if (start) {
+            currentPiece = spawnPiece();
+        } else {
+            currentPiece = nextPiece;
+        }
+        nextPiece = spawnPiece();
+    }
+
+    /**
+     * Checks whether the current piece can be played centred on the given square.
+     *
+     * @param x : column of the centre square.
+     * @param y : row of the centre square.
+     * @return true if the piece fits.
+     */
+    public boolean canPlay(int x, int y) {
+        return getMoves().isLegal(currentPiece, x, y);
+    }
+
+    /**
+     * Checks whether the turn cannot be played, because neither the current nor the next piece fits anywhere in any
+     * rotation. The turn is then certain to be lost to the timer.
+     *
+     * @return true if there is no legal move.
+     */
+    public boolean isStuck() {
+        return currentPiece != null && !getMoves().hasMove();
+    }
+
+    /**
+     * Get the legal moves of the current and next piece, brought up to date with the board and pieces.
+     *
+     * @return move index.
+     */
+    public MoveIndex getMoves() {
+        moves.update(currentPiece, nextPiece);
+        return moves;
+    }
+
+    /**
+     * Plays the current piece centred on the given square if it fits. Clears any full lines and updates the score,
+     * multiplier and level. The cleared lines are available from getLastClear afterwards.
+     *
+     * @param x : column of the centre square.
+     * @param y : row of the centre square.
+     * @return true if the piece was played.
+     */
+    public boolean play(int x, int y) {
+        if (!board.canPlayPiece(x, y, currentPiece)) {
+            return false;
+        }
+        board.playPiece(x, y, currentPiece);
+
+        LineClear clear = board.findLineClears(x, y, currentPiece, lastClear);
+        if (!clear.isEmpty()) {
+            board.clearLines(clear);
+        }
+
+        score += score(clear);
+        if (clear.isEmpty()) {
+            multiplier = 1;
+        } else {
+            multiplier++;
+        }
+        level = pacing.level(level, score);
+        return true;
+    }
+
+    /**
+     * Calculates the score for a line clear at the current multiplier.
+     *
+     * @param clear : the cleared lines.
+     * @return points for the clear.
+     */
+    public int score(LineClear clear) {
+        return scores.score(clear, multiplier);
+    }
+
+    /**
+     * Sets the rule line clears are scored by, the classic rule by default.
+     *
+     * @param rule : scoring rule.
+     */
+    public void setScoring(ScoringRule rule) {
+        scores = new ScoreTable(rule, board.getCols(), board.getRows());
+    }
+
+    /**
+     * Gets the rule line clears are scored by.
+     *
+     * @return scoring rule.
+     */
+    public ScoringRule getScoring() {
+        return scores.getRule();
+    }
+
+    /**
+     * Sets the rule the level and turn time follow, the classic rule by default.
+     *
+     * @param rule : pacing rule.
+     */
+    public void setPacing(PacingRule rule) {
+        pacing = rule;
+    }
+
+    /**
+     * Gets the rule the level and turn time follow.
+     *
+     * @return pacing rule.
+     */
+    public PacingRule getPacing() {
+        return pacing;
+    }
+
+    /**
+     * Handles the turn timer running out. Loses a life and resets the multiplier.
+     *
+     * @return false if there were no lives left and the game is over.
+     */
+    public boolean timeout() {
+        if (lives == 0) {
+            return false;
+        }
+        lives--;
+        multiplier = 1;
+        return true;
+    }
+
+    /**
+     * Swaps current and next piece.
+     */
+    public void swap() {
+        GamePiece tmp = currentPiece;
+        currentPiece = nextPiece;
+        nextPiece = tmp;
+    }
+
+    /**
+     * Rotates current piece.
+     *
+     * @param left : direction of rotation.
+     * @return rotated piece.
+     */
+    public GamePiece rotate(boolean left) {
+        currentPiece = currentPiece.rotate(left ? -1 : 1);
+        return currentPiece;
+    }
+
+    /**
+     * Captures the full state of the game.
+     *
+     * @return immutable snapshot.
+     */
+    public EngineSnapshot snapshot() {
+        byte[] cells = new byte[board.getCols() * board.getRows()];
+        board.copyValues(cells);
+        return new EngineSnapshot(cells, score, multiplier, level, lives, currentPiece, nextPiece,
+                getPieceState());
+    }
+
+    /**
+     * Returns the game to a captured state.
+     *
+     * @param snapshot : state to restore, taken from an engine with the same board size.
+     */
+    public void restore(EngineSnapshot snapshot) {
+        board.loadValues(snapshot.getCells());
+        score = snapshot.getScore();
+        multiplier = snapshot.getMultiplier();
+        level = snapshot.getLevel();
+        lives = snapshot.getLives();
+        currentPiece = snapshot.getCurrentPiece();
+        nextPiece = snapshot.getNextPiece();
+        pieceSource.setState(snapshot.getPieceState());
+        previews.clear();
+        fill(previewDepth);
+        lastClear.reset(board.getCols(), board.getRows());
+    }
+
+    /**
+     * Calculates time for each turn at the current level.
+     *
+     * @return time in milliseconds.
+     */
+    public int getTimerDelay() {
+        return pacing.delay(level);
+    }
+
+    /**
+     * Get the board the game is played on.
+     *
+     * @return board.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Get the pieces the game is played with.
+     *
+     * @return piece catalogue.
+     */
+    public PieceCatalogue getCatalogue() {
+        return board.getCatalogue();
+    }
+
+    /**
+     * Get the lines cleared by the last placement.
+     *
+     * @return reused line clear result.
+     */
+    public LineClear getLastClear() {
+        return lastClear;
+    }
+
+    /**
+     * Returns the current game piece.
+     *
+     * @return : currentPiece.
+     */
+    public GamePiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    /**
+     * Sets the current game piece.
+     *
+     * @param piece : new current piece.
+     */
+    public void setCurrentPiece(GamePiece piece) {
+        currentPiece = piece;
+    }
+
+    /**
+     * Returns the next game piece.
+     *
+     * @return : nextPiece.
+     */
+    public GamePiece getNextPiece() {
+        return nextPiece;
+    }
+
+    /**
+     * Sets the next game piece.
+     *
+     * @param piece : new next piece.
+     */
+    public void setNextPiece(GamePiece piece) {
+        nextPiece = piece;
+    }
+
+    /**
+     * Gets the score.
+     *
+     * @return score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Sets the score.
+     *
+     * @param score : new value to be set.
+     */
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    /**
+     * Gets the multiplier.
+     *
+     * @return multiplier.
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Sets the multiplier.
+     *
+     * @param multiplier : new value to be set.
+     */
+    public void setMultiplier(int multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Gets the level.
+     *
+     * @return level.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the level.
+     *
+     * @param level : new value to be set.
+     */
+    public void setLevel(int level) {
+        this.level = level;
+    }
+
+    /**
+     * Gets the number of lives left.
+     *
+     * @return lives.
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Sets the number of lives.
+     *
+     * @param lives : new value to be set.
+     */
+    public void setLives(int lives) {
+        this.lives = lives;
+    }
+}
@@ -0,0 +1,189 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * Instances of GamePiece Represents the model of a specific Game Piece with it's block makeup.
+ *
+ * The GamePiece class also contains a factory for producing a GamePiece of a particular shape, as specified by it's
+ * number in the standard PieceCatalogue.
+ *
+ * GamePieces are immutable. Every piece of a catalogue has four shared instances, one per rotation, built when the
+ * catalogue loads. Rotating a piece returns another of these instances instead of changing the piece, so pieces can be
+ * shared freely between the game, previews and snapshots.
+ */
+public final class GamePiece {
+
+    /**
+     * The catalogue this piece belongs to
+     */
+    private final PieceCatalogue catalogue;
+
+    /**
+     * The 2D grid representation of the shape of this piece
+     */
+    private final int[][] blocks;
+
+    /**
+     * The number of quarter turns this piece is rotated by, 0 to 3
+     */
+    private final int rotation;
+
+    /**
+     * The piece number of this piece in its catalogue
+     */
+    private final int type;
+
+    /**
+     * The name of this piece
+     */
+    private final String name;
+
+    /**
+     * Get the standard GamePiece of the specified piece number, unrotated
+     * @param piece piece number
+     * @return the shared GamePiece
+     */
+    public static GamePiece createPiece(int piece) {
+        return PieceCatalogue.STANDARD.getPiece(piece);
+    }
+
+    /**
+     * Get the standard GamePiece of the specified piece number and rotation
+     * @param piece piece number
+     * @param rotation number of times to rotate
+     * @return the shared GamePiece
+     */
+    public static GamePiece createPiece(int piece, int rotation) {
+        return createPiece(piece).rotate(rotation);
+    }
+
+    /**
+     * Create a new GamePiece with the given name, block makeup and rotation. Should not be called directly, only by
+     * the catalogue.
+     * @param catalogue catalogue the piece belongs to
+     * @param type piece number in the catalogue
+     * @param name name of the piece
+     * @param shape block makeup of the piece, 1 for a block and 0 for empty
+     * @param rotation number of quarter turns from the original shape
+     */
+    GamePiece(PieceCatalogue catalogue, int type, String name, int[][] shape, int rotation) {
+        this.catalogue = catalogue;
+        this.type = type;
+        this.name = name;
+        this.rotation = rotation;
+
+        //Use the shape of the block to create a grid with either 0 (empty) or the value of this shape for each block.
+        blocks = new int[shape.length][shape.length];
+        for (int row = 0; row < shape.length; row++) {
+            for (int col = 0; col < shape.length; col++) {
+                blocks[row][col] = shape[row][col] == 0 ? 0 : getValue();
+            }
+        }
+    }
+
+    /**
+     * Get the value of this piece
+     * @return piece value
+     */
+    public int getValue() {
+        return type + 1;
+    }
+
+    /**
+     * Get the piece number of this piece, as passed to the factory
+     * @return piece number
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Get the current rotation of this piece
+     * @return number of quarter turns from the original shape, 0 to 3
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Get the catalogue this piece belongs to
+     * @return piece catalogue
+     */
+    public PieceCatalogue getCatalogue() {
+        return catalogue;
+    }
+
+    /**
+     * Get the width and height of the block makeup of this piece, whose centre square is at (size - 1) / 2
+     * @return footprint size
+     */
+    public int getSize() {
+        return blocks.length;
+    }
+
+    /**
+     * Get the value of one square of this piece
+     * @param row row of the block makeup
+     * @param col column of the block makeup
+     * @return the piece value, or 0 if the square is empty
+     */
+    public int getBlock(int row, int col) {
+        return blocks[row][col];
+    }
+
+    /**
+     * Get a copy of the block makeup of this piece
+     * @return 2D grid of the blocks representing the piece shape
+     */
+    public int[][] getBlocks() {
+        int[][] copy = new int[blocks.length][];
+        for (int row = 0; row < blocks.length; row++) {
+            copy[row] = blocks[row].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Get this piece rotated clockwise the given number of rotations
+     * @param rotations number of rotations, negative to rotate anticlockwise
+     * @return the shared rotated GamePiece
+     */
+    public GamePiece rotate(int rotations) {
+        return catalogue.getPiece(type, Math.floorMod(rotation + rotations, PlacementTable.ROTATIONS));
+    }
+
+    /**
+     * Get this piece rotated clockwise exactly once
+     * @return the shared rotated GamePiece
+     */
+    public GamePiece rotate() {
+        return rotate(1);
+    }
+
+    /**
+     * Rotate a square block makeup once clockwise
+     * @param blocks grid to rotate
+     * @return the rotated grid
+     */
+    static int[][] turn(int[][] blocks) {
+        int size = blocks.length;
+        int[][] rotated = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                rotated[size - 1 - col][row] = blocks[row][col];
+            }
+        }
+        return rotated;
+    }
+
+
+    /**
+     * Return the string representation of this piece
+     * @return the name of this piece
+     */
+    public String toString() {
+        return this.name;
+    }
+
+
+
+}
@@ -0,0 +1,160 @@
+package uk.ac.soton.comp1206.engine;
+
+import java.util.Arrays;
+
+/**
+ * The result of checking a grid for full lines after a piece is played.
+ * <p>
+ * Holds the indices of the cleared rows and columns, from which the number of cleared cells follows without walking
+ * them. A single instance is reused for every placement, so detecting clears does not allocate once its arrays have
+ * grown to the largest clear seen.
+ */
+public class LineClear {
+
+    /**
+     * Indices of the cleared rows, the first rowCount are in use.
+     */
+    private int[] rows = new int[4];
+
+    /**
+     * Indices of the cleared columns, the first colCount are in use.
+     */
+    private int[] cols = new int[4];
+
+    /**
+     * Number of cleared rows.
+     */
+    private int rowCount;
+
+    /**
+     * Number of cleared columns.
+     */
+    private int colCount;
+
+    /**
+     * Number of columns of the grid, the length of a cleared row.
+     */
+    private int gridCols;
+
+    /**
+     * Number of rows of the grid, the length of a cleared column.
+     */
+    private int gridRows;
+
+    /**
+     * Empty this result for a grid of the given size.
+     *
+     * @param gridCols number of columns of the grid
+     * @param gridRows number of rows of the grid
+     */
+    void reset(int gridCols, int gridRows) {
+        this.gridCols = gridCols;
+        this.gridRows = gridRows;
+        rowCount = 0;
+        colCount = 0;
+    }
+
+    /**
+     * Make this result a copy of another.
+     *
+     * @param other result to copy
+     */
+    void copyFrom(LineClear other) {
+        reset(other.gridCols, other.gridRows);
+        for (int i = 0; i < other.rowCount; i++) {
+            addRow(other.rows[i]);
+        }
+        for (int i = 0; i < other.colCount; i++) {
+            addColumn(other.cols[i]);
+        }
+    }
+
+    /**
+     * Add a cleared row.
+     *
+     * @param y row
+     */
+    void addRow(int y) {
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, rowCount * 2);
+        }
+        rows[rowCount++] = y;
+    }
+
+    /**
+     * Add a cleared column.
+     *
+     * @param x column
+     */
+    void addColumn(int x) {
+        if (colCount == cols.length) {
+            cols = Arrays.copyOf(cols, colCount * 2);
+        }
+        cols[colCount++] = x;
+    }
+
+    /**
+     * Get a cleared row.
+     *
+     * @param index index of the row, less than getRowCount
+     * @return row y
+     */
+    public int getRow(int index) {
+        return rows[index];
+    }
+
+    /**
+     * Get a cleared column.
+     *
+     * @param index index of the column, less than getColumnCount
+     * @return column x
+     */
+    public int getColumn(int index) {
+        return cols[index];
+    }
+
+    /**
+     * Get the number of cleared rows.
+     *
+     * @return row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Get the number of cleared columns.
+     *
+     * @return column count
+     */
+    public int getColumnCount() {
+        return colCount;
+    }
+
+    /**
+     * Get the number of cleared lines, rows and columns together.
+     *
+     * @return line count
+     */
+    public int getLineCount() {
+        return rowCount + colCount;
+    }
+
+    /**
+     * Get the number of cleared cells. Cells where a cleared row and column cross are counted once.
+     *
+     * @return cell count
+     */
+    public int getCellCount() {
+        return rowCount * gridCols + colCount * gridRows - rowCount * colCount;
+    }
+
+    /**
+     * Checks whether any line was cleared.
+     *
+     * @return true if nothing was cleared
+     */
+    public boolean isEmpty() {
+        return rowCount == 0 && colCount == 0;
+    }
+}
@@ -0,0 +1,245 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * The legal anchors of the current and next piece in every rotation, kept in step with a Board.
+ * <p>
+ * For each piece the index holds one bitset of anchors per rotation, bit y * cols + x set when the piece centred
+ * there lies inside the board and covers no occupied cell. A block offset by k cells from the centre collides at the
+ * anchors where the occupancy shifted down by k is set, so every anchor of a rotation is found at once by OR-ing one
+ * shifted copy of the occupancy per block and clearing those bits from the in-bounds anchors in the PlacementTable.
+ * That is a few word operations per block rather than a placement check per cell, on boards of any size.
+ * <p>
+ * The index is refreshed with update, which does nothing unless the occupancy or the pieces have changed since the
+ * last call, so it can be asked for after every move.
+ */
+public final class MoveIndex {
+
+    /**
+     * Slot of the current piece.
+     */
+    private static final int CURRENT = 0;
+
+    /**
+     * Slot of the next piece.
+     */
+    private static final int NEXT = 1;
+
+    /**
+     * Board the moves are played on.
+     */
+    private final Board board;
+
+    /**
+     * Precomputed piece data for the board.
+     */
+    private final PlacementTable placements;
+
+    /**
+     * Number of columns of the board.
+     */
+    private final int cols;
+
+    /**
+     * Number of rows of the board.
+     */
+    private final int rows;
+
+    /**
+     * Number of words in a bitset of the board's cells.
+     */
+    private final int words;
+
+    /**
+     * Legal anchors of the piece in each slot, indexed by rotation * words + word.
+     */
+    private final long[][] legal;
+
+    /**
+     * Number of legal moves of the piece in each slot, over every rotation.
+     */
+    private final int[] counts = new int[2];
+
+    /**
+     * Piece number indexed in each slot, -1 for none.
+     */
+    private final int[] types = {-1, -1};
+
+    /**
+     * Board version each slot was indexed at.
+     */
+    private final long[] versions = new long[2];
+
+    /**
+     * Create an empty index for a board. Nothing is indexed until update is called.
+     *
+     * @param board : board the moves are played on.
+     */
+    public MoveIndex(Board board) {
+        this.board = board;
+        this.placements = board.getPlacements();
+        this.cols = board.getCols();
+        this.rows = board.getRows();
+        this.words = (cols * rows + Long.SIZE - 1) / Long.SIZE;
+        this.legal = new long[2][PlacementTable.ROTATIONS * words];
+    }
+
+    /**
+     * Brings the index in line with the board and the given pieces. Slots whose piece and board are unchanged are
+     * not recomputed.
+     *
+     * @param current : current piece, may be null.
+     * @param next    : next piece, may be null.
+     */
+    public void update(GamePiece current, GamePiece next) {
+        index(CURRENT, current);
+        index(NEXT, next);
+    }
+
+    /**
+     * Checks whether a piece can be played centred on a square. Pieces of a type not in the index are checked
+     * against the board directly.
+     *
+     * @param piece : piece in the rotation to play.
+     * @param x     : column of the centre square.
+     * @param y     : row of the centre square.
+     * @return true if the piece fits.
+     */
+    public boolean isLegal(GamePiece piece, int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
+            return false;
+        }
+        int slot = slotOf(piece);
+        if (slot < 0) {
+            return board.canPlayPiece(x, y, piece);
+        }
+        int cell = y * cols + x;
+        return (legal[slot][piece.getRotation() * words + (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Checks whether a piece can be played anywhere in some rotation.
+     *
+     * @param piece : piece to check, in the index.
+     * @return true if the piece has a legal move.
+     */
+    public boolean hasMove(GamePiece piece) {
+        return getMoveCount(piece) > 0;
+    }
+
+    /**
+     * Checks whether either indexed piece can be played anywhere. Swapping does not help when neither can, so the
+     * turn cannot be played.
+     *
+     * @return true if the current or next piece has a legal move.
+     */
+    public boolean hasMove() {
+        return counts[CURRENT] > 0 || counts[NEXT] > 0;
+    }
+
+    /**
+     * Gets the number of legal moves of a piece, counting every anchor of every rotation.
+     *
+     * @param piece : piece to count, in the index.
+     * @return number of legal moves.
+     * @throws IllegalArgumentException if the piece is not in the index.
+     */
+    public int getMoveCount(GamePiece piece) {
+        int slot = slotOf(piece);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Piece " + piece + " is not in the move index");
+        }
+        return counts[slot];
+    }
+
+    /**
+     * Finds the slot indexing the given piece's type.
+     *
+     * @param piece : piece to find.
+     * @return slot, or -1 if the type is not indexed.
+     */
+    private int slotOf(GamePiece piece) {
+        if (piece.getCatalogue() != board.getCatalogue()) {
+            return -1;
+        }
+        if (types[CURRENT] == piece.getType() && versions[CURRENT] == board.getVersion()) {
+            return CURRENT;
+        }
+        if (types[NEXT] == piece.getType() && versions[NEXT] == board.getVersion()) {
+            return NEXT;
+        }
+        return -1;
+    }
+
+    /**
+     * Recomputes the legal anchors of a slot if its piece or the board has changed.
+     *
+     * @param slot  : slot to index.
+     * @param piece : piece for the slot, may be null.
+     */
+    private void index(int slot, GamePiece piece) {
+        long version = board.getVersion();
+        if (piece == null || piece.getCatalogue() != board.getCatalogue()) {
+            types[slot] = -1;
+            counts[slot] = 0;
+            return;
+        }
+        int type = piece.getType();
+        if (types[slot] == type && versions[slot] == version) {
+            return;
+        }
+        int other = 1 - slot;
+        if (types[other] == type && versions[other] == version) {
+            System.arraycopy(legal[other], 0, legal[slot], 0, legal[slot].length);
+            counts[slot] = counts[other];
+        } else {
+            counts[slot] = compute(type, legal[slot]);
+        }
+        types[slot] = type;
+        versions[slot] = version;
+    }
+
+    /**
+     * Computes the legal anchors of a piece in every rotation.
+     *
+     * @param type   : piece number.
+     * @param target : bitsets to fill, indexed by rotation * words + word.
+     * @return number of legal moves.
+     */
+    private int compute(int type, long[] target) {
+        long[] occupied = board.getOccupiedWords();
+        int count = 0;
+        for (int rotation = 0; rotation < PlacementTable.ROTATIONS; rotation++) {
+            int shape = type * PlacementTable.ROTATIONS + rotation;
+            long[] anchors = placements.anchors[shape];
+            int[] offsets = placements.blockCell[shape];
+            for (int word = 0; word < words; word++) {
+                long blocked = 0;
+                for (int offset : offsets) {
+                    blocked |= window(occupied, word * Long.SIZE + offset);
+                }
+                long free = anchors[word] & ~blocked;
+                target[rotation * words + word] = free;
+                count += Long.bitCount(free);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads 64 bits of a bitset starting at any bit, reading bits outside the bitset as 0.
+     *
+     * @param bits  : bitset to read.
+     * @param start : index of the first bit, may be negative.
+     * @return bits start to start + 63, the first in the lowest position.
+     */
+    private static long window(long[] bits, int start) {
+        int word = start >> 6;
+        int shift = start & (Long.SIZE - 1);
+        long low = word >= 0 && word < bits.length ? bits[word] : 0;
+        if (shift == 0) {
+            return low;
+        }
+        long high = word + 1 >= 0 && word + 1 < bits.length ? bits[word + 1] : 0;
+        return (low >>> shift) | (high << (Long.SIZE - shift));
+    }
+}
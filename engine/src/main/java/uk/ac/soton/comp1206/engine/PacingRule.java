@@ -0,0 +1,70 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * Decides how a game speeds up: the level reached after each placement and the turn time at each level.
+ * <p>
+ * Games, bots and simulators choose a rule through GameEngine.setPacing, and the classic TetrECS rule is used unless
+ * another is chosen. Candidate rules can be compared at scale with the PacingSweep benchmark.
+ */
+public interface PacingRule {
+
+    /**
+     * The classic TetrECS rule: the level goes up by one with every placement once the score reaches LEVEL_SCORE, and
+     * the turn time falls by LEVEL_DELAY_STEP per level from BASE_DELAY to at least MIN_DELAY.
+     */
+    PacingRule CLASSIC = new PacingRule() {
+        @Override
+        public int level(int level, int score) {
+            return score >= GameEngine.LEVEL_SCORE ? level + 1 : level;
+        }
+
+        @Override
+        public int delay(int level) {
+            return Math.max(GameEngine.MIN_DELAY, GameEngine.BASE_DELAY - GameEngine.LEVEL_DELAY_STEP * level);
+        }
+    };
+
+    /**
+     * Creates a rule where the level is the score divided by a fixed number of points, and the turn time falls by a
+     * fixed step per level to a floor.
+     *
+     * @param levelScore : points per level, at least 1.
+     * @param baseDelay  : turn time at level 0, in milliseconds.
+     * @param levelStep  : turn time removed per level, in milliseconds.
+     * @param minDelay   : shortest turn time, in milliseconds.
+     * @return the rule.
+     */
+    static PacingRule linear(int levelScore, int baseDelay, int levelStep, int minDelay) {
+        if (levelScore < 1) {
+            throw new IllegalArgumentException("Points per level must be at least 1");
+        }
+        return new PacingRule() {
+            @Override
+            public int level(int level, int score) {
+                return Math.max(0, score / levelScore);
+            }
+
+            @Override
+            public int delay(int level) {
+                return Math.max(minDelay, baseDelay - levelStep * level);
+            }
+        };
+    }
+
+    /**
+     * Gets the level after a placement.
+     *
+     * @param level : level before the placement.
+     * @param score : score after the placement.
+     * @return new level.
+     */
+    int level(int level, int score);
+
+    /**
+     * Gets the turn time at a level.
+     *
+     * @param level : current level.
+     * @return time in milliseconds.
+     */
+    int delay(int level);
+}
@@ -0,0 +1,323 @@
+package uk.ac.soton.comp1206.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The set of pieces a game is played with, read from a text definition.
+ * <p>
+ * A definition lists each piece as a line "piece &lt;weight&gt; &lt;name&gt;" followed by its footprint: a square of 1
+ * to MAX_SIZE rows, X for a block and . for an empty square. Blank lines and lines starting with # are ignored.
+ * Pieces are numbered in the order they are defined, and new pieces are drawn with probability proportional to
+ * their weight. The standard pieces are defined in the pieces.txt resource beside this class.
+ * <p>
+ * Loading compiles the catalogue into the shared GamePiece of every piece and rotation, and the catalogue builds a
+ * PlacementTable for each grid size on first use, so a custom catalogue gets the same constant time placement checks
+ * as the standard one.
+ */
+public final class PieceCatalogue {
+
+    /**
+     * Widest footprint a piece may have.
+     */
+    public static final int MAX_SIZE = 5;
+
+    /**
+     * Most pieces a catalogue may hold, so every piece value fits in a board cell.
+     */
+    public static final int MAX_PIECES = Byte.MAX_VALUE;
+
+    /**
+     * The standard pieces, from the pieces.txt resource.
+     */
+    public static final PieceCatalogue STANDARD = loadStandard();
+
+    /**
+     * Every piece in every rotation, indexed by piece * PlacementTable.ROTATIONS + rotation.
+     */
+    private final GamePiece[] pieces;
+
+    /**
+     * Weight of each piece.
+     */
+    private final int[] weights;
+
+    /**
+     * Sum of the weights of each piece and every piece before it.
+     */
+    private final int[] cumulative;
+
+    /**
+     * Width of the widest footprint.
+     */
+    private final int maxSize;
+
+    /**
+     * Placement tables built for each grid size, keyed by columns and rows.
+     */
+    private final Map<Long, PlacementTable> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Create a catalogue from parsed definitions.
+     *
+     * @param names   name of each piece
+     * @param weights weight of each piece
+     * @param shapes  unrotated block makeup of each piece, 1 for a block and 0 for empty
+     */
+    private PieceCatalogue(List<String> names, List<Integer> weights, List<int[][]> shapes) {
+        int count = names.size();
+        this.pieces = new GamePiece[count * PlacementTable.ROTATIONS];
+        this.weights = new int[count];
+        this.cumulative = new int[count];
+
+        int total = 0;
+        int widest = 0;
+        for (int piece = 0; piece < count; piece++) {
+            int[][] blocks = shapes.get(piece);
+            for (int rotation = 0; rotation < PlacementTable.ROTATIONS; rotation++) {
+                pieces[piece * PlacementTable.ROTATIONS + rotation] =
+                        new GamePiece(this, piece, names.get(piece), blocks, rotation);
+                blocks = GamePiece.turn(blocks);
+            }
+            this.weights[piece] = weights.get(piece);
+            total += weights.get(piece);
+            cumulative[piece] = total;
+            widest = Math.max(widest, blocks.length);
+        }
+        this.maxSize = widest;
+    }
+
+    /**
+     * Load a catalogue from a definition file.
+     *
+     * @param path file to read
+     * @return loaded catalogue
+     * @throws IOException if the file cannot be read or is not a valid definition
+     */
+    public static PieceCatalogue load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * Load a catalogue from a definition. The stream is read to the end but not closed.
+     *
+     * @param in UTF-8 definition to read
+     * @return loaded catalogue
+     * @throws IOException if the stream cannot be read or is not a valid definition
+     */
+    public static PieceCatalogue load(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        List<int[][]> shapes = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        long total = 0;
+
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (!line.startsWith("piece ")) {
+                if (names.isEmpty()) {
+                    throw new IOException("Line " + number + ": footprint before the first piece");
+                }
+                rows.add(line);
+                continue;
+            }
+
+            if (!names.isEmpty()) {
+                shapes.add(footprint(names.get(names.size() - 1), rows));
+                rows.clear();
+            }
+            String[] fields = line.substring("piece ".length()).strip().split("\\s+", 2);
+            if (fields.length < 2) {
+                throw new IOException("Line " + number + ": expected piece <weight> <name>");
+            }
+            int weight;
+            try {
+                weight = Integer.parseInt(fields[0]);
+            } catch (NumberFormatException e) {
+                throw new IOException("Line " + number + ": weight " + fields[0] + " is not a number");
+            }
+            if (weight < 0) {
+                throw new IOException("Line " + number + ": weight " + weight + " is negative");
+            }
+            total += weight;
+            weights.add(weight);
+            names.add(fields[1]);
+        }
+        if (names.isEmpty()) {
+            throw new IOException("Catalogue defines no pieces");
+        }
+        shapes.add(footprint(names.get(names.size() - 1), rows));
+
+        if (names.size() > MAX_PIECES) {
+            throw new IOException("Catalogue defines " + names.size() + " pieces, at most " + MAX_PIECES + " allowed");
+        }
+        if (total == 0 || total > Integer.MAX_VALUE) {
+            throw new IOException("Total piece weight of " + total + " is out of range");
+        }
+        return new PieceCatalogue(names, weights, shapes);
+    }
+
+    /**
+     * Parses the footprint rows of a piece.
+     *
+     * @param name name of the piece, for errors
+     * @param rows rows of X and . characters
+     * @return block makeup, 1 for a block and 0 for empty
+     * @throws IOException if the rows are not a square of at most MAX_SIZE with at least one block
+     */
+    private static int[][] footprint(String name, List<String> rows) throws IOException {
+        int size = rows.size();
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IOException("Piece " + name + " has " + size + " rows, expected 1 to " + MAX_SIZE);
+        }
+        int[][] blocks = new int[size][size];
+        boolean any = false;
+        for (int row = 0; row < size; row++) {
+            String squares = rows.get(row);
+            if (squares.length() != size) {
+                throw new IOException("Piece " + name + " row " + squares + " is not " + size + " squares wide");
+            }
+            for (int col = 0; col < size; col++) {
+                switch (squares.charAt(col)) {
+                    case 'X' -> {
+                        blocks[row][col] = 1;
+                        any = true;
+                    }
+                    case '.' -> blocks[row][col] = 0;
+                    default -> throw new IOException("Piece " + name + " row " + squares + " has a square other than X or .");
+                }
+            }
+        }
+        if (!any) {
+            throw new IOException("Piece " + name + " has no blocks");
+        }
+        return blocks;
+    }
+
+    /**
+     * Load the standard catalogue from the pieces.txt resource.
+     *
+     * @return standard catalogue
+     */
+    private static PieceCatalogue loadStandard() {
+        try (InputStream in = PieceCatalogue.class.getResourceAsStream("pieces.txt")) {
+            if (in == null) {
+                throw new IOException("Missing pieces.txt resource");
+            }
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to load the standard pieces", e);
+        }
+    }
+
+    /**
+     * Get the number of pieces in this catalogue.
+     *
+     * @return number of pieces
+     */
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * Get a piece, unrotated.
+     *
+     * @param piece piece number
+     * @return the shared GamePiece
+     */
+    public GamePiece getPiece(int piece) {
+        if (piece < 0 || piece >= weights.length) {
+            throw new IndexOutOfBoundsException("No such piece: " + piece);
+        }
+        return pieces[piece * PlacementTable.ROTATIONS];
+    }
+
+    /**
+     * Get a piece in a rotation.
+     *
+     * @param piece    piece number
+     * @param rotation rotation, 0 to 3
+     * @return the shared GamePiece
+     */
+    public GamePiece getPiece(int piece, int rotation) {
+        return pieces[piece * PlacementTable.ROTATIONS + rotation];
+    }
+
+    /**
+     * Get the weight a piece is drawn with.
+     *
+     * @param piece piece number
+     * @return weight
+     */
+    public int getWeight(int piece) {
+        return weights[piece];
+    }
+
+    /**
+     * Get the sum of the weights of every piece.
+     *
+     * @return total weight
+     */
+    public int getTotalWeight() {
+        return cumulative[cumulative.length - 1];
+    }
+
+    /**
+     * Get the width of the widest footprint.
+     *
+     * @return largest footprint size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the piece a uniformly random roll selects, so each piece is chosen in proportion to its weight.
+     *
+     * @param roll value from 0 to getTotalWeight() - 1
+     * @return piece number
+     */
+    public int draw(int roll) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulative[middle] > roll) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get the placement table of this catalogue for a grid size, building it if it has not been used before.
+     *
+     * @param cols number of columns
+     * @param rows number of rows
+     * @return placement table for the grid size
+     */
+    public PlacementTable getPlacements(int cols, int rows) {
+        return tables.computeIfAbsent(((long) cols << 32) | rows, key -> new PlacementTable(this, cols, rows));
+    }
+}
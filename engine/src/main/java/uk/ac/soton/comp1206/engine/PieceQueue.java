@@ -0,0 +1,208 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * A first in, first out queue of upcoming pieces, held in a fixed ring of primitive arrays.
+ * <p>
+ * Each entry is a piece type and rotation, with an optional long such as the state of the piece source before the
+ * piece was drawn. Removing from the front moves the head rather than shifting the entries, and pieces are looked up
+ * in the catalogue's shared rotation states, so the queue allocates nothing once created. It backs the engine's
+ * preview of pieces after the next one and the pieces a multiplayer server has sent ahead of play.
+ * <p>
+ * A queue is not thread safe and should be used from one thread at a time.
+ */
+public final class PieceQueue {
+
+    /**
+     * Pieces the types refer to.
+     */
+    private final PieceCatalogue catalogue;
+
+    /**
+     * Type of each entry, indexed by position and mask.
+     */
+    private final byte[] types;
+
+    /**
+     * Rotation of each entry.
+     */
+    private final byte[] rotations;
+
+    /**
+     * Value stored with each entry.
+     */
+    private final long[] states;
+
+    /**
+     * Capacity minus one, the capacity being a power of two.
+     */
+    private final int mask;
+
+    /**
+     * Position of the front entry.
+     */
+    private int head;
+
+    /**
+     * Number of entries held.
+     */
+    private int size;
+
+    /**
+     * Create an empty queue of pieces of a catalogue.
+     *
+     * @param capacity  : most entries held, a power of two.
+     * @param catalogue : pieces the types refer to.
+     */
+    public PieceQueue(int capacity, PieceCatalogue catalogue) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Piece queue capacity must be a power of two, not " + capacity);
+        }
+        this.catalogue = catalogue;
+        this.types = new byte[capacity];
+        this.rotations = new byte[capacity];
+        this.states = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Adds a piece to the back of the queue.
+     *
+     * @param type     : piece type in the catalogue.
+     * @param rotation : rotation of the piece.
+     * @param state    : value stored with the piece.
+     * @return true if added, false if the queue is full.
+     */
+    public boolean offer(int type, int rotation, long state) {
+        if (size == types.length) {
+            return false;
+        }
+        int slot = (head + size) & mask;
+        types[slot] = (byte) type;
+        rotations[slot] = (byte) rotation;
+        states[slot] = state;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds a piece to the back of the queue in its current rotation.
+     *
+     * @param piece : piece of the queue's catalogue.
+     * @return true if added, false if the queue is full.
+     */
+    public boolean offer(GamePiece piece) {
+        return offer(piece.getType(), piece.getRotation(), 0);
+    }
+
+    /**
+     * Removes the piece at the front of the queue.
+     *
+     * @return the removed piece.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public GamePiece remove() {
+        GamePiece piece = get(0);
+        head = (head + 1) & mask;
+        size--;
+        return piece;
+    }
+
+    /**
+     * Gets a queued piece without removing it.
+     *
+     * @param index : position from the front, less than size.
+     * @return shared piece in its queued rotation.
+     * @throws IllegalStateException if there is no piece at the position.
+     */
+    public GamePiece get(int index) {
+        int slot = slot(index);
+        return catalogue.getPiece(types[slot], rotations[slot]);
+    }
+
+    /**
+     * Gets the type of a queued piece.
+     *
+     * @param index : position from the front, less than size.
+     * @return piece type.
+     */
+    public int getType(int index) {
+        return types[slot(index)];
+    }
+
+    /**
+     * Gets the rotation of a queued piece.
+     *
+     * @param index : position from the front, less than size.
+     * @return rotation.
+     */
+    public int getRotation(int index) {
+        return rotations[slot(index)];
+    }
+
+    /**
+     * Gets the value stored with a queued piece.
+     *
+     * @param index : position from the front, less than size.
+     * @return stored value.
+     */
+    public long getState(int index) {
+        return states[slot(index)];
+    }
+
+    /**
+     * Removes every piece.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Gets the number of pieces queued.
+     *
+     * @return size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets whether no pieces are queued.
+     *
+     * @return true if empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the most pieces the queue holds.
+     *
+     * @return capacity.
+     */
+    public int getCapacity() {
+        return types.length;
+    }
+
+    /**
+     * Gets the pieces the types refer to.
+     *
+     * @return catalogue.
+     */
+    public PieceCatalogue getCatalogue() {
+        return catalogue;
+    }
+
+    /**
+     * Gets the ring position of a queued piece.
+     *
+     * @param index : position from the front.
+     * @return slot in the arrays.
+     */
+    private int slot(int index) {
+        if (index < 0 || index >= size) {
+            throw new IllegalStateException("No piece at " + index + " of a queue of " + size);
+        }
+        return (head + index) & mask;
+    }
+}
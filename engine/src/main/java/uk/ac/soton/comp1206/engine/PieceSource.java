@@ -0,0 +1,25 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * Supplies the sequence of piece numbers a game is played with.
+ */
+public interface PieceSource {
+
+    /**
+     * Get the number of the next piece in the sequence.
+     * @return piece number in the game's PieceCatalogue.
+     */
+    int nextPiece();
+
+    /**
+     * Get the state of the sequence, enough to continue it from the same point with setState.
+     * @return sequence state.
+     */
+    long getState();
+
+    /**
+     * Continue the sequence from a state returned by getState.
+     * @param state : state to continue from.
+     */
+    void setState(long state);
+}
@@ -0,0 +1,235 @@
+package uk.ac.soton.comp1206.engine;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed placement data for every piece and rotation of a PieceCatalogue on a grid size.
+ * <p>
+ * For every piece and rotation the table holds the offsets of its blocks from the centre square and their extent, so
+ * any placement can be bounds checked in constant time and its cells walked without touching the piece's block grid.
+ * <p>
+ * On grids of at most Board.MASK_CELLS cells the table also holds, for every anchor, the mask of the cells covered
+ * when the piece is centred there, or OUT_OF_BOUNDS when part of the footprint falls outside the grid. Checking a
+ * placement is then a single AND against the grid's occupancy mask.
+ * <p>
+ * On grids of any size the table holds the bitset of anchors at which each piece and rotation lies inside the grid,
+ * and the cell offset of each block, from which a MoveIndex finds every legal anchor with a few shifted word ORs.
+ * <p>
+ * Tables are built by their catalogue the first time a grid size is used, and shared from then on.
+ */
+public class PlacementTable {
+
+    /**
+     * Number of distinct rotations of a piece.
+     */
+    public static final int ROTATIONS = 4;
+
+    /**
+     * Mask stored for placements which do not fit inside the grid.
+     */
+    public static final long OUT_OF_BOUNDS = -1L;
+
+    /**
+     * Number of columns in the grid this table covers.
+     */
+    private final int cols;
+
+    /**
+     * Number of rows in the grid this table covers.
+     */
+    private final int rows;
+
+    /**
+     * Masks indexed by ((piece * ROTATIONS) + rotation) * cells + anchor, null on grids too large for masks.
+     */
+    private final long[] masks;
+
+    /**
+     * Column offset of each block from the centre, indexed by piece * ROTATIONS + rotation.
+     */
+    final int[][] blockX;
+
+    /**
+     * Row offset of each block from the centre, indexed by piece * ROTATIONS + rotation.
+     */
+    final int[][] blockY;
+
+    /**
+     * Smallest and largest column and row offset of any block, indexed by piece * ROTATIONS + rotation.
+     */
+    final int[] minX, maxX, minY, maxY;
+
+    /**
+     * Cell index offset y * cols + x of each block from the centre, indexed by piece * ROTATIONS + rotation.
+     */
+    final int[][] blockCell;
+
+    /**
+     * Bitset of the anchors, bit y * cols + x, at which the whole piece lies inside the grid, indexed by
+     * piece * ROTATIONS + rotation.
+     */
+    final long[][] anchors;
+
+    /**
+     * Build the offsets of every piece and rotation, and the masks of every anchor if the grid is small enough.
+     * Called by PieceCatalogue.getPlacements.
+     *
+     * @param catalogue pieces to build the table for
+     * @param cols      number of columns
+     * @param rows      number of rows
+     */
+    PlacementTable(PieceCatalogue catalogue, int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+
+        int shapes = catalogue.size() * ROTATIONS;
+        blockX = new int[shapes][];
+        blockY = new int[shapes][];
+        minX = new int[shapes];
+        maxX = new int[shapes];
+        minY = new int[shapes];
+        maxY = new int[shapes];
+        blockCell = new int[shapes][];
+        anchors = new long[shapes][];
+
+        int cells = cols * rows;
+        masks = cells <= Board.MASK_CELLS ? new long[shapes * cells] : null;
+
+        for (int piece = 0; piece < catalogue.size(); piece++) {
+            for (int rotation = 0; rotation < ROTATIONS; rotation++) {
+                int index = piece * ROTATIONS + rotation;
+                offsets(catalogue.getPiece(piece, rotation), index);
+                anchors[index] = new long[(cells + Long.SIZE - 1) / Long.SIZE];
+                for (int anchor = 0; anchor < cells; anchor++) {
+                    if (inBounds(piece, rotation, anchor % cols, anchor / cols)) {
+                        anchors[index][anchor >>> 6] |= 1L << anchor;
+                    }
+                }
+                if (masks != null) {
+                    for (int anchor = 0; anchor < cells; anchor++) {
+                        masks[index * cells + anchor] = footprint(index, anchor % cols, anchor / cols);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the mask of a placement. Only available on grids of at most Board.MASK_CELLS cells.
+     *
+     * @param piece    piece number
+     * @param rotation rotation of the piece, 0 to 3
+     * @param x        column of the centre square
+     * @param y        row of the centre square
+     * @return mask of the covered cells, or OUT_OF_BOUNDS if the piece does not fit
+     * @throws IllegalStateException if the grid is too large for masks
+     */
+    public long mask(int piece, int rotation, int x, int y) {
+        if (masks == null) {
+            throw new IllegalStateException("Grid of " + cols + "x" + rows + " is too large for placement masks");
+        }
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
+            return OUT_OF_BOUNDS;
+        }
+        return masks[(piece * ROTATIONS + rotation) * cols * rows + y * cols + x];
+    }
+
+    /**
+     * Checks whether this table holds placement masks, which it does for grids of at most Board.MASK_CELLS cells.
+     *
+     * @return true if mask can be called
+     */
+    public boolean hasMasks() {
+        return masks != null;
+    }
+
+    /**
+     * Checks whether a placement fits inside the grid.
+     *
+     * @param piece    piece number
+     * @param rotation rotation of the piece, 0 to 3
+     * @param x        column of the centre square
+     * @param y        row of the centre square
+     * @return true if the centre square and every block of the piece lie inside the grid
+     */
+    public boolean inBounds(int piece, int rotation, int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
+            return false;
+        }
+        int index = piece * ROTATIONS + rotation;
+        return x + minX[index] >= 0 && x + maxX[index] < cols && y + minY[index] >= 0 && y + maxY[index] < rows;
+    }
+
+    /**
+     * Get the number of columns this table covers.
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows this table covers.
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Records the offsets and extent of the blocks of a piece in one rotation.
+     *
+     * @param shape piece in the rotation to record
+     * @param index  piece * ROTATIONS + rotation
+     */
+    private void offsets(GamePiece shape, int index) {
+        int size = shape.getSize();
+        int centre = (size - 1) / 2;
+        int count = 0;
+        int[] xs = new int[size * size];
+        int[] ys = new int[size * size];
+        minX[index] = minY[index] = Integer.MAX_VALUE;
+        maxX[index] = maxY[index] = Integer.MIN_VALUE;
+        for (int dy = 0; dy < size; dy++) {
+            for (int dx = 0; dx < size; dx++) {
+                if (shape.getBlock(dy, dx) == 0) continue;
+                xs[count] = dx - centre;
+                ys[count] = dy - centre;
+                minX[index] = Math.min(minX[index], dx - centre);
+                maxX[index] = Math.max(maxX[index], dx - centre);
+                minY[index] = Math.min(minY[index], dy - centre);
+                maxY[index] = Math.max(maxY[index], dy - centre);
+                count++;
+            }
+        }
+        blockX[index] = Arrays.copyOf(xs, count);
+        blockY[index] = Arrays.copyOf(ys, count);
+        blockCell[index] = new int[count];
+        for (int block = 0; block < count; block++) {
+            blockCell[index][block] = ys[block] * cols + xs[block];
+        }
+    }
+
+    /**
+     * Builds the mask of a piece centred on the given square.
+     *
+     * @param index piece * ROTATIONS + rotation
+     * @param x     column of the centre square
+     * @param y     row of the centre square
+     * @return mask of the covered cells, or OUT_OF_BOUNDS if any block falls outside the grid
+     */
+    private long footprint(int index, int x, int y) {
+        long mask = 0;
+        for (int block = 0; block < blockX[index].length; block++) {
+            int cellX = x + blockX[index][block];
+            int cellY = y + blockY[index][block];
+            if (cellX < 0 || cellX >= cols || cellY < 0 || cellY >= rows) {
+                return OUT_OF_BOUNDS;
+            }
+            mask |= 1L << (cellY * cols + cellX);
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,108 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * The points of every line clear possible on a grid size under a ScoringRule, computed once up front.
+ * <p>
+ * Entries are indexed by cleared rows, cleared columns and multiplier, so scoring a placement is a single array
+ * lookup. Multipliers of MULTIPLIER_BUCKETS or more are rare enough to be passed to the rule directly.
+ */
+public final class ScoreTable {
+
+    /**
+     * Multipliers below this are looked up, higher ones are computed.
+     */
+    public static final int MULTIPLIER_BUCKETS = 16;
+
+    /**
+     * Rule the points are computed by.
+     */
+    private final ScoringRule rule;
+
+    /**
+     * Number of columns of the grid.
+     */
+    private final int cols;
+
+    /**
+     * Number of rows of the grid.
+     */
+    private final int rows;
+
+    /**
+     * Points of each clear, indexed by (clearedRows * (cols + 1) + clearedCols) * MULTIPLIER_BUCKETS + multiplier.
+     */
+    private final int[] points;
+
+    /**
+     * Build the table of a rule for a grid size.
+     *
+     * @param rule : rule to score by.
+     * @param cols : number of columns.
+     * @param rows : number of rows.
+     */
+    public ScoreTable(ScoringRule rule, int cols, int rows) {
+        this.rule = rule;
+        this.cols = cols;
+        this.rows = rows;
+        this.points = new int[(rows + 1) * (cols + 1) * MULTIPLIER_BUCKETS];
+        for (int clearedRows = 0; clearedRows <= rows; clearedRows++) {
+            for (int clearedCols = 0; clearedCols <= cols; clearedCols++) {
+                int base = (clearedRows * (cols + 1) + clearedCols) * MULTIPLIER_BUCKETS;
+                for (int multiplier = 1; multiplier < MULTIPLIER_BUCKETS; multiplier++) {
+                    points[base + multiplier] = compute(clearedRows, clearedCols, multiplier);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the points of a line clear.
+     *
+     * @param clearedRows : number of cleared rows.
+     * @param clearedCols : number of cleared columns.
+     * @param multiplier  : current multiplier, 1 or more.
+     * @return points for the clear.
+     */
+    public int score(int clearedRows, int clearedCols, int multiplier) {
+        if (multiplier >= MULTIPLIER_BUCKETS) {
+            return compute(clearedRows, clearedCols, multiplier);
+        }
+        return points[(clearedRows * (cols + 1) + clearedCols) * MULTIPLIER_BUCKETS + multiplier];
+    }
+
+    /**
+     * Gets the points of a line clear.
+     *
+     * @param clear      : the cleared lines.
+     * @param multiplier : current multiplier, 1 or more.
+     * @return points for the clear.
+     */
+    public int score(LineClear clear, int multiplier) {
+        return score(clear.getRowCount(), clear.getColumnCount(), multiplier);
+    }
+
+    /**
+     * Gets the rule this table was built from.
+     *
+     * @return scoring rule.
+     */
+    public ScoringRule getRule() {
+        return rule;
+    }
+
+    /**
+     * Asks the rule for the points of a clear. A clear of no lines is always worth nothing.
+     *
+     * @param clearedRows : number of cleared rows.
+     * @param clearedCols : number of cleared columns.
+     * @param multiplier  : current multiplier.
+     * @return points for the clear.
+     */
+    private int compute(int clearedRows, int clearedCols, int multiplier) {
+        if (clearedRows == 0 && clearedCols == 0) {
+            return 0;
+        }
+        int cells = clearedRows * cols + clearedCols * rows - clearedRows * clearedCols;
+        return rule.points(clearedRows, clearedCols, cells, multiplier);
+    }
+}
@@ -0,0 +1,83 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * Decides how many points a line clear is worth.
+ * <p>
+ * A rule is only consulted when a ScoreTable is built for it, so it may be as slow as it likes. Games, bots and
+ * simulators choose a rule through GameEngine.setScoring and the Solver constructors, and the classic TetrECS rule is
+ * used unless another is chosen.
+ * <p>
+ * The built in rules have ids, written to replays and saved games so they are scored by the rule they were played
+ * with. Other rules have the id CUSTOM and cannot be restored from a file.
+ */
+public interface ScoringRule {
+
+    /**
+     * Id of the classic rule.
+     */
+    int CLASSIC_ID = 0;
+
+    /**
+     * Id of the cascade rule.
+     */
+    int CASCADE_ID = 1;
+
+    /**
+     * Id of any rule that is not built in.
+     */
+    int CUSTOM = 0xff;
+
+    /**
+     * The classic TetrECS rule: 10 points per cleared block, times the number of cleared lines, times the multiplier.
+     */
+    ScoringRule CLASSIC = (rows, cols, cells, multiplier) ->
+            cells * (rows + cols) * GameEngine.POINTS_PER_BLOCK * multiplier;
+
+    /**
+     * A rule rewarding clearing several lines at once: 10 points per cleared block, times the square of the number of
+     * cleared lines, times the multiplier. A single line scores as under the classic rule.
+     */
+    ScoringRule CASCADE = (rows, cols, cells, multiplier) ->
+            cells * (rows + cols) * (rows + cols) * GameEngine.POINTS_PER_BLOCK * multiplier;
+
+    /**
+     * Scores a line clear.
+     *
+     * @param rows       : number of cleared rows.
+     * @param cols       : number of cleared columns.
+     * @param cells      : number of cleared cells, counting each crossing once.
+     * @param multiplier : current multiplier, 1 or more.
+     * @return points for the clear.
+     */
+    int points(int rows, int cols, int cells, int multiplier);
+
+    /**
+     * Gets the id of a rule.
+     *
+     * @param rule : rule to identify.
+     * @return CLASSIC_ID or CASCADE_ID for the built in rules, otherwise CUSTOM.
+     */
+    static int idOf(ScoringRule rule) {
+        if (rule == CLASSIC) {
+            return CLASSIC_ID;
+        }
+        if (rule == CASCADE) {
+            return CASCADE_ID;
+        }
+        return CUSTOM;
+    }
+
+    /**
+     * Gets a built in rule by its id.
+     *
+     * @param id : id of the rule.
+     * @return the rule, or null if no built in rule has the id.
+     */
+    static ScoringRule forId(int id) {
+        return switch (id) {
+            case CLASSIC_ID -> CLASSIC;
+            case CASCADE_ID -> CASCADE;
+            default -> null;
+        };
+    }
+}
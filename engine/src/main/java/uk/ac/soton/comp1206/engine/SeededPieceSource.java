@@ -0,0 +1,121 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * A reproducible piece sequence generated from an explicit seed.
+ * <p>
+ * Uses the SplitMix64 generator, which keeps its whole state in a single long and allocates nothing per piece. Two
+ * sources created with the same seed produce the same sequence, so a game can be replayed or shared by its seed.
+ */
+public class SeededPieceSource implements PieceSource {
+
+    /**
+     * Increment added to the state for every value, the golden ratio in 64 bits.
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Seed the sequence was started from.
+     */
+    private final long seed;
+
+    /**
+     * Pieces to choose from, in proportion to their weights.
+     */
+    private final PieceCatalogue catalogue;
+
+    /**
+     * Current generator state.
+     */
+    private long state;
+
+    /**
+     * Create a source of the standard pieces with a seed taken from the clock.
+     */
+    public SeededPieceSource() {
+        this(System.nanoTime() ^ System.currentTimeMillis());
+    }
+
+    /**
+     * Create a source of the standard pieces starting from the given seed.
+     * @param seed : seed of the sequence.
+     */
+    public SeededPieceSource(long seed) {
+        this(seed, PieceCatalogue.STANDARD);
+    }
+
+    /**
+     * Create a source choosing between the pieces of a catalogue by their weights, starting from the given seed.
+     * @param seed : seed of the sequence.
+     * @param catalogue : pieces to choose from.
+     */
+    public SeededPieceSource(long seed, PieceCatalogue catalogue) {
+        this.seed = seed;
+        this.catalogue = catalogue;
+        this.state = seed;
+    }
+
+    /**
+     * Get the number of the next piece in the sequence.
+     * @return piece number.
+     */
+    @Override
+    public int nextPiece() {
+        return catalogue.draw(nextInt(catalogue.getTotalWeight()));
+    }
+
+    /**
+     * Get a uniformly distributed value below the given bound.
+     * @param bound : exclusive upper bound, greater than 0.
+     * @return value from 0 to bound - 1.
+     */
+    public int nextInt(int bound) {
+        //Multiply-shift with rejection of the biased low range
+        long product = (nextLong() >>> 32) * bound;
+        long low = product & 0xffffffffL;
+        if (low < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while (low < threshold) {
+                product = (nextLong() >>> 32) * bound;
+                low = product & 0xffffffffL;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    /**
+     * Advance the generator and get its next 64 bit output.
+     * @return random long.
+     */
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the seed this sequence was started from.
+     * @return seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the current generator state, which together with the seed identifies the position in the sequence.
+     * @return state.
+     */
+    @Override
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Restore a generator state returned by getState.
+     * @param state : state to continue from.
+     */
+    @Override
+    public void setState(long state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,138 @@
+package uk.ac.soton.comp1206.engine;
+
+import java.util.ArrayDeque;
+
+/**
+ * Undo and redo stacks of EngineSnapshots for a practice game.
+ * <p>
+ * Before each move the caller records the state it is leaving. Undo hands back the most recent recorded state and
+ * keeps the state being left for redo, and redo does the reverse, so each is a push and a pop. Making a new move
+ * after an undo discards the redo stack. The undo stack keeps at most a fixed number of states and drops the oldest
+ * beyond that, so memory stays bounded however long the session runs.
+ */
+public class UndoHistory {
+
+    /**
+     * Number of states kept by default, about 100 bytes each on the standard board.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * States to return to on undo, most recent first.
+     */
+    private final ArrayDeque<EngineSnapshot> undo = new ArrayDeque<>();
+
+    /**
+     * States to return to on redo, most recent first.
+     */
+    private final ArrayDeque<EngineSnapshot> redo = new ArrayDeque<>();
+
+    /**
+     * Most states kept on the undo stack.
+     */
+    private final int capacity;
+
+    /**
+     * Create a history keeping DEFAULT_CAPACITY states.
+     */
+    public UndoHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a history keeping the given number of states.
+     *
+     * @param capacity : most states kept on the undo stack, at least 1.
+     */
+    public UndoHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Undo capacity must be at least 1");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records the state before a move, discarding any states that could be redone.
+     *
+     * @param before : state the move starts from.
+     */
+    public void record(EngineSnapshot before) {
+        undo.push(before);
+        if (undo.size() > capacity) {
+            undo.removeLast();
+        }
+        redo.clear();
+    }
+
+    /**
+     * Steps back one move.
+     *
+     * @param current : state being left, kept for redo.
+     * @return state to restore, or null if there is nothing to undo.
+     */
+    public EngineSnapshot undo(EngineSnapshot current) {
+        if (undo.isEmpty()) {
+            return null;
+        }
+        redo.push(current);
+        return undo.pop();
+    }
+
+    /**
+     * Steps forward one undone move.
+     *
+     * @param current : state being left, kept for undo.
+     * @return state to restore, or null if there is nothing to redo.
+     */
+    public EngineSnapshot redo(EngineSnapshot current) {
+        if (redo.isEmpty()) {
+            return null;
+        }
+        undo.push(current);
+        return redo.pop();
+    }
+
+    /**
+     * Checks whether there is a move to undo.
+     *
+     * @return true if undo would return a state.
+     */
+    public boolean canUndo() {
+        return !undo.isEmpty();
+    }
+
+    /**
+     * Checks whether there is a move to redo.
+     *
+     * @return true if redo would return a state.
+     */
+    public boolean canRedo() {
+        return !redo.isEmpty();
+    }
+
+    /**
+     * Gets the number of moves that can be undone.
+     *
+     * @return undo stack size.
+     */
+    public int getUndoCount() {
+        return undo.size();
+    }
+
+    /**
+     * Gets the number of moves that can be redone.
+     *
+     * @return redo stack size.
+     */
+    public int getRedoCount() {
+        return redo.size();
+    }
+
+    /**
+     * Forgets every recorded state.
+     */
+    public void clear() {
+        undo.clear();
+        redo.clear();
+    }
+}
@@ -0,0 +1,109 @@
+package uk.ac.soton.comp1206.engine;
+
+/**
+ * Zobrist keys for hashing board states.
+ * <p>
+ * Every cell has a random 64-bit key and the hash of an occupancy mask is the XOR of the keys of its occupied cells.
+ * Keys are derived from the cell index with the SplitMix64 mixing function, so boards of any size are covered, and the
+ * keys of the first MASK_CELLS cells are cached.
+ * Filling or emptying a cell XORs its key in or out, so a hash is kept up to date in constant time per cell rather
+ * than recomputed. Pieces have keys of their own for hashing search states that include the piece in hand, and
+ * cell values have keys of their own for hashing what a board shows, colours included.
+ * <p>
+ * The keys are generated from a fixed seed, so hashes are the same in every run.
+ */
+public final class Zobrist {
+
+    /**
+     * Seed the cell keys are derived from.
+     */
+    private static final long CELL_SEED = 0x5A0B_2157_7E7EC5L;
+
+    /**
+     * Seed the piece keys are derived from, unrelated to CELL_SEED so the two sequences do not overlap.
+     */
+    private static final long PIECE_SEED = 0xC3A5_C85C_97CB_3127L;
+
+    /**
+     * Key of each cell that fits in a single mask, indexed by y * cols + x.
+     */
+    private static final long[] CELLS = new long[Board.MASK_CELLS];
+
+    /**
+     * Key of each piece type any catalogue can hold.
+     */
+    private static final long[] PIECES = new long[PieceCatalogue.MAX_PIECES];
+
+    static {
+        for (int i = 0; i < CELLS.length; i++) {
+            CELLS[i] = mix(CELL_SEED, i);
+        }
+        for (int i = 0; i < PIECES.length; i++) {
+            PIECES[i] = mix(PIECE_SEED, i);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Get the key of a cell.
+     *
+     * @param cell : cell index, y * cols + x.
+     * @return key.
+     */
+    public static long cell(int cell) {
+        return cell < CELLS.length ? CELLS[cell] : mix(CELL_SEED, cell);
+    }
+
+    /**
+     * Get the key of a cell holding a value. Empty cells have key 0, so the hash of an empty board is 0 and changing a
+     * cell XORs out the key of its old value and XORs in the key of its new one.
+     *
+     * @param cell  : cell index, y * cols + x.
+     * @param value : value held, 0 for empty.
+     * @return key.
+     */
+    public static long value(int cell, int value) {
+        return value == 0 ? 0 : mix(cell(cell), value);
+    }
+
+    /**
+     * Get the key of a piece type.
+     *
+     * @param piece : piece type.
+     * @return key.
+     */
+    public static long piece(int piece) {
+        return PIECES[piece];
+    }
+
+    /**
+     * Derives a key from a seed and index.
+     *
+     * @param seed  : seed of the key sequence.
+     * @param index : cell or piece index.
+     * @return key.
+     */
+    private static long mix(long seed, int index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Hashes an occupancy mask from scratch.
+     *
+     * @param mask : occupancy mask, bit y * cols + x.
+     * @return XOR of the keys of every set cell.
+     */
+    public static long hash(long mask) {
+        long hash = 0;
+        while (mask != 0) {
+            hash ^= CELLS[Long.numberOfTrailingZeros(mask)];
+            mask &= mask - 1;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,119 @@
+package uk.ac.soton.comp1206.engine.bench;
+
+import uk.ac.soton.comp1206.engine.Board;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+
+/**
+ * Measures the cost of placements and line clears as the board grows.
+ * <p>
+ * For each board size, random placements are attempted until the given number have been played, restarting from an
+ * empty board whenever one fills up. Then a row and a column are repeatedly filled and cleared by playing a single
+ * block where they cross. A placement should cost the same on every size, and a clear should grow with rows + cols
+ * only, so the clear cost per line cell stays flat.
+ * <p>
+ * Usage: BoardBenchmark [placements] [seed] [size...]
+ */
+public class BoardBenchmark {
+
+    /**
+     * Sizes benchmarked by default.
+     */
+    private static final int[] SIZES = {10, 50, 200};
+
+    /**
+     * Type of the single block piece.
+     */
+    private static final int DOT = 3;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args : optional number of placements, seed and board sizes.
+     */
+    public static void main(String[] args) {
+        int placements = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int[] sizes = SIZES;
+        if (args.length > 2) {
+            sizes = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                sizes[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%d placements per size%n", placements);
+        System.out.printf("%9s %16s %14s %12s %16s%n", "size", "placements/sec", "ns/placement", "ns/clear", "ns/line cell");
+        for (int size : sizes) {
+            //Warm up on the same size, then measure
+            place(size, placements / 10, seed);
+            clear(size, placements / 100);
+            double placeNanos = place(size, placements, seed);
+            int clears = Math.max(1, placements / size);
+            double clearNanos = clear(size, clears);
+
+            System.out.printf("%9s %16.0f %14.1f %12.0f %16.2f%n", size + "x" + size, 1e9 / placeNanos, placeNanos,
+                    clearNanos, clearNanos / (2 * size - 1));
+        }
+    }
+
+    /**
+     * Plays random placements.
+     *
+     * @param size  : columns and rows of the board.
+     * @param count : number of placements to play.
+     * @param seed  : seed of the pieces and placements.
+     * @return nanoseconds per placement, including failed attempts.
+     */
+    private static double place(int size, int count, long seed) {
+        SeededPieceSource random = new SeededPieceSource(seed);
+        GameEngine engine = new GameEngine(size, size, new SeededPieceSource(seed));
+        engine.reset(0, 0);
+        engine.nextPiece(true);
+
+        long start = System.nanoTime();
+        int played = 0;
+        int failed = 0;
+        while (played < count) {
+            if (engine.play(random.nextInt(size), random.nextInt(size))) {
+                played++;
+                failed = 0;
+                engine.nextPiece(false);
+            } else if (++failed == 100) {
+                engine.getBoard().clear();
+                failed = 0;
+            }
+        }
+        return (System.nanoTime() - start) / (double) count;
+    }
+
+    /**
+     * Fills and clears the middle row and column.
+     *
+     * @param size  : columns and rows of the board.
+     * @param count : number of clears.
+     * @return nanoseconds per fill and clear.
+     */
+    private static double clear(int size, int count) {
+        GameEngine engine = new GameEngine(size, size, new SeededPieceSource(0));
+        engine.reset(0, 0);
+        engine.setCurrentPiece(GamePiece.createPiece(DOT));
+        Board board = engine.getBoard();
+        int middle = size / 2;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            for (int cell = 0; cell < size; cell++) {
+                if (cell == middle) continue;
+                board.set(cell, middle, 1);
+                board.set(middle, cell, 1);
+            }
+            engine.setMultiplier(1);
+            if (!engine.play(middle, middle) || engine.getLastClear().getLineCount() != 2) {
+                throw new IllegalStateException("Expected a row and column to clear");
+            }
+        }
+        return (System.nanoTime() - start) / (double) count;
+    }
+}
@@ -0,0 +1,97 @@
+package uk.ac.soton.comp1206.engine.bench;
+
+import uk.ac.soton.comp1206.engine.EngineFrame;
+import uk.ac.soton.comp1206.engine.EngineThread;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+
+/**
+ * Measures the throughput of an EngineThread with no UI attached.
+ * <p>
+ * Games of the given size are started on a logic thread and fed random placements, rotations and swaps until the
+ * given number of commands have been applied, starting a new game whenever one ends. Reports the commands applied per
+ * second of logic thread time, which is the budget left for rendering, and per second of wall clock time, which
+ * includes queueing and publishing frames.
+ * <p>
+ * Usage: EngineBenchmark [commands] [seed] [size]
+ */
+public class EngineBenchmark {
+
+    /**
+     * Commands queued to a game before waiting for them to be applied.
+     */
+    private static final int BATCH = 100;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args : optional number of commands, seed and board size.
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        //Warm up, then measure
+        run(count / 10, seed, size);
+        long start = System.nanoTime();
+        long[] result = run(count, seed, size);
+        double wall = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d commands on %dx%d in %d games, %d placements%n", result[0], size, size, result[3],
+                result[2]);
+        System.out.printf("%14s %14s %14s%n", "cmds/busy sec", "cmds/wall sec", "ns/command");
+        System.out.printf("%14.0f %14.0f %14.1f%n", result[0] / (result[1] / 1e9), result[0] / wall,
+                result[1] / (double) result[0]);
+    }
+
+    /**
+     * Plays games on logic threads.
+     *
+     * @param count : number of commands to apply.
+     * @param seed  : seed of the pieces and commands.
+     * @param size  : columns and rows of the board.
+     * @return commands applied, busy nanoseconds, placements and games played.
+     */
+    private static long[] run(int count, long seed, int size) {
+        SeededPieceSource random = new SeededPieceSource(seed);
+        long applied = 0;
+        long busy = 0;
+        long placements = 0;
+        long games = 0;
+
+        while (applied < count) {
+            GameEngine engine = new GameEngine(size, size, new SeededPieceSource(seed + games));
+            engine.reset(0, 3);
+            engine.nextPiece(true);
+            games++;
+
+            boolean over = false;
+            EngineThread thread = new EngineThread(engine);
+            while (!over && applied + thread.getCommandCount() < count) {
+                for (int i = 0; i < BATCH; i++) {
+                    switch (random.nextInt(8)) {
+                        case 0 -> thread.rotate(false);
+                        case 1 -> thread.swap();
+                        default -> thread.place(random.nextInt(size), random.nextInt(size));
+                    }
+                }
+                //Keep the backlog to one batch, so few commands are queued after the game ends
+                while (thread.getPendingCount() > 0) {
+                    Thread.onSpinWait();
+                }
+
+                //Drain frames as a UI would
+                EngineFrame frame;
+                while ((frame = thread.poll()) != null) {
+                    if (frame.getAction() == EngineFrame.PLACE) placements++;
+                    if (frame.getAction() == EngineFrame.GAME_OVER) over = true;
+                }
+            }
+            thread.close();
+            applied += thread.getCommandCount();
+            busy += thread.getBusyNanos();
+        }
+        return new long[]{applied, busy, placements, games};
+    }
+}
@@ -0,0 +1,119 @@
+package uk.ac.soton.comp1206.engine.bench;
+
+import uk.ac.soton.comp1206.engine.PacingRule;
+import uk.ac.soton.comp1206.engine.sim.GameResult;
+import uk.ac.soton.comp1206.engine.sim.GreedyStrategy;
+import uk.ac.soton.comp1206.engine.sim.ReactionTime;
+import uk.ac.soton.comp1206.engine.sim.ResultWriter;
+import uk.ac.soton.comp1206.engine.sim.SimulationResult;
+import uk.ac.soton.comp1206.engine.sim.Simulator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Plays seeded games against candidate pacing rules with players of modelled reaction times, to tune how a game
+ * speeds up with data.
+ * <p>
+ * Every candidate rule is played by every reaction time profile with the greedy strategy, on a pool of the given
+ * number of threads, all available processors by default. Each pairing plays the same seeds, so the rules are compared
+ * on the same piece sequences. A summary line is printed per pairing and every game is streamed to a columnar result
+ * file as it finishes a group, which ResultReader reads back.
+ * <p>
+ * Usage: PacingSweep [games] [seed] [threads] [output]
+ */
+public class PacingSweep {
+
+    /**
+     * Board size played.
+     */
+    private static final int SIZE = 5;
+
+    /**
+     * Most games played and written as one group.
+     */
+    private static final int GROUP = 4096;
+
+    /**
+     * Names of the candidate rules.
+     */
+    private static final String[] RULE_NAMES = {"classic", "linear-1000-500", "linear-1000-250", "linear-2000-500"};
+
+    /**
+     * Candidate rules, the classic rule first.
+     */
+    private static final PacingRule[] RULES = {
+            PacingRule.CLASSIC,
+            PacingRule.linear(1000, 12000, 500, 2500),
+            PacingRule.linear(1000, 12000, 250, 4000),
+            PacingRule.linear(2000, 12000, 500, 2500),
+    };
+
+    /**
+     * Names of the reaction time profiles.
+     */
+    private static final String[] PLAYER_NAMES = {"fast", "typical", "slow"};
+
+    /**
+     * Reaction time profiles.
+     */
+    private static final ReactionTime[] PLAYERS = {
+            new ReactionTime(1500, 0.35),
+            new ReactionTime(2500, 0.45),
+            new ReactionTime(4000, 0.5),
+    };
+
+    /**
+     * Run the sweep.
+     *
+     * @param args : optional games per pairing, seed, number of threads and output file.
+     * @throws IOException : if the results cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        File output = new File(args.length > 3 ? args[3] : "pacing.tsim");
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Simulator simulator = new Simulator(SIZE, SIZE);
+        System.out.printf("%d games per pairing on %dx%d, %d threads, writing %s%n", games, SIZE, SIZE, threads, output);
+        System.out.printf("%-16s %-20s %8s %8s %8s %8s %10s %10s%n",
+                "rule", "player", "p10", "p50", "p90", "level", "minutes", "timeouts");
+
+        long start = System.nanoTime();
+        try (ResultWriter writer = new ResultWriter(new FileOutputStream(output))) {
+            for (int rule = 0; rule < RULES.length; rule++) {
+                simulator.setPacing(RULES[rule]);
+                for (int player = 0; player < PLAYERS.length; player++) {
+                    simulator.setReaction(PLAYERS[player]);
+                    String label = RULE_NAMES[rule] + " " + PLAYER_NAMES[player] + " " + PLAYERS[player];
+
+                    List<GameResult> all = new ArrayList<>(games);
+                    for (int first = 0; first < games; first += GROUP) {
+                        SimulationResult group = simulator.run(Math.min(GROUP, games - first), seed + first,
+                                GreedyStrategy::new, pool);
+                        writer.write(label, group.getGames());
+                        all.addAll(group.getGames());
+                    }
+
+                    SimulationResult result = new SimulationResult(all, 0, -1);
+                    System.out.printf("%-16s %-20s %8d %8d %8d %8.1f %10.2f %10.2f%n", RULE_NAMES[rule],
+                            PLAYER_NAMES[player] + " " + PLAYERS[player], result.getScorePercentile(10),
+                            result.getScorePercentile(50), result.getScorePercentile(90), result.getMeanLevel(),
+                            result.getMeanMillis() / 60000, result.getTimeouts() / (double) Math.max(1, games));
+                }
+            }
+        }
+        pool.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int played = games * RULES.length * PLAYERS.length;
+        System.out.printf("%d games in %.1f s, %.0f games/sec, %d bytes written%n", played, seconds, played / seconds,
+                output.length());
+    }
+}
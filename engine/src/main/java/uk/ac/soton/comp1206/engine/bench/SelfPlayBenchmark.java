@@ -0,0 +1,95 @@
+package uk.ac.soton.comp1206.engine.bench;
+
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.sim.GreedyStrategy;
+import uk.ac.soton.comp1206.engine.sim.RandomStrategy;
+import uk.ac.soton.comp1206.engine.sim.SimulationResult;
+import uk.ac.soton.comp1206.engine.sim.Simulator;
+import uk.ac.soton.comp1206.engine.sim.SolverStrategy;
+import uk.ac.soton.comp1206.engine.sim.Strategy;
+import uk.ac.soton.comp1206.engine.solver.HealthEvaluator;
+import uk.ac.soton.comp1206.engine.solver.Solver;
+import uk.ac.soton.comp1206.engine.solver.TranspositionTable;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+
+/**
+ * Plays seeded games headless with a simulated player and reports games per second, placements per second, the
+ * spread of final scores and the allocation rate.
+ * <p>
+ * The strategy is random, greedy or solver. A tenth of the games are played first to warm up, then every game is
+ * played on a pool of the given number of threads, all available processors by default. The same arguments play the
+ * same games, so the throughput can be compared before and after an engine change, and a long run is a steady load to
+ * profile.
+ * <p>
+ * Usage: SelfPlayBenchmark [strategy] [games] [seed] [threads] [depth]
+ */
+public class SelfPlayBenchmark {
+
+    /**
+     * Board size played.
+     */
+    private static final int SIZE = 5;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args : optional strategy, number of games, seed, number of threads and solver depth.
+     */
+    public static void main(String[] args) {
+        String name = args.length > 0 ? args[0] : "greedy";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        LongFunction<Strategy> strategies = strategies(name, depth, pool);
+        Simulator simulator = new Simulator(SIZE, SIZE);
+
+        simulator.run(Math.max(1, games / 10), seed, strategies, pool);
+        SimulationResult result = simulator.run(games, seed, strategies, pool);
+        pool.shutdown();
+
+        System.out.printf("%s on %dx%d, %d games, %d threads, %d placements, %d lines, %d stopped at %d turns%n",
+                name, SIZE, SIZE, games, threads, result.getPlacements(), result.getLines(), result.getUnfinished(),
+                Simulator.DEFAULT_MAX_TURNS);
+        System.out.printf("%12s %16s %10s%n", "games/sec", "placements/sec", "ms");
+        System.out.printf("%12.0f %16.0f %10.0f%n", result.getGamesPerSecond(), result.getPlacementsPerSecond(),
+                result.getNanos() / 1e6);
+        System.out.printf("%8s %8s %8s %8s %8s %8s %10s%n", "min", "p10", "p50", "p90", "p99", "max", "mean");
+        System.out.printf("%8d %8d %8d %8d %8d %8d %10.1f%n", result.getScorePercentile(0),
+                result.getScorePercentile(10), result.getScorePercentile(50), result.getScorePercentile(90),
+                result.getScorePercentile(99), result.getScorePercentile(100), result.getMeanScore());
+        if (result.getAllocatedBytes() >= 0) {
+            System.out.printf("%14s %16s%n", "alloc MB/sec", "bytes/placement");
+            System.out.printf("%14.1f %16.0f%n", result.getAllocationRate() / 1e6,
+                    result.getAllocatedBytes() / (double) Math.max(1, result.getPlacements()));
+        }
+    }
+
+    /**
+     * Creates the strategies of a benchmark.
+     *
+     * @param name  : random, greedy or solver.
+     * @param depth : search depth of the solver.
+     * @param pool  : pool the games run on, which the solver searches on too.
+     * @return strategy for each game seed.
+     */
+    private static LongFunction<Strategy> strategies(String name, int depth, ForkJoinPool pool) {
+        switch (name) {
+            case "random":
+                return RandomStrategy::new;
+            case "greedy":
+                return GreedyStrategy::new;
+            case "solver":
+                Solver solver = new Solver(SIZE, SIZE, PieceCatalogue.STANDARD, ScoringRule.CLASSIC,
+                        new HealthEvaluator(SIZE, SIZE), pool, new TranspositionTable(TranspositionTable.DEFAULT_BITS));
+                return gameSeed -> new SolverStrategy(solver, depth);
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + name + ", expected random, greedy or solver");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package uk.ac.soton.comp1206.engine.bench;
+
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+import uk.ac.soton.comp1206.engine.solver.HealthEvaluator;
+import uk.ac.soton.comp1206.engine.solver.Solution;
+import uk.ac.soton.comp1206.engine.solver.Solver;
+import uk.ac.soton.comp1206.engine.solver.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures Solver throughput in positions per second for increasing numbers of threads.
+ * <p>
+ * A fixed set of mid-game positions is generated by random play from a seed, then solved once to warm up and once
+ * timed at each thread count from 1 up to the number of available processors, without and with a transposition
+ * table. The table is cleared before each timed run. Positions served from the table are not counted as searched, so
+ * solves per second is the fair comparison between the two.
+ * <p>
+ * Usage: SolverBenchmark [depth] [positions] [seed]
+ */
+public class SolverBenchmark {
+
+    /**
+     * Board size benchmarked.
+     */
+    private static final int SIZE = 5;
+
+    /**
+     * Run the benchmark.
+     *
+     * @param args : optional search depth, number of positions and seed.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+
+        List<long[]> positions = generate(count, seed);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Depth %d, %d positions, %d processors%n", depth, count, cores);
+        System.out.printf("%8s %6s %14s %10s %16s %12s %8s%n",
+                "threads", "table", "positions", "ms", "positions/sec", "solves/sec", "speedup");
+
+        double base = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            for (boolean cached : new boolean[]{false, true}) {
+                TranspositionTable table = cached ? new TranspositionTable(TranspositionTable.DEFAULT_BITS) : null;
+                Solver solver = new Solver(SIZE, SIZE, PieceCatalogue.STANDARD, ScoringRule.CLASSIC, new HealthEvaluator(SIZE, SIZE), pool,
+                        table);
+
+                run(solver, positions, depth);
+                if (table != null) {
+                    table.clear();
+                }
+                long start = System.nanoTime();
+                long searched = run(solver, positions, depth);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                double solves = count / seconds;
+                if (base == 0) {
+                    base = solves;
+                }
+                System.out.printf("%8d %6s %14d %10.0f %16.0f %12.1f %7.2fx%n", threads, cached ? "on" : "off",
+                        searched, seconds * 1000, searched / seconds, solves, solves / base);
+            }
+            pool.shutdown();
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Solves every position.
+     *
+     * @param solver    : solver to use.
+     * @param positions : positions to solve.
+     * @param depth     : search depth.
+     * @return number of positions searched.
+     */
+    private static long run(Solver solver, List<long[]> positions, int depth) {
+        long searched = 0;
+        for (long[] position : positions) {
+            Solution solution = solver.solve(position[0], (int) position[1], (int) position[2], 1, depth);
+            if (solution != null) {
+                searched += solution.getPositions();
+            }
+        }
+        return searched;
+    }
+
+    /**
+     * Generates positions by playing random legal placements, restarting whenever the board fills up.
+     *
+     * @param count : number of positions.
+     * @param seed  : seed of the pieces and placements.
+     * @return positions as occupancy, current piece and next piece.
+     */
+    private static List<long[]> generate(int count, long seed) {
+        SeededPieceSource random = new SeededPieceSource(seed);
+        GameEngine engine = new GameEngine(SIZE, SIZE, new SeededPieceSource(seed));
+        engine.reset(0, 0);
+        engine.nextPiece(true);
+
+        List<long[]> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            positions.add(new long[]{engine.getBoard().getOccupied(),
+                    engine.getCurrentPiece().getType(), engine.getNextPiece().getType()});
+
+            boolean placed = false;
+            for (int attempt = 0; attempt < 100 && !placed; attempt++) {
+                placed = engine.play(random.nextInt(SIZE), random.nextInt(SIZE));
+            }
+            if (!placed) {
+                engine.getBoard().clear();
+            }
+            engine.nextPiece(false);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,262 @@
+package uk.ac.soton.comp1206.engine.event;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers the events of one game to any number of subscribers, each on an executor of its own.
+ * <p>
+ * Events are written into a preallocated ring of GameEvent slots, so publishing allocates nothing. The publisher
+ * claims the next slot, fills it and publishes it; each subscriber keeps its own position in the ring and copies
+ * events out of it on its executor, so a subscriber on the UI thread, one playing audio and one sending to a server
+ * all see every event in order without waiting on each other.
+ * <p>
+ * The publisher never waits for subscribers. A subscriber that falls a whole ring behind skips to the oldest event
+ * still held and counts the events it missed, rather than holding up play. Each slot carries the sequence number it
+ * was published with, written before and after the slot is filled, so a subscriber can tell when a slot it was copying
+ * has been reused and discard the copy.
+ * <p>
+ * Events must be published from one thread at a time. Subscribing and unsubscribing may happen from any thread.
+ */
+public class EventBus {
+
+    /**
+     * Number of events held by default.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Executor delivering on the publishing thread, before publish returns.
+     */
+    public static final Executor DIRECT = Runnable::run;
+
+    /**
+     * Sequence of a slot that is being written.
+     */
+    private static final long WRITING = -1;
+
+    /**
+     * Ring of events, indexed by sequence and mask.
+     */
+    private final Slot[] slots;
+
+    /**
+     * Capacity minus one, the capacity being a power of two.
+     */
+    private final int mask;
+
+    /**
+     * Number of columns of the board the events are for.
+     */
+    private final int cols;
+
+    /**
+     * Number of rows of the board the events are for.
+     */
+    private final int rows;
+
+    /**
+     * Sequence of the latest published event, -1 before the first.
+     */
+    private final AtomicLong published = new AtomicLong(-1);
+
+    /**
+     * Sequence of the latest claimed event, only touched by the publisher.
+     */
+    private long claimed = -1;
+
+    /**
+     * Subscribers, replaced as a whole when one is added or removed so publishing can read it without locking.
+     */
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    /**
+     * Create a bus for a board of the given size holding DEFAULT_CAPACITY events.
+     *
+     * @param cols : number of columns of the board.
+     * @param rows : number of rows of the board.
+     */
+    public EventBus(int cols, int rows) {
+        this(cols, rows, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a bus for a board of the given size.
+     *
+     * @param cols     : number of columns of the board.
+     * @param rows     : number of rows of the board.
+     * @param capacity : number of events held, a power of two.
+     */
+    public EventBus(int cols, int rows, int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event bus capacity must be a power of two, not " + capacity);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.mask = capacity - 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(new GameEvent(cols, rows));
+        }
+    }
+
+    /**
+     * Claims the next slot for an event. It is filled through its setters and delivered once published.
+     *
+     * @param type : type of the event.
+     * @return event to fill.
+     * @throws IllegalStateException if an event is already claimed and not published.
+     */
+    public GameEvent claim(int type) {
+        if (claimed != published.get()) {
+            throw new IllegalStateException("Event " + claimed + " was claimed and not published");
+        }
+        long sequence = ++claimed;
+        Slot slot = slots[(int) sequence & mask];
+        slot.sequence = WRITING;
+        //The slot is marked as being written before any of it changes
+        VarHandle.storeStoreFence();
+        slot.event.reset(type, sequence);
+        return slot.event;
+    }
+
+    /**
+     * Publishes the claimed event and hands it to the subscribers for its type.
+     *
+     * @throws IllegalStateException if no event is claimed.
+     */
+    public void publish() {
+        long sequence = claimed;
+        if (sequence == published.get()) {
+            throw new IllegalStateException("No event is claimed");
+        }
+        Slot slot = slots[(int) sequence & mask];
+        slot.sequence = sequence;
+        published.set(sequence);
+
+        int bit = 1 << slot.event.getType();
+        for (Subscription subscription : subscriptions) {
+            if ((subscription.getTypes() & bit) != 0) {
+                subscription.signal();
+            }
+        }
+    }
+
+    /**
+     * Subscribes a listener to events of the given types, delivered on an executor. Each subscription gets every
+     * event of its types in order, one at a time.
+     *
+     * @param executor : executor to deliver on, DIRECT for the publishing thread.
+     * @param listener : listener to deliver to.
+     * @param types    : types of event to deliver, or none for all.
+     * @return the subscription, which can be closed.
+     */
+    public Subscription subscribe(Executor executor, GameEventListener listener, int... types) {
+        int mask = 0;
+        for (int type : types) {
+            mask |= 1 << type;
+        }
+        if (types.length == 0) {
+            mask = (1 << GameEvent.TYPES) - 1;
+        }
+        Subscription subscription = new Subscription(this, executor, listener, mask, new GameEvent(cols, rows),
+                published.get() + 1);
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] added = Arrays.copyOf(current, current.length + 1);
+            added[current.length] = subscription;
+            subscriptions = added;
+        }
+        return subscription;
+    }
+
+    /**
+     * Removes a subscription.
+     *
+     * @param subscription : subscription to remove.
+     */
+    synchronized void unsubscribe(Subscription subscription) {
+        Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                Subscription[] removed = new Subscription[current.length - 1];
+                System.arraycopy(current, 0, removed, 0, i);
+                System.arraycopy(current, i + 1, removed, i, current.length - i - 1);
+                subscriptions = removed;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the sequence of the latest published event.
+     *
+     * @return sequence, -1 before the first event.
+     */
+    public long getPublished() {
+        return published.get();
+    }
+
+    /**
+     * Gets the number of events held.
+     *
+     * @return capacity.
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Gets the number of subscribers.
+     *
+     * @return subscription count.
+     */
+    public int getSubscriberCount() {
+        return subscriptions.length;
+    }
+
+    /**
+     * Copies a published event, checking the slot has not been reused while copying.
+     *
+     * @param sequence : sequence of the event, already published.
+     * @param target   : event to copy into.
+     * @return true if the copy holds the event, false if it was overwritten.
+     */
+    boolean read(long sequence, GameEvent target) {
+        Slot slot = slots[(int) sequence & mask];
+        if (slot.sequence != sequence) {
+            return false;
+        }
+        target.copyFrom(slot.event);
+        //The copy is finished before the sequence is checked again
+        VarHandle.loadLoadFence();
+        return slot.sequence == sequence;
+    }
+
+    /**
+     * An event of the ring with the sequence it was last published with.
+     */
+    private static final class Slot {
+
+        /**
+         * The event, reused for every sequence landing on this slot.
+         */
+        private final GameEvent event;
+
+        /**
+         * Sequence the event was published with, or WRITING while it is filled.
+         */
+        private volatile long sequence = WRITING;
+
+        /**
+         * Create a slot.
+         *
+         * @param event : event of the slot.
+         */
+        private Slot(GameEvent event) {
+            this.event = event;
+        }
+    }
+}
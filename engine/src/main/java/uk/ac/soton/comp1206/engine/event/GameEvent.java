@@ -0,0 +1,363 @@
+package uk.ac.soton.comp1206.engine.event;
+
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.LineClear;
+
+/**
+ * Something that happened in a game, with the state of the game when it happened.
+ * <p>
+ * Events are slots of an EventBus's ring and are reused: the publisher fills the slot it claims, and each subscriber
+ * is handed its own copy, which it may read until its listener returns. Nothing is allocated per event, so cleared
+ * lines are held in arrays sized to the board when the bus is created.
+ */
+public final class GameEvent {
+
+    /**
+     * The current and next piece changed, at the start of a turn or after an undo.
+     */
+    public static final int PIECES = 0;
+
+    /**
+     * The current and next piece were swapped.
+     */
+    public static final int SWAP = 1;
+
+    /**
+     * The current piece was rotated.
+     */
+    public static final int ROTATE = 2;
+
+    /**
+     * The current piece was played on the board.
+     */
+    public static final int PLACE = 3;
+
+    /**
+     * The current piece did not fit where it was played.
+     */
+    public static final int REJECT = 4;
+
+    /**
+     * Lines were cleared by a placement.
+     */
+    public static final int CLEAR = 5;
+
+    /**
+     * Neither piece fits anywhere, so the turn is about to end.
+     */
+    public static final int STUCK = 6;
+
+    /**
+     * The turn ended without a placement and a life was lost.
+     */
+    public static final int TIMEOUT = 7;
+
+    /**
+     * The game is over.
+     */
+    public static final int GAME_OVER = 8;
+
+    /**
+     * Number of event types.
+     */
+    public static final int TYPES = 9;
+
+    private int type;
+    private long sequence;
+    private long time;
+    private int x;
+    private int y;
+    private int rotation;
+    private GamePiece currentPiece;
+    private GamePiece nextPiece;
+    private int score;
+    private int multiplier;
+    private int level;
+    private int lives;
+
+    /**
+     * Indices of the cleared rows, the first rowCount are in use.
+     */
+    private final int[] rows;
+
+    /**
+     * Indices of the cleared columns, the first colCount are in use.
+     */
+    private final int[] cols;
+
+    private int rowCount;
+    private int colCount;
+    private int cellCount;
+
+    /**
+     * Create an event for a board of the given size.
+     *
+     * @param cols : number of columns of the board.
+     * @param rows : number of rows of the board.
+     */
+    GameEvent(int cols, int rows) {
+        this.rows = new int[rows];
+        this.cols = new int[cols];
+    }
+
+    /**
+     * Empty this event for a new publication.
+     *
+     * @param type     : type of the event.
+     * @param sequence : position of the event on the bus.
+     */
+    void reset(int type, long sequence) {
+        this.type = type;
+        this.sequence = sequence;
+        this.time = System.nanoTime();
+        x = 0;
+        y = 0;
+        rotation = 0;
+        currentPiece = null;
+        nextPiece = null;
+        score = 0;
+        multiplier = 0;
+        level = 0;
+        lives = 0;
+        rowCount = 0;
+        colCount = 0;
+        cellCount = 0;
+    }
+
+    /**
+     * Make this event a copy of another for the same board size. Reads only within the arrays of both, so a copy torn
+     * by the publisher reusing the slot is harmless and is discarded by the bus.
+     *
+     * @param other : event to copy.
+     */
+    void copyFrom(GameEvent other) {
+        type = other.type;
+        sequence = other.sequence;
+        time = other.time;
+        x = other.x;
+        y = other.y;
+        rotation = other.rotation;
+        currentPiece = other.currentPiece;
+        nextPiece = other.nextPiece;
+        score = other.score;
+        multiplier = other.multiplier;
+        level = other.level;
+        lives = other.lives;
+        rowCount = Math.min(other.rowCount, rows.length);
+        colCount = Math.min(other.colCount, cols.length);
+        cellCount = other.cellCount;
+        System.arraycopy(other.rows, 0, rows, 0, rowCount);
+        System.arraycopy(other.cols, 0, cols, 0, colCount);
+    }
+
+    /**
+     * Sets the square and rotation the event happened at.
+     *
+     * @param x        : column of the centre square.
+     * @param y        : row of the centre square.
+     * @param rotation : rotation of the piece.
+     * @return this event.
+     */
+    public GameEvent setPosition(int x, int y, int rotation) {
+        this.x = x;
+        this.y = y;
+        this.rotation = rotation;
+        return this;
+    }
+
+    /**
+     * Sets the state of the game when the event happened.
+     *
+     * @param currentPiece : current piece.
+     * @param nextPiece    : next piece.
+     * @param score        : score.
+     * @param multiplier   : multiplier.
+     * @param level        : level.
+     * @param lives        : lives left.
+     * @return this event.
+     */
+    public GameEvent setState(GamePiece currentPiece, GamePiece nextPiece, int score, int multiplier, int level,
+                              int lives) {
+        this.currentPiece = currentPiece;
+        this.nextPiece = nextPiece;
+        this.score = score;
+        this.multiplier = multiplier;
+        this.level = level;
+        this.lives = lives;
+        return this;
+    }
+
+    /**
+     * Sets the lines cleared, copying them into this event.
+     *
+     * @param clear : cleared lines on a board of the bus's size.
+     * @return this event.
+     */
+    public GameEvent setClear(LineClear clear) {
+        rowCount = Math.min(clear.getRowCount(), rows.length);
+        colCount = Math.min(clear.getColumnCount(), cols.length);
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = clear.getRow(i);
+        }
+        for (int i = 0; i < colCount; i++) {
+            cols[i] = clear.getColumn(i);
+        }
+        cellCount = clear.getCellCount();
+        return this;
+    }
+
+    /**
+     * Gets the type of the event.
+     *
+     * @return one of the type constants.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Gets the position of the event on the bus, counting from 0.
+     *
+     * @return sequence number.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets when the event was published.
+     *
+     * @return System.nanoTime at publication.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the column the event happened at.
+     *
+     * @return column, or 0 if it has no position.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the row the event happened at.
+     *
+     * @return row, or 0 if it has no position.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Gets the rotation of the piece placed or rotated.
+     *
+     * @return quarter turns, 0 to 3.
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Gets the current piece.
+     *
+     * @return current piece, may be null.
+     */
+    public GamePiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    /**
+     * Gets the next piece.
+     *
+     * @return next piece, may be null.
+     */
+    public GamePiece getNextPiece() {
+        return nextPiece;
+    }
+
+    /**
+     * Gets the score.
+     *
+     * @return score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the multiplier.
+     *
+     * @return multiplier.
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Gets the level.
+     *
+     * @return level.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the lives left.
+     *
+     * @return lives.
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Gets the number of cleared rows.
+     *
+     * @return row count.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Gets a cleared row.
+     *
+     * @param index : index of the row, less than getRowCount.
+     * @return row y.
+     */
+    public int getRow(int index) {
+        return rows[index];
+    }
+
+    /**
+     * Gets the number of cleared columns.
+     *
+     * @return column count.
+     */
+    public int getColumnCount() {
+        return colCount;
+    }
+
+    /**
+     * Gets a cleared column.
+     *
+     * @param index : index of the column, less than getColumnCount.
+     * @return column x.
+     */
+    public int getColumn(int index) {
+        return cols[index];
+    }
+
+    /**
+     * Gets the number of cleared cells.
+     *
+     * @return cell count.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+}
@@ -0,0 +1,14 @@
+package uk.ac.soton.comp1206.engine.event;
+
+/**
+ * Listener for events published on an EventBus.
+ */
+public interface GameEventListener {
+
+    /**
+     * Handles an event. The event is only valid until this returns, so anything kept must be copied out.
+     *
+     * @param event : the subscriber's copy of the event.
+     */
+    void onEvent(GameEvent event);
+}
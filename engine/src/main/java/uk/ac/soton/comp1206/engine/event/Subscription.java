@@ -0,0 +1,152 @@
+package uk.ac.soton.comp1206.engine.event;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A listener's place on an EventBus.
+ * <p>
+ * When events arrive and the subscription is idle, a drain is handed to its executor, which delivers every event
+ * published since the last one, in order, through a single reused copy. At most one drain is queued or running at a
+ * time, so the listener is never called concurrently and the executor is not flooded when events arrive in bursts.
+ */
+public final class Subscription implements AutoCloseable {
+
+    /**
+     * Bus the events come from.
+     */
+    private final EventBus bus;
+
+    /**
+     * Executor the listener is called on.
+     */
+    private final Executor executor;
+
+    /**
+     * Listener the events are delivered to.
+     */
+    private final GameEventListener listener;
+
+    /**
+     * Bit set of the event types delivered.
+     */
+    private final int types;
+
+    /**
+     * The subscriber's copy of the event being delivered.
+     */
+    private final GameEvent event;
+
+    /**
+     * Delivers the waiting events, created once so signalling allocates nothing.
+     */
+    private final Runnable drain = this::drain;
+
+    /**
+     * Whether a drain is queued or running.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Sequence of the next event to deliver, only touched by the drain.
+     */
+    private long next;
+
+    /**
+     * Number of events skipped because the subscriber fell a whole ring behind.
+     */
+    private volatile long missed;
+
+    /**
+     * Whether the subscription has been closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Create a subscription. Should not be called directly, only by the bus.
+     *
+     * @param bus      : bus the events come from.
+     * @param executor : executor to deliver on.
+     * @param listener : listener to deliver to.
+     * @param types    : bit set of the event types delivered.
+     * @param event    : copy to deliver through.
+     * @param next     : sequence of the first event to deliver.
+     */
+    Subscription(EventBus bus, Executor executor, GameEventListener listener, int types, GameEvent event, long next) {
+        this.bus = bus;
+        this.executor = executor;
+        this.listener = listener;
+        this.types = types;
+        this.event = event;
+        this.next = next;
+    }
+
+    /**
+     * Gets the bit set of the event types delivered.
+     *
+     * @return bit 1 << type set for each type.
+     */
+    int getTypes() {
+        return types;
+    }
+
+    /**
+     * Queues a drain unless one is already queued or running.
+     */
+    void signal() {
+        if (closed || scheduled.get() || !scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(drain);
+        } catch (RejectedExecutionException e) {
+            //The executor has shut down, so nothing more can be delivered
+            scheduled.set(false);
+        }
+    }
+
+    /**
+     * Delivers every event published since the last drain, then checks for any that arrived meanwhile.
+     */
+    private void drain() {
+        do {
+            try {
+                long end = bus.getPublished();
+                while (!closed && next <= end) {
+                    long sequence = next++;
+                    if (!bus.read(sequence, event)) {
+                        //Lapped by the publisher, skip to the oldest event still held
+                        long oldest = Math.max(next, bus.getPublished() - bus.getCapacity() + 1);
+                        missed += oldest - sequence;
+                        next = oldest;
+                        continue;
+                    }
+                    if ((types & (1 << event.getType())) != 0) {
+                        listener.onEvent(event);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+        } while (!closed && next <= bus.getPublished() && scheduled.compareAndSet(false, true));
+    }
+
+    /**
+     * Gets the number of events this subscriber missed by falling a whole ring behind.
+     *
+     * @return missed event count.
+     */
+    public long getMissed() {
+        return missed;
+    }
+
+    /**
+     * Stops delivering events. A drain already running stops after the event it is delivering.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        bus.unsubscribe(this);
+    }
+}
@@ -0,0 +1,312 @@
+package uk.ac.soton.comp1206.engine.replay;
+
+import uk.ac.soton.comp1206.engine.ScoringRule;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * A recorded game read back from the format described in ReplayFormat.
+ * <p>
+ * Actions are held in parallel primitive arrays: the tag byte, the time since the start of the game and, for
+ * placements, the board cell.
+ */
+public class Replay {
+
+    private final int cols;
+    private final int rows;
+    private final long seed;
+    private final long start;
+    private final int score;
+    private final int lives;
+
+    /**
+     * Rule the game was scored by.
+     */
+    private final ScoringRule scoring;
+
+    /**
+     * Tag byte of each action.
+     */
+    private final byte[] tags;
+
+    /**
+     * Milliseconds from the start of the game to each action.
+     */
+    private final long[] times;
+
+    /**
+     * Board cell of each placement, 0 for other actions.
+     */
+    private final int[] cells;
+
+    private Replay(int cols, int rows, long seed, long start, int score, int lives, ScoringRule scoring, byte[] tags,
+                   long[] times, int[] cells) {
+        this.cols = cols;
+        this.rows = rows;
+        this.seed = seed;
+        this.start = start;
+        this.score = score;
+        this.lives = lives;
+        this.scoring = scoring;
+        this.tags = tags;
+        this.times = times;
+        this.cells = cells;
+    }
+
+    /**
+     * Read a replay file.
+     *
+     * @param file : replay file.
+     * @return the replay.
+     * @throws IOException : if the file cannot be read or is not a replay.
+     */
+    public static Replay read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Read a replay from a stream. A replay cut short, for example by a crash, is read up to its last whole record.
+     *
+     * @param stream : stream positioned at the start of the replay.
+     * @return the replay.
+     * @throws IOException : if the stream cannot be read or is not a replay.
+     */
+    public static Replay read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+
+        byte[] magic = new byte[ReplayFormat.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ReplayFormat.MAGIC)) {
+            throw new IOException("Not a replay");
+        }
+        int version = in.readUnsignedByte();
+        if (version < ReplayFormat.OLDEST_VERSION || version > ReplayFormat.VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+        boolean wide = version >= 3;
+        int cols = wide ? in.readUnsignedShort() : in.readUnsignedByte();
+        int rows = wide ? in.readUnsignedShort() : in.readUnsignedByte();
+        long seed = in.readLong();
+        long start = in.readLong();
+        int score = in.readInt();
+        int lives = in.readUnsignedByte();
+        if (cols == 0 || rows == 0) {
+            throw new IOException("Replay board of " + cols + "x" + rows + " is empty");
+        }
+        ScoringRule scoring = ScoringRule.CLASSIC;
+        if (version >= 4) {
+            int id = in.readUnsignedByte();
+            scoring = ScoringRule.forId(id);
+            if (scoring == null) {
+                throw new IOException("Replay was scored by an unknown rule " + id);
+            }
+        }
+
+        byte[] tags = new byte[256];
+        long[] times = new long[256];
+        int[] cells = new int[256];
+        int count = 0;
+        long time = 0;
+
+        while (true) {
+            int tag = in.read();
+            if (tag < 0) break;
+            try {
+                time += readVarInt(in);
+                int cell = 0;
+                if ((tag & ReplayFormat.ACTION_MASK) == ReplayFormat.PLACE) {
+                    cell = wide ? readVarInt(in) : in.readUnsignedByte();
+                }
+                if (count == tags.length) {
+                    tags = Arrays.copyOf(tags, count * 2);
+                    times = Arrays.copyOf(times, count * 2);
+                    cells = Arrays.copyOf(cells, count * 2);
+                }
+                tags[count] = (byte) tag;
+                times[count] = time;
+                cells[count] = cell;
+                count++;
+            } catch (EOFException e) {
+                //Truncated final record
+                break;
+            }
+        }
+
+        return new Replay(cols, rows, seed, start, score, lives, scoring, Arrays.copyOf(tags, count),
+                Arrays.copyOf(times, count), Arrays.copyOf(cells, count));
+    }
+
+    /**
+     * Read an unsigned LEB128 varint.
+     *
+     * @param in : stream to read from.
+     * @return value.
+     * @throws IOException : if the stream ends mid value.
+     */
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    /**
+     * Get the number of recorded actions.
+     *
+     * @return action count
+     */
+    public int length() {
+        return tags.length;
+    }
+
+    /**
+     * Get the action of a record, one of the action constants in ReplayFormat.
+     *
+     * @param index record index
+     * @return action
+     */
+    public int getAction(int index) {
+        return tags[index] & ReplayFormat.ACTION_MASK;
+    }
+
+    /**
+     * Get the argument of a record: the rotation of a placement, or 1 for a left rotation.
+     *
+     * @param index record index
+     * @return argument
+     */
+    public int getArgument(int index) {
+        return (tags[index] & 0xff) >>> ReplayFormat.ARGUMENT_SHIFT;
+    }
+
+    /**
+     * Get the column of a placement.
+     *
+     * @param index record index
+     * @return column
+     */
+    public int getX(int index) {
+        return cells[index] % cols;
+    }
+
+    /**
+     * Get the row of a placement.
+     *
+     * @param index record index
+     * @return row
+     */
+    public int getY(int index) {
+        return cells[index] / cols;
+    }
+
+    /**
+     * Get the time of a record.
+     *
+     * @param index record index
+     * @return milliseconds from the start of the game
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * Get the total duration of the recorded actions.
+     *
+     * @return milliseconds from the start of the game to the last action
+     */
+    public long getDuration() {
+        return times.length == 0 ? 0 : times[times.length - 1];
+    }
+
+    /**
+     * Find the number of actions recorded up to a time.
+     *
+     * @param time milliseconds from the start of the game
+     * @return number of actions at or before the time
+     */
+    public int countUntil(long time) {
+        int index = Arrays.binarySearch(times, time);
+        if (index < 0) {
+            return -index - 1;
+        }
+        //Include every action at exactly this time
+        while (index < times.length && times[index] == time) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Get the number of columns of the recorded board.
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows of the recorded board.
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the seed of the recorded piece sequence.
+     *
+     * @return seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the wall clock time the game started.
+     *
+     * @return milliseconds since the epoch
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Get the score the game started with.
+     *
+     * @return starting score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the lives the game started with.
+     *
+     * @return starting lives
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Get the rule the game was scored by.
+     *
+     * @return scoring rule
+     */
+    public ScoringRule getScoring() {
+        return scoring;
+    }
+}
@@ -0,0 +1,73 @@
+package uk.ac.soton.comp1206.engine.replay;
+
+/**
+ * Constants describing the binary replay format.
+ * <p>
+ * A replay starts with a header: the MAGIC bytes, a VERSION byte, the board's columns and rows as 2 bytes each, the
+ * seed of the piece sequence as 8 bytes, the wall clock start time in milliseconds as 8 bytes, then the starting score
+ * as 4 bytes, starting lives as one byte and the id of the ScoringRule as one byte. All multi-byte values are big
+ * endian.
+ * <p>
+ * The header is followed by one record per action. A record starts with a tag byte holding the action in its low 3
+ * bits and an argument in the 2 bits above them: the piece's rotation for a placement, 1 for a left rotation. The tag
+ * is followed by the milliseconds since the previous record as an unsigned LEB128 varint, and for a placement the
+ * board cell index y * cols + x as another varint.
+ * <p>
+ * Version 3 replays, which have no scoring rule and were all scored by the classic rule, can still be read, as can
+ * version 2 replays, which also stored the columns, rows and cell index as single bytes.
+ */
+public final class ReplayFormat {
+
+    /**
+     * Bytes every replay file starts with.
+     */
+    public static final byte[] MAGIC = {'T', 'R', 'P', 'L'};
+
+    /**
+     * Version of the format written.
+     */
+    public static final int VERSION = 4;
+
+    /**
+     * Oldest version that can still be read.
+     */
+    public static final int OLDEST_VERSION = 2;
+
+    /**
+     * A piece played on the board.
+     */
+    public static final int PLACE = 1;
+
+    /**
+     * Current and next piece swapped.
+     */
+    public static final int SWAP = 2;
+
+    /**
+     * Current piece rotated.
+     */
+    public static final int ROTATE = 3;
+
+    /**
+     * Turn timer ran out.
+     */
+    public static final int TIMEOUT = 4;
+
+    /**
+     * Mask of the action bits of a tag.
+     */
+    public static final int ACTION_MASK = 0x7;
+
+    /**
+     * Shift of the argument bits of a tag.
+     */
+    public static final int ARGUMENT_SHIFT = 3;
+
+    /**
+     * File extension of replays.
+     */
+    public static final String EXTENSION = ".trp";
+
+    private ReplayFormat() {
+    }
+}
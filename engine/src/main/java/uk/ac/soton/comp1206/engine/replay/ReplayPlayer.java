@@ -0,0 +1,202 @@
+package uk.ac.soton.comp1206.engine.replay;
+
+import uk.ac.soton.comp1206.engine.EngineSnapshot;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+
+/**
+ * Plays a Replay back through a GameEngine.
+ * <p>
+ * While loading, the whole replay is simulated once and a snapshot of the engine is kept every KEYFRAME_INTERVAL
+ * actions. Seeking restores the nearest keyframe at or before the target and re-simulates at most
+ * KEYFRAME_INTERVAL - 1 actions, so any point of a long game can be reached immediately.
+ */
+public class ReplayPlayer {
+
+    /**
+     * Number of actions between keyframes.
+     */
+    public static final int KEYFRAME_INTERVAL = 32;
+
+    /**
+     * The replay being played.
+     */
+    private final Replay replay;
+
+    /**
+     * Engine the actions are applied to.
+     */
+    private final GameEngine engine;
+
+    /**
+     * Snapshot of the engine before action i * KEYFRAME_INTERVAL.
+     */
+    private final EngineSnapshot[] keyframes;
+
+    /**
+     * Whether the game had ended at each keyframe, as the snapshots do not hold it.
+     */
+    private final boolean[] keyframeOver;
+
+    /**
+     * Number of actions applied so far.
+     */
+    private int position;
+
+    /**
+     * Whether the recorded game has ended.
+     */
+    private boolean over;
+
+    /**
+     * Create a player for a replay and build its keyframes. The engine is left at the start of the game.
+     *
+     * @param replay : replay to play.
+     */
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.engine = new GameEngine(replay.getCols(), replay.getRows(), new SeededPieceSource(replay.getSeed()));
+        this.keyframes = new EngineSnapshot[replay.length() / KEYFRAME_INTERVAL + 1];
+        this.keyframeOver = new boolean[keyframes.length];
+        engine.setScoring(replay.getScoring());
+
+        engine.reset(replay.getScore(), replay.getLives());
+        engine.nextPiece(true);
+
+        while (position < replay.length()) {
+            if (position % KEYFRAME_INTERVAL == 0) {
+                keyframe();
+            }
+            step();
+        }
+        if (position % KEYFRAME_INTERVAL == 0) {
+            keyframe();
+        }
+        seek(0);
+    }
+
+    /**
+     * Keep a keyframe of the current position.
+     */
+    private void keyframe() {
+        keyframes[position / KEYFRAME_INTERVAL] = engine.snapshot();
+        keyframeOver[position / KEYFRAME_INTERVAL] = over;
+    }
+
+    /**
+     * Apply the next recorded action.
+     *
+     * @return the action applied, or 0 at the end of the replay.
+     */
+    public int step() {
+        if (position >= replay.length()) {
+            return 0;
+        }
+        int action = replay.getAction(position);
+        switch (action) {
+            case ReplayFormat.PLACE -> {
+                engine.play(replay.getX(position), replay.getY(position));
+                engine.nextPiece(false);
+            }
+            case ReplayFormat.SWAP -> engine.swap();
+            case ReplayFormat.ROTATE -> engine.rotate(replay.getArgument(position) == 1);
+            case ReplayFormat.TIMEOUT -> {
+                if (engine.timeout()) {
+                    engine.nextPiece(false);
+                } else {
+                    over = true;
+                }
+            }
+        }
+        position++;
+        return action;
+    }
+
+    /**
+     * Move to the state after the given number of actions.
+     *
+     * @param target : number of actions applied, clamped to the replay's length.
+     */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, replay.length()));
+        if (target < position || target / KEYFRAME_INTERVAL > position / KEYFRAME_INTERVAL) {
+            int keyframe = target / KEYFRAME_INTERVAL;
+            engine.restore(keyframes[keyframe]);
+            position = keyframe * KEYFRAME_INTERVAL;
+            over = keyframeOver[keyframe];
+        }
+        while (position < target) {
+            step();
+        }
+    }
+
+    /**
+     * Move to the state at a point in time.
+     *
+     * @param time : milliseconds from the start of the game.
+     */
+    public void seekTime(long time) {
+        seek(replay.countUntil(time));
+    }
+
+    /**
+     * Apply every remaining action as fast as possible.
+     */
+    public void fastForward() {
+        seek(replay.length());
+    }
+
+    /**
+     * Get the engine the replay is applied to.
+     *
+     * @return engine.
+     */
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Get the replay being played.
+     *
+     * @return replay.
+     */
+    public Replay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Get the number of actions applied so far.
+     *
+     * @return position.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Get the time of the last applied action.
+     *
+     * @return milliseconds from the start of the game.
+     */
+    public long getTime() {
+        return position == 0 ? 0 : replay.getTime(position - 1);
+    }
+
+    /**
+     * Checks whether every action has been applied.
+     *
+     * @return true at the end of the replay.
+     */
+    public boolean isFinished() {
+        return position >= replay.length();
+    }
+
+    /**
+     * Checks whether the recorded game has ended at the current position.
+     *
+     * @return true once the final timeout has been applied.
+     */
+    public boolean isOver() {
+        return over;
+    }
+}
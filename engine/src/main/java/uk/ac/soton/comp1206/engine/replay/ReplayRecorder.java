@@ -0,0 +1,252 @@
+package uk.ac.soton.comp1206.engine.replay;
+
+import uk.ac.soton.comp1206.engine.ScoringRule;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the actions of a game to the compact binary format described in ReplayFormat.
+ * <p>
+ * Records are encoded into a small in-memory chunk on the calling thread. Full chunks are handed to a background
+ * writer thread, so the thread playing the game never waits on the disk. Recording methods are meant to be called
+ * from a single thread, the one applying the actions.
+ */
+public class ReplayRecorder implements AutoCloseable {
+
+    /**
+     * Size of a chunk handed to the writer.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Largest encoded record: tag, 5 byte varint and 5 byte cell varint.
+     */
+    private static final int MAX_RECORD = 11;
+
+    /**
+     * Stream the replay is written to, only used by the writer thread.
+     */
+    private final OutputStream out;
+
+    /**
+     * Background thread writing chunks in order.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * Number of columns of the recorded board, used to encode cells.
+     */
+    private final int cols;
+
+    /**
+     * Chunk being filled.
+     */
+    private byte[] chunk = new byte[CHUNK_SIZE];
+
+    /**
+     * Number of bytes used in the chunk.
+     */
+    private int length;
+
+    /**
+     * Time of the previous record, from System.nanoTime.
+     */
+    private long lastTime;
+
+    /**
+     * Whether the recorder has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Create a recorder writing a new replay file in the given directory.
+     *
+     * @param directory : directory for replays, created if missing.
+     * @param seed      : seed of the game's piece sequence.
+     * @param cols      : columns of the board.
+     * @param rows      : rows of the board.
+     * @param score     : score at the start of the game.
+     * @param lives     : lives at the start of the game.
+     * @param scoring   : rule the game is scored by.
+     * @return recorder.
+     * @throws IOException : if the file cannot be created.
+     */
+    public static ReplayRecorder create(File directory, long seed, int cols, int rows, int score, int lives,
+                                        ScoringRule scoring) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create " + directory);
+        }
+        long start = System.currentTimeMillis();
+        File file = new File(directory, "replay-" + start + ReplayFormat.EXTENSION);
+        return new ReplayRecorder(new FileOutputStream(file), seed, cols, rows, start, score, lives, scoring);
+    }
+
+    /**
+     * Create a recorder writing to the given stream and write the header.
+     *
+     * @param out     : stream to write to, closed with the recorder.
+     * @param seed    : seed of the game's piece sequence.
+     * @param cols    : columns of the board.
+     * @param rows    : rows of the board.
+     * @param start   : wall clock time the game started, in milliseconds.
+     * @param score   : score at the start of the game.
+     * @param lives   : lives at the start of the game.
+     * @param scoring : rule the game is scored by. A custom rule is recorded, but the replay cannot be read back.
+     */
+    public ReplayRecorder(OutputStream out, long seed, int cols, int rows, long start, int score, int lives,
+                          ScoringRule scoring) {
+        this.out = new BufferedOutputStream(out);
+        this.cols = cols;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replay-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (byte b : ReplayFormat.MAGIC) {
+            chunk[length++] = b;
+        }
+        chunk[length++] = (byte) ReplayFormat.VERSION;
+        chunk[length++] = (byte) (cols >>> 8);
+        chunk[length++] = (byte) cols;
+        chunk[length++] = (byte) (rows >>> 8);
+        chunk[length++] = (byte) rows;
+        putLong(seed);
+        putLong(start);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            chunk[length++] = (byte) (score >>> shift);
+        }
+        chunk[length++] = (byte) lives;
+        chunk[length++] = (byte) ScoringRule.idOf(scoring);
+        lastTime = System.nanoTime();
+    }
+
+    /**
+     * Record a piece played on the board.
+     *
+     * @param x        : column of the centre square.
+     * @param y        : row of the centre square.
+     * @param rotation : rotation of the piece, 0 to 3.
+     */
+    public void place(int x, int y, int rotation) {
+        if (!record(ReplayFormat.PLACE, rotation)) return;
+        putVarInt(y * cols + x);
+    }
+
+    /**
+     * Record the current and next piece being swapped.
+     */
+    public void swap() {
+        record(ReplayFormat.SWAP, 0);
+    }
+
+    /**
+     * Record the current piece being rotated.
+     *
+     * @param left : direction of rotation.
+     */
+    public void rotate(boolean left) {
+        record(ReplayFormat.ROTATE, left ? 1 : 0);
+    }
+
+    /**
+     * Record the turn timer running out.
+     */
+    public void timeout() {
+        record(ReplayFormat.TIMEOUT, 0);
+    }
+
+    /**
+     * Write everything recorded so far and close the file. Returns once the writer has finished.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        handOff();
+        writer.submit(() -> {
+            try {
+                out.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encode a record's tag and time delta, handing the chunk off first if it might not fit.
+     *
+     * @param action   : action of the record.
+     * @param argument : 2 bit argument of the record.
+     * @return false if the recorder is closed and nothing was written.
+     */
+    private boolean record(int action, int argument) {
+        if (closed) return false;
+        if (length + MAX_RECORD > CHUNK_SIZE) {
+            handOff();
+        }
+        long now = System.nanoTime();
+        long delta = TimeUnit.NANOSECONDS.toMillis(now - lastTime);
+        lastTime = now;
+
+        chunk[length++] = (byte) (action | (argument << ReplayFormat.ARGUMENT_SHIFT));
+        putVarInt((int) Math.min(delta, Integer.MAX_VALUE));
+        return true;
+    }
+
+    /**
+     * Pass the current chunk to the writer thread and start a new one.
+     */
+    private void handOff() {
+        if (length == 0) return;
+        byte[] full = chunk;
+        int size = length;
+        chunk = new byte[CHUNK_SIZE];
+        length = 0;
+        writer.submit(() -> {
+            try {
+                out.write(full, 0, size);
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Append an unsigned LEB128 varint to the chunk.
+     *
+     * @param value : non negative value.
+     */
+    private void putVarInt(int value) {
+        while ((value & ~0x7f) != 0) {
+            chunk[length++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        chunk[length++] = (byte) value;
+    }
+
+    /**
+     * Append a big endian long to the chunk.
+     *
+     * @param value : value to append.
+     */
+    private void putLong(long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            chunk[length++] = (byte) (value >>> shift);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package uk.ac.soton.comp1206.engine.save;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps a save file up to date with a running game without blocking the thread playing it.
+ * <p>
+ * A SavedGame is immutable, so the playing thread only has to capture one and hand it over. A background writer
+ * thread encodes it, writes it to a temporary file beside the save, forces it to disk and renames it over the save in
+ * one atomic step, so a crash at any point leaves either the previous save or the new one, never a partial file.
+ * Saves handed over faster than the disk keeps up are coalesced, and only the latest is written.
+ */
+public class Autosaver implements AutoCloseable {
+
+    /**
+     * File the game is saved to.
+     */
+    private final Path file;
+
+    /**
+     * Temporary file each save is written to before being renamed over the save.
+     */
+    private final Path temporary;
+
+    /**
+     * Background thread writing saves in order.
+     */
+    private final ExecutorService writer;
+
+    /**
+     * Latest save not yet written, null once the writer has taken it.
+     */
+    private final AtomicReference<SavedGame> pending = new AtomicReference<>();
+
+    /**
+     * Whether the autosaver has been closed.
+     */
+    private boolean closed;
+
+    /**
+     * Create an autosaver for the given save file.
+     *
+     * @param file : file to keep the game in. Its directory is created if missing.
+     */
+    public Autosaver(File file) {
+        this.file = file.toPath().toAbsolutePath();
+        this.temporary = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autosave-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Hand over a save to be written in the background.
+     *
+     * @param game : state to save.
+     */
+    public void save(SavedGame game) {
+        if (closed) return;
+        if (pending.getAndSet(game) == null) {
+            writer.submit(this::writePending);
+        }
+    }
+
+    /**
+     * Delete the save, for when the game it holds has ended. Saves handed over before are dropped.
+     */
+    public void discard() {
+        if (closed) return;
+        pending.set(null);
+        writer.submit(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Write any save still pending and stop the writer. Returns once the writer has finished.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Write the latest save handed over, if the writer has not already written it.
+     */
+    private void writePending() {
+        SavedGame game = pending.getAndSet(null);
+        if (game == null) return;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            game.write(bytes);
+            Files.createDirectories(file.getParent());
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package uk.ac.soton.comp1206.engine.save;
+
+import uk.ac.soton.comp1206.engine.EngineSnapshot;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * An in-progress game that can be written to a small binary file and resumed later.
+ * <p>
+ * Holds the seed of the piece sequence, an EngineSnapshot of the board, pieces, score, multiplier, level, lives and
+ * sequence position, the time left on the turn timer and the rule the game is scored by. The file starts with the
+ * MAGIC bytes and a VERSION byte, then the board's columns and rows as 2 bytes each, the seed and the piece sequence
+ * state as 8 bytes each, the score, multiplier, level, lives and turn time left as 4 bytes each, the id of the
+ * ScoringRule as a byte, the piece number and rotation of the current and next pieces as a byte each, -1 for no
+ * piece, and finally one byte per cell value indexed by y * cols + x. All multi-byte values are big endian, so a
+ * standard game saves to 75 bytes.
+ * <p>
+ * Version 1 saves, which have no scoring rule and were all scored by the classic rule, can still be read.
+ */
+public final class SavedGame {
+
+    /**
+     * Bytes every save file starts with.
+     */
+    public static final byte[] MAGIC = {'T', 'S', 'A', 'V'};
+
+    /**
+     * Version of the format written.
+     */
+    public static final int VERSION = 2;
+
+    /**
+     * Oldest version that can still be read.
+     */
+    public static final int OLDEST_VERSION = 1;
+
+    /**
+     * File extension of saved games.
+     */
+    public static final String EXTENSION = ".tsav";
+
+    /**
+     * Number of columns of the board.
+     */
+    private final int cols;
+
+    /**
+     * Number of rows of the board.
+     */
+    private final int rows;
+
+    /**
+     * Seed of the piece sequence.
+     */
+    private final long seed;
+
+    /**
+     * State of the engine.
+     */
+    private final EngineSnapshot snapshot;
+
+    /**
+     * Milliseconds left on the turn timer.
+     */
+    private final int time;
+
+    /**
+     * Pieces the game is played with.
+     */
+    private final PieceCatalogue catalogue;
+
+    /**
+     * Rule the game is scored by.
+     */
+    private final ScoringRule scoring;
+
+    /**
+     * Capture a game being played by an engine.
+     *
+     * @param engine : engine playing the game.
+     * @param seed   : seed of the engine's piece sequence.
+     * @param time   : milliseconds left on the turn timer.
+     */
+    public SavedGame(GameEngine engine, long seed, int time) {
+        this(engine.getBoard().getCols(), engine.getBoard().getRows(), seed, engine.snapshot(), time,
+                engine.getCatalogue(), engine.getScoring());
+    }
+
+    /**
+     * Create a saved game from its parts.
+     *
+     * @param cols      : number of columns.
+     * @param rows      : number of rows.
+     * @param seed      : seed of the piece sequence.
+     * @param snapshot  : state of the engine.
+     * @param time      : milliseconds left on the turn timer.
+     * @param catalogue : pieces the game is played with.
+     * @param scoring   : rule the game is scored by.
+     */
+    private SavedGame(int cols, int rows, long seed, EngineSnapshot snapshot, int time, PieceCatalogue catalogue,
+                      ScoringRule scoring) {
+        this.cols = cols;
+        this.rows = rows;
+        this.seed = seed;
+        this.snapshot = snapshot;
+        this.time = time;
+        this.catalogue = catalogue;
+        this.scoring = scoring;
+    }
+
+    /**
+     * Read a saved game of the standard pieces from a file.
+     *
+     * @param file : file to read.
+     * @return the saved game.
+     * @throws IOException : if the file cannot be read or is not a saved game.
+     */
+    public static SavedGame read(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            return read(in, PieceCatalogue.STANDARD);
+        }
+    }
+
+    /**
+     * Read a saved game from a stream.
+     *
+     * @param stream    : stream positioned at the start of the save.
+     * @param catalogue : pieces the game was played with.
+     * @return the saved game.
+     * @throws IOException : if the stream cannot be read or is not a valid saved game.
+     */
+    public static SavedGame read(InputStream stream, PieceCatalogue catalogue) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not a saved game");
+        }
+        int version = in.readUnsignedByte();
+        if (version < OLDEST_VERSION || version > VERSION) {
+            throw new IOException("Unsupported save version " + version);
+        }
+        int cols = in.readUnsignedShort();
+        int rows = in.readUnsignedShort();
+        if (cols == 0 || rows == 0) {
+            throw new IOException("Saved board of " + cols + "x" + rows + " is empty");
+        }
+        long seed = in.readLong();
+        long pieceState = in.readLong();
+        int score = in.readInt();
+        int multiplier = in.readInt();
+        int level = in.readInt();
+        int lives = in.readInt();
+        int time = in.readInt();
+        ScoringRule scoring = ScoringRule.CLASSIC;
+        if (version >= 2) {
+            int id = in.readUnsignedByte();
+            scoring = ScoringRule.forId(id);
+            if (scoring == null) {
+                throw new IOException("Saved game was scored by an unknown rule " + id);
+            }
+        }
+        GamePiece current = readPiece(in, catalogue);
+        GamePiece next = readPiece(in, catalogue);
+
+        byte[] cells = new byte[cols * rows];
+        in.readFully(cells);
+        for (byte value : cells) {
+            if (value < 0 || value > catalogue.size()) {
+                throw new IOException("Saved cell value " + value + " is not a piece");
+            }
+        }
+
+        EngineSnapshot snapshot = new EngineSnapshot(cells, score, multiplier, level, lives, current, next,
+                pieceState);
+        return new SavedGame(cols, rows, seed, snapshot, time, catalogue, scoring);
+    }
+
+    /**
+     * Read a piece number and rotation.
+     *
+     * @param in        : stream to read from.
+     * @param catalogue : pieces the game was played with.
+     * @return the piece, or null if there was none.
+     * @throws IOException : if the piece is not in the catalogue.
+     */
+    private static GamePiece readPiece(DataInputStream in, PieceCatalogue catalogue) throws IOException {
+        int type = in.readByte();
+        int rotation = in.readByte();
+        if (type == -1) {
+            return null;
+        }
+        if (type < 0 || type >= catalogue.size() || rotation < 0 || rotation > 3) {
+            throw new IOException("Saved piece " + type + " in rotation " + rotation + " is not in the catalogue");
+        }
+        return catalogue.getPiece(type, rotation);
+    }
+
+    /**
+     * Write this game in the save format. The stream is flushed but not closed.
+     *
+     * @param stream : stream to write to.
+     * @throws IOException : if the stream cannot be written.
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(cols);
+        out.writeShort(rows);
+        out.writeLong(seed);
+        out.writeLong(snapshot.getPieceState());
+        out.writeInt(snapshot.getScore());
+        out.writeInt(snapshot.getMultiplier());
+        out.writeInt(snapshot.getLevel());
+        out.writeInt(snapshot.getLives());
+        out.writeInt(time);
+        out.writeByte(ScoringRule.idOf(scoring));
+        writePiece(out, snapshot.getCurrentPiece());
+        writePiece(out, snapshot.getNextPiece());
+        for (int cell = 0; cell < cols * rows; cell++) {
+            out.writeByte(snapshot.getCell(cell));
+        }
+        out.flush();
+    }
+
+    /**
+     * Write a piece number and rotation.
+     *
+     * @param out   : stream to write to.
+     * @param piece : piece to write, may be null.
+     * @throws IOException : if the stream cannot be written.
+     */
+    private static void writePiece(DataOutputStream out, GamePiece piece) throws IOException {
+        out.writeByte(piece == null ? -1 : piece.getType());
+        out.writeByte(piece == null ? -1 : piece.getRotation());
+    }
+
+    /**
+     * Create an engine continuing this game from where it was saved.
+     *
+     * @return engine in the saved state.
+     */
+    public GameEngine createEngine() {
+        GameEngine engine = new GameEngine(cols, rows, new SeededPieceSource(seed, catalogue), catalogue);
+        engine.setScoring(scoring);
+        engine.restore(snapshot);
+        return engine;
+    }
+
+    /**
+     * Get the number of columns of the board.
+     *
+     * @return columns.
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows of the board.
+     *
+     * @return rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the seed of the piece sequence.
+     *
+     * @return seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the state of the engine.
+     *
+     * @return engine snapshot.
+     */
+    public EngineSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Get the milliseconds that were left on the turn timer.
+     *
+     * @return turn time left.
+     */
+    public int getTime() {
+        return time;
+    }
+
+    /**
+     * Get the rule the game is scored by.
+     *
+     * @return scoring rule.
+     */
+    public ScoringRule getScoring() {
+        return scoring;
+    }
+}
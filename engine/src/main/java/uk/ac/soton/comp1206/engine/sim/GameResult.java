@@ -0,0 +1,143 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+/**
+ * The outcome of one simulated game.
+ */
+public final class GameResult {
+
+    /**
+     * Seed of the game's pieces.
+     */
+    private final long seed;
+
+    /**
+     * Final score.
+     */
+    private final int score;
+
+    /**
+     * Final level.
+     */
+    private final int level;
+
+    /**
+     * Number of pieces placed.
+     */
+    private final int placements;
+
+    /**
+     * Number of lines cleared.
+     */
+    private final int lines;
+
+    /**
+     * Number of turns ended without a placement.
+     */
+    private final int timeouts;
+
+    /**
+     * Time the game lasted, from the player's reaction times and the turns timed out.
+     */
+    private final long millis;
+
+    /**
+     * Whether the game was over, rather than stopped at the turn limit.
+     */
+    private final boolean over;
+
+    /**
+     * Create a result.
+     *
+     * @param seed       : seed of the game's pieces.
+     * @param score      : final score.
+     * @param level      : final level.
+     * @param placements : number of pieces placed.
+     * @param lines      : number of lines cleared.
+     * @param timeouts   : number of turns ended without a placement.
+     * @param millis     : time the game lasted, 0 if reaction times are not modelled.
+     * @param over       : whether the game was over.
+     */
+    public GameResult(long seed, int score, int level, int placements, int lines, int timeouts, long millis,
+                      boolean over) {
+        this.seed = seed;
+        this.score = score;
+        this.level = level;
+        this.placements = placements;
+        this.lines = lines;
+        this.timeouts = timeouts;
+        this.millis = millis;
+        this.over = over;
+    }
+
+    /**
+     * Gets the seed of the game's pieces.
+     *
+     * @return seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the final score.
+     *
+     * @return score.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the final level.
+     *
+     * @return level.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the number of pieces placed.
+     *
+     * @return placements.
+     */
+    public int getPlacements() {
+        return placements;
+    }
+
+    /**
+     * Gets the number of lines cleared.
+     *
+     * @return lines.
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * Gets the number of turns ended without a placement, each costing a life.
+     *
+     * @return timeouts.
+     */
+    public int getTimeouts() {
+        return timeouts;
+    }
+
+    /**
+     * Gets the time the game lasted, the sum of the player's time on each turn.
+     *
+     * @return milliseconds, 0 if reaction times are not modelled.
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Checks whether the game was played to the end, rather than stopped at the turn limit.
+     *
+     * @return true if the game was over.
+     */
+    public boolean isOver() {
+        return over;
+    }
+}
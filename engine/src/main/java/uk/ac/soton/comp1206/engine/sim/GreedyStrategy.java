@@ -0,0 +1,89 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import uk.ac.soton.comp1206.engine.EngineSnapshot;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.MoveIndex;
+import uk.ac.soton.comp1206.engine.PlacementTable;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+import uk.ac.soton.comp1206.engine.solver.Solution;
+
+/**
+ * Plays the legal move scoring the most points straight away, breaking ties at random.
+ * <p>
+ * Each legal move is tried on a scratch engine restored from a snapshot of the game, so the points come from the
+ * same rules and scoring the game is played by, on boards of any size. It looks no further than the move itself,
+ * which makes it the baseline the Solver's look ahead is measured against.
+ */
+public class GreedyStrategy implements Strategy {
+
+    /**
+     * Source of the tie breaks.
+     */
+    private final SeededPieceSource random;
+
+    /**
+     * Engine the moves are tried on, created for the first game played.
+     */
+    private GameEngine trial;
+
+    /**
+     * Create a strategy breaking ties with the given seed.
+     *
+     * @param seed : seed of the tie breaks.
+     */
+    public GreedyStrategy(long seed) {
+        this.random = new SeededPieceSource(seed);
+    }
+
+    /**
+     * Chooses the legal move scoring the most points.
+     *
+     * @param engine : engine with a current and next piece.
+     * @return move to play, or null if neither piece fits anywhere.
+     */
+    @Override
+    public Solution choose(GameEngine engine) {
+        MoveIndex moves = engine.getMoves();
+        int cols = engine.getBoard().getCols();
+        int rows = engine.getBoard().getRows();
+        if (trial == null || trial.getBoard().getCols() != cols || trial.getBoard().getRows() != rows
+                || trial.getCatalogue() != engine.getCatalogue()) {
+            trial = new GameEngine(cols, rows, new SeededPieceSource(0, engine.getCatalogue()), engine.getCatalogue());
+        }
+        if (trial.getScoring() != engine.getScoring()) {
+            //Setting the rule rebuilds the score table, so only when it changes
+            trial.setScoring(engine.getScoring());
+        }
+        EngineSnapshot start = engine.snapshot();
+
+        int chosen = -1;
+        int best = -1;
+        int ties = 0;
+        for (int swap = 0; swap < 2; swap++) {
+            GamePiece piece = swap == 0 ? engine.getCurrentPiece() : engine.getNextPiece();
+            for (int rotation = 0; rotation < PlacementTable.ROTATIONS; rotation++) {
+                GamePiece rotated = piece.rotate(rotation - piece.getRotation());
+                for (int y = 0; y < rows; y++) {
+                    for (int x = 0; x < cols; x++) {
+                        if (!moves.isLegal(rotated, x, y)) continue;
+                        trial.restore(start);
+                        trial.setCurrentPiece(rotated);
+                        trial.play(x, y);
+                        int points = trial.getScore() - start.getScore();
+                        if (points > best) {
+                            best = points;
+                            ties = 0;
+                        } else if (points < best) {
+                            continue;
+                        }
+                        if (random.nextInt(++ties) == 0) {
+                            chosen = ((swap * PlacementTable.ROTATIONS + rotation) * rows + y) * cols + x;
+                        }
+                    }
+                }
+            }
+        }
+        return chosen < 0 ? null : RandomStrategy.decode(engine, chosen, best);
+    }
+}
@@ -0,0 +1,82 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.GamePiece;
+import uk.ac.soton.comp1206.engine.MoveIndex;
+import uk.ac.soton.comp1206.engine.PlacementTable;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+import uk.ac.soton.comp1206.engine.solver.Solution;
+
+/**
+ * Plays a legal move chosen uniformly at random, from both pieces and every rotation.
+ * <p>
+ * The legal moves come from the engine's MoveIndex, and the choice is made in one pass by reservoir sampling, so the
+ * only allocation is the returned move. This is the cheapest strategy, which makes it the one to measure the engine
+ * itself with.
+ */
+public class RandomStrategy implements Strategy {
+
+    /**
+     * Source of the random choices.
+     */
+    private final SeededPieceSource random;
+
+    /**
+     * Create a strategy choosing with the given seed.
+     *
+     * @param seed : seed of the choices.
+     */
+    public RandomStrategy(long seed) {
+        this.random = new SeededPieceSource(seed);
+    }
+
+    /**
+     * Chooses a legal move at random.
+     *
+     * @param engine : engine with a current and next piece.
+     * @return move to play, or null if neither piece fits anywhere.
+     */
+    @Override
+    public Solution choose(GameEngine engine) {
+        MoveIndex moves = engine.getMoves();
+        int cols = engine.getBoard().getCols();
+        int rows = engine.getBoard().getRows();
+
+        //Only the move's number is kept while sampling, so the move is allocated once
+        int chosen = -1;
+        int seen = 0;
+        for (int swap = 0; swap < 2; swap++) {
+            GamePiece piece = swap == 0 ? engine.getCurrentPiece() : engine.getNextPiece();
+            for (int rotation = 0; rotation < PlacementTable.ROTATIONS; rotation++) {
+                GamePiece rotated = piece.rotate(rotation - piece.getRotation());
+                for (int y = 0; y < rows; y++) {
+                    for (int x = 0; x < cols; x++) {
+                        if (moves.isLegal(rotated, x, y) && random.nextInt(++seen) == 0) {
+                            chosen = ((swap * PlacementTable.ROTATIONS + rotation) * rows + y) * cols + x;
+                        }
+                    }
+                }
+            }
+        }
+        return chosen < 0 ? null : decode(engine, chosen, 0);
+    }
+
+    /**
+     * Creates the move with the given number.
+     *
+     * @param engine : engine the move is for.
+     * @param move   : ((swap * ROTATIONS + rotation) * rows + y) * cols + x.
+     * @param value  : value of the move.
+     * @return the move.
+     */
+    static Solution decode(GameEngine engine, int move, double value) {
+        int cols = engine.getBoard().getCols();
+        int rows = engine.getBoard().getRows();
+        int x = move % cols;
+        int y = move / cols % rows;
+        int rotation = move / cols / rows % PlacementTable.ROTATIONS;
+        boolean swap = move / cols / rows / PlacementTable.ROTATIONS == 1;
+        int piece = (swap ? engine.getNextPiece() : engine.getCurrentPiece()).getType();
+        return new Solution(swap, piece, rotation, x, y, value, 0);
+    }
+}
@@ -0,0 +1,79 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+
+/**
+ * How long a simulated player takes to make each move, drawn from a log-normal distribution.
+ * <p>
+ * Human reaction and decision times are skewed, with most moves near a typical time and a long tail of slow ones, which
+ * a log-normal models with two numbers: the median time and the spread of its logarithm. A move taking longer than
+ * the turn time is not made, and the turn times out instead.
+ */
+public final class ReactionTime {
+
+    /**
+     * Median time per move, in milliseconds.
+     */
+    private final int median;
+
+    /**
+     * Standard deviation of the natural logarithm of the time.
+     */
+    private final double sigma;
+
+    /**
+     * Create a reaction time distribution.
+     *
+     * @param median : median time per move, in milliseconds.
+     * @param sigma  : spread, the standard deviation of the log of the time. 0 makes every move take the median.
+     */
+    public ReactionTime(int median, double sigma) {
+        if (median < 0 || sigma < 0) {
+            throw new IllegalArgumentException("Reaction time median and spread must not be negative");
+        }
+        this.median = median;
+        this.sigma = sigma;
+    }
+
+    /**
+     * Draws the time of one move.
+     *
+     * @param random : source of the draw.
+     * @return time in milliseconds.
+     */
+    public int sample(SeededPieceSource random) {
+        //Box-Muller, with the first uniform in (0, 1] so its log is finite
+        double u = 1 - (random.nextLong() >>> 11) * 0x1.0p-53;
+        double v = (random.nextLong() >>> 11) * 0x1.0p-53;
+        double gaussian = Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+        return (int) Math.min(Integer.MAX_VALUE, Math.round(median * Math.exp(sigma * gaussian)));
+    }
+
+    /**
+     * Gets the median time per move.
+     *
+     * @return milliseconds.
+     */
+    public int getMedian() {
+        return median;
+    }
+
+    /**
+     * Gets the spread of the distribution.
+     *
+     * @return standard deviation of the log of the time.
+     */
+    public double getSigma() {
+        return sigma;
+    }
+
+    /**
+     * Describes the distribution.
+     *
+     * @return median and spread.
+     */
+    @Override
+    public String toString() {
+        return median + "ms~" + sigma;
+    }
+}
@@ -0,0 +1,139 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads back a result file written by ResultWriter, one group at a time.
+ */
+public class ResultReader implements AutoCloseable {
+
+    /**
+     * Stream the file is read from.
+     */
+    private final DataInputStream in;
+
+    /**
+     * Label of the group last read.
+     */
+    private String label;
+
+    /**
+     * Open a result file on a stream.
+     *
+     * @param stream : stream to read from, closed with the reader.
+     * @throws IOException : if the stream is not a result file of a known version.
+     */
+    public ResultReader(InputStream stream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(stream));
+        byte[] magic = new byte[ResultWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, ResultWriter.MAGIC)) {
+            throw new IOException("Not a simulation result file");
+        }
+        int version = in.readUnsignedByte();
+        if (version != ResultWriter.VERSION) {
+            throw new IOException("Unsupported result version " + version);
+        }
+    }
+
+    /**
+     * Reads the next group of games.
+     *
+     * @return results of the games, or null at the end of the file.
+     * @throws IOException : if the file ends mid group.
+     */
+    public List<GameResult> next() throws IOException {
+        try {
+            label = in.readUTF();
+        } catch (EOFException e) {
+            return null;
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Group " + label + " has " + count + " games");
+        }
+
+        long[] seeds = new long[count];
+        long seed = 0;
+        for (int i = 0; i < count; i++) {
+            seed += readSigned();
+            seeds[i] = seed;
+        }
+        int[] scores = new int[count];
+        for (int i = 0; i < count; i++) {
+            scores[i] = (int) readSigned();
+        }
+        int[][] counts = new int[4][count];
+        for (int[] column : counts) {
+            for (int i = 0; i < count; i++) {
+                column[i] = (int) readUnsigned();
+            }
+        }
+        long[] millis = new long[count];
+        for (int i = 0; i < count; i++) {
+            millis[i] = readUnsigned();
+        }
+        byte[] over = new byte[(count + 7) / 8];
+        in.readFully(over);
+
+        List<GameResult> games = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            games.add(new GameResult(seeds[i], scores[i], counts[0][i], counts[1][i], counts[2][i], counts[3][i],
+                    millis[i], (over[i >> 3] & (1 << (i & 7))) != 0));
+        }
+        return games;
+    }
+
+    /**
+     * Gets the label of the group last read.
+     *
+     * @return label, or null before the first group.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException : if the stream cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads an unsigned LEB128 varint.
+     *
+     * @return value.
+     * @throws IOException : if the stream ends mid value or the value is too long.
+     */
+    private long readUnsigned() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Varint longer than 64 bits");
+    }
+
+    /**
+     * Reads a zigzag encoded LEB128 varint.
+     *
+     * @return value.
+     * @throws IOException : if the stream ends mid value.
+     */
+    private long readSigned() throws IOException {
+        long value = readUnsigned();
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
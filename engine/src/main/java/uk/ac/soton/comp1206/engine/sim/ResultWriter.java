@@ -0,0 +1,132 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Streams simulated game results to a compact columnar file, one labelled group of games at a time.
+ * <p>
+ * The file starts with the MAGIC bytes and a VERSION byte, followed by groups until the end of the file. A group is
+ * its label as modified UTF-8 with a 2 byte length, the number of games as 4 bytes, then one column per field with a
+ * value for every game: the seed as the signed difference from the previous game's seed, the score, level,
+ * placements, lines, timeouts and milliseconds, each as an LEB128 varint (signed ones zigzag encoded), and finally
+ * whether each game was over as a bit set, lowest bit first. Columns of similar numbers compress well, and consecutive
+ * seeds take one byte each, so a game costs around ten bytes.
+ * <p>
+ * Each group is flushed as soon as it is written, so a long sweep can be read while it runs. ResultReader reads the
+ * file back.
+ */
+public class ResultWriter implements AutoCloseable {
+
+    /**
+     * Bytes every result file starts with.
+     */
+    public static final byte[] MAGIC = {'T', 'S', 'I', 'M'};
+
+    /**
+     * Version of the format written.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Stream the file is written to.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Start a result file on a stream.
+     *
+     * @param stream : stream to write to, closed with the writer.
+     * @throws IOException : if the header cannot be written.
+     */
+    public ResultWriter(OutputStream stream) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.flush();
+    }
+
+    /**
+     * Writes a group of games and flushes it.
+     *
+     * @param label : label of the group, such as the pacing rule and reaction time played.
+     * @param games : results of the games.
+     * @throws IOException : if the group cannot be written.
+     */
+    public void write(String label, List<GameResult> games) throws IOException {
+        out.writeUTF(label);
+        out.writeInt(games.size());
+
+        long seed = 0;
+        for (GameResult game : games) {
+            writeSigned(game.getSeed() - seed);
+            seed = game.getSeed();
+        }
+        for (GameResult game : games) {
+            writeSigned(game.getScore());
+        }
+        for (GameResult game : games) {
+            writeUnsigned(game.getLevel());
+        }
+        for (GameResult game : games) {
+            writeUnsigned(game.getPlacements());
+        }
+        for (GameResult game : games) {
+            writeUnsigned(game.getLines());
+        }
+        for (GameResult game : games) {
+            writeUnsigned(game.getTimeouts());
+        }
+        for (GameResult game : games) {
+            writeUnsigned(game.getMillis());
+        }
+        int bits = 0;
+        for (int i = 0; i < games.size(); i++) {
+            if (games.get(i).isOver()) {
+                bits |= 1 << (i & 7);
+            }
+            if ((i & 7) == 7 || i == games.size() - 1) {
+                out.writeByte(bits);
+                bits = 0;
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Flushes and closes the file.
+     *
+     * @throws IOException : if the stream cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Writes a non negative value as an unsigned LEB128 varint.
+     *
+     * @param value : value, at least 0.
+     * @throws IOException : if the value cannot be written.
+     */
+    private void writeUnsigned(long value) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            out.writeByte((int) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Writes a value as a zigzag encoded LEB128 varint, so small negative values stay short.
+     *
+     * @param value : value.
+     * @throws IOException : if the value cannot be written.
+     */
+    private void writeSigned(long value) throws IOException {
+        writeUnsigned((value << 1) ^ (value >> 63));
+    }
+}
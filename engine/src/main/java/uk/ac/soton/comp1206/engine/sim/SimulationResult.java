@@ -0,0 +1,208 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a batch of simulated games: each game's result, how long the batch took and how much it allocated.
+ */
+public final class SimulationResult {
+
+    /**
+     * Results of the games, in order of seed.
+     */
+    private final List<GameResult> games;
+
+    /**
+     * Wall clock time taken to play the games.
+     */
+    private final long nanos;
+
+    /**
+     * Bytes allocated by every thread while the games were played, or -1 if the JVM does not measure it.
+     */
+    private final long allocated;
+
+    /**
+     * Final scores of the games, ascending.
+     */
+    private final int[] scores;
+
+    /**
+     * Create a result.
+     *
+     * @param games     : results of the games.
+     * @param nanos     : wall clock time taken.
+     * @param allocated : bytes allocated, or -1 if unknown.
+     */
+    public SimulationResult(List<GameResult> games, long nanos, long allocated) {
+        this.games = Collections.unmodifiableList(games);
+        this.nanos = nanos;
+        this.allocated = allocated;
+        this.scores = new int[games.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = games.get(i).getScore();
+        }
+        Arrays.sort(scores);
+    }
+
+    /**
+     * Gets the results of the games.
+     *
+     * @return game results, in order of seed.
+     */
+    public List<GameResult> getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the total number of pieces placed.
+     *
+     * @return placements.
+     */
+    public long getPlacements() {
+        long placements = 0;
+        for (GameResult game : games) {
+            placements += game.getPlacements();
+        }
+        return placements;
+    }
+
+    /**
+     * Gets the total number of lines cleared.
+     *
+     * @return lines.
+     */
+    public long getLines() {
+        long lines = 0;
+        for (GameResult game : games) {
+            lines += game.getLines();
+        }
+        return lines;
+    }
+
+    /**
+     * Gets the total number of turns ended without a placement.
+     *
+     * @return timeouts.
+     */
+    public long getTimeouts() {
+        long timeouts = 0;
+        for (GameResult game : games) {
+            timeouts += game.getTimeouts();
+        }
+        return timeouts;
+    }
+
+    /**
+     * Gets the mean final level.
+     *
+     * @return mean level, or 0 if no games were played.
+     */
+    public double getMeanLevel() {
+        double total = 0;
+        for (GameResult game : games) {
+            total += game.getLevel();
+        }
+        return games.isEmpty() ? 0 : total / games.size();
+    }
+
+    /**
+     * Gets the mean time the games lasted.
+     *
+     * @return milliseconds, 0 if reaction times are not modelled.
+     */
+    public double getMeanMillis() {
+        double total = 0;
+        for (GameResult game : games) {
+            total += game.getMillis();
+        }
+        return games.isEmpty() ? 0 : total / games.size();
+    }
+
+    /**
+     * Gets the number of games stopped at the turn limit before they were over.
+     *
+     * @return unfinished games.
+     */
+    public int getUnfinished() {
+        int unfinished = 0;
+        for (GameResult game : games) {
+            if (!game.isOver()) unfinished++;
+        }
+        return unfinished;
+    }
+
+    /**
+     * Gets the wall clock time taken to play the games.
+     *
+     * @return nanoseconds.
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Gets the games played per second of wall clock time.
+     *
+     * @return games per second.
+     */
+    public double getGamesPerSecond() {
+        return games.size() / (nanos / 1e9);
+    }
+
+    /**
+     * Gets the pieces placed per second of wall clock time.
+     *
+     * @return placements per second.
+     */
+    public double getPlacementsPerSecond() {
+        return getPlacements() / (nanos / 1e9);
+    }
+
+    /**
+     * Gets a percentile of the final scores, by the nearest rank.
+     *
+     * @param percentile : percentile from 0 to 100.
+     * @return score, or 0 if no games were played.
+     */
+    public int getScorePercentile(double percentile) {
+        if (scores.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * scores.length);
+        return scores[Math.max(0, Math.min(scores.length - 1, rank - 1))];
+    }
+
+    /**
+     * Gets the mean final score.
+     *
+     * @return mean score, or 0 if no games were played.
+     */
+    public double getMeanScore() {
+        double total = 0;
+        for (int score : scores) {
+            total += score;
+        }
+        return scores.length == 0 ? 0 : total / scores.length;
+    }
+
+    /**
+     * Gets the bytes allocated while the games were played, by every thread.
+     *
+     * @return bytes, or -1 if the JVM does not measure it.
+     */
+    public long getAllocatedBytes() {
+        return allocated;
+    }
+
+    /**
+     * Gets the bytes allocated per second of wall clock time.
+     *
+     * @return bytes per second, or -1 if the JVM does not measure it.
+     */
+    public double getAllocationRate() {
+        return allocated < 0 ? -1 : allocated / (nanos / 1e9);
+    }
+}
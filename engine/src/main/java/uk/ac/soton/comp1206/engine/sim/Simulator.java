@@ -0,0 +1,277 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.PacingRule;
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+import uk.ac.soton.comp1206.engine.solver.Solution;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongFunction;
+
+/**
+ * Plays complete games headless, with a Strategy choosing every move, through the same GameEngine rules the client
+ * plays by.
+ * <p>
+ * Each game is seeded, so the same seed and strategy always play the same game. A turn is a placement, or a timeout
+ * when the strategy finds no move, costing a life as the turn timer would. The game ends when a timeout finds no
+ * lives left, or at a turn limit so that strong strategies still finish. Batches of games are played in parallel on a
+ * ForkJoinPool, one task per game, which is how the throughput of the engine is measured across cores.
+ * <p>
+ * With a ReactionTime set, each move also takes the player a drawn time. A move slower than the turn time, which
+ * follows the PacingRule, is not made and the turn times out instead, so games against a pacing rule last and end as
+ * they would for players of that speed.
+ */
+public class Simulator {
+
+    /**
+     * Lives a simulated game starts with by default.
+     */
+    public static final int DEFAULT_LIVES = 3;
+
+    /**
+     * Turns a simulated game is stopped after by default.
+     */
+    public static final int DEFAULT_MAX_TURNS = 1000;
+
+    /**
+     * Number of columns.
+     */
+    private final int cols;
+
+    /**
+     * Number of rows.
+     */
+    private final int rows;
+
+    /**
+     * Pieces the games are played with.
+     */
+    private final PieceCatalogue catalogue;
+
+    /**
+     * Rule line clears are scored by.
+     */
+    private final ScoringRule scoring;
+
+    /**
+     * Score the games start with.
+     */
+    private int startScore;
+
+    /**
+     * Lives the games start with.
+     */
+    private int lives = DEFAULT_LIVES;
+
+    /**
+     * Turns a game is stopped after.
+     */
+    private int maxTurns = DEFAULT_MAX_TURNS;
+
+    /**
+     * Rule the level and turn time follow.
+     */
+    private PacingRule pacing = PacingRule.CLASSIC;
+
+    /**
+     * Time the player takes per move, null to move instantly.
+     */
+    private ReactionTime reaction;
+
+    /**
+     * Create a simulator for the standard pieces and classic scoring.
+     *
+     * @param cols : number of columns.
+     * @param rows : number of rows.
+     */
+    public Simulator(int cols, int rows) {
+        this(cols, rows, PieceCatalogue.STANDARD, ScoringRule.CLASSIC);
+    }
+
+    /**
+     * Create a simulator.
+     *
+     * @param cols      : number of columns.
+     * @param rows      : number of rows.
+     * @param catalogue : pieces the games are played with.
+     * @param scoring   : rule line clears are scored by.
+     */
+    public Simulator(int cols, int rows, PieceCatalogue catalogue, ScoringRule scoring) {
+        this.cols = cols;
+        this.rows = rows;
+        this.catalogue = catalogue;
+        this.scoring = scoring;
+    }
+
+    /**
+     * Sets the score games start with.
+     *
+     * @param startScore : starting score.
+     */
+    public void setStartScore(int startScore) {
+        this.startScore = startScore;
+    }
+
+    /**
+     * Sets the lives games start with.
+     *
+     * @param lives : starting lives.
+     */
+    public void setLives(int lives) {
+        this.lives = lives;
+    }
+
+    /**
+     * Sets the number of turns a game is stopped after if it is not over.
+     *
+     * @param maxTurns : turn limit, at least 1.
+     */
+    public void setMaxTurns(int maxTurns) {
+        if (maxTurns < 1) {
+            throw new IllegalArgumentException("Turn limit must be at least 1");
+        }
+        this.maxTurns = maxTurns;
+    }
+
+    /**
+     * Sets the rule the level and turn time follow.
+     *
+     * @param pacing : pacing rule.
+     */
+    public void setPacing(PacingRule pacing) {
+        this.pacing = pacing;
+    }
+
+    /**
+     * Sets the time the player takes per move.
+     *
+     * @param reaction : reaction time distribution, null to move instantly and never time out.
+     */
+    public void setReaction(ReactionTime reaction) {
+        this.reaction = reaction;
+    }
+
+    /**
+     * Plays one game on the calling thread.
+     *
+     * @param seed     : seed of the pieces.
+     * @param strategy : strategy choosing the moves.
+     * @return outcome of the game.
+     * @throws IllegalStateException if the strategy chooses a move that does not fit.
+     */
+    public GameResult play(long seed, Strategy strategy) {
+        GameEngine engine = new GameEngine(cols, rows, new SeededPieceSource(seed, catalogue), catalogue);
+        engine.setScoring(scoring);
+        engine.setPacing(pacing);
+        engine.reset(startScore, lives);
+        engine.nextPiece(true);
+        //The player's times are drawn apart from the pieces, so they do not change the piece sequence
+        SeededPieceSource clock = new SeededPieceSource(~seed);
+
+        int placements = 0;
+        int lines = 0;
+        int timeouts = 0;
+        long millis = 0;
+        boolean over = false;
+        for (int turn = 0; turn < maxTurns; turn++) {
+            Solution move = engine.isStuck() ? null : strategy.choose(engine);
+            if (move != null && reaction != null) {
+                int delay = engine.getTimerDelay();
+                int time = reaction.sample(clock);
+                if (time >= delay) {
+                    move = null;
+                    time = delay;
+                }
+                millis += time;
+            }
+            if (move == null) {
+                timeouts++;
+                if (!engine.timeout()) {
+                    over = true;
+                    break;
+                }
+            } else {
+                apply(engine, move);
+                placements++;
+                lines += engine.getLastClear().getLineCount();
+            }
+            engine.nextPiece(false);
+        }
+        return new GameResult(seed, engine.getScore(), engine.getLevel(), placements, lines, timeouts, millis, over);
+    }
+
+    /**
+     * Plays a batch of games in parallel, game i with seed + i, and measures the time and memory they take.
+     *
+     * @param games      : number of games.
+     * @param seed       : seed of the first game.
+     * @param strategies : creates the strategy for a game from its seed.
+     * @param pool       : pool to play the games on.
+     * @return outcome of the batch.
+     */
+    public SimulationResult run(int games, long seed, LongFunction<Strategy> strategies, ForkJoinPool pool) {
+        List<ForkJoinTask<GameResult>> tasks = new ArrayList<>(games);
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            long gameSeed = seed + i;
+            tasks.add(pool.submit(() -> play(gameSeed, strategies.apply(gameSeed))));
+        }
+
+        List<GameResult> results = new ArrayList<>(games);
+        for (ForkJoinTask<GameResult> task : tasks) {
+            results.add(task.join());
+        }
+        long nanos = System.nanoTime() - start;
+        long after = allocatedBytes();
+        return new SimulationResult(results, nanos, allocated < 0 || after < 0 ? -1 : after - allocated);
+    }
+
+    /**
+     * Plays a move: swaps if it is for the next piece, rotates to its rotation and places it.
+     *
+     * @param engine : engine to play on.
+     * @param move   : move chosen by the strategy.
+     */
+    private static void apply(GameEngine engine, Solution move) {
+        if (move.isSwap()) {
+            engine.swap();
+        }
+        while (engine.getCurrentPiece().getRotation() != move.getRotation()) {
+            engine.rotate(false);
+        }
+        if (!engine.play(move.getX(), move.getY())) {
+            throw new IllegalStateException("Strategy chose a move that does not fit: " + move);
+        }
+    }
+
+    /**
+     * Gets the bytes allocated so far by every live thread.
+     *
+     * @return bytes, or -1 if the JVM does not measure it.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,46 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.solver.Solution;
+import uk.ac.soton.comp1206.engine.solver.Solver;
+
+/**
+ * Plays the move found by a Solver searching a fixed number of placements ahead.
+ * <p>
+ * The solver may be shared between games playing at once. When it searches on the pool the games run on, the root
+ * moves of each search are forked onto the worker playing the game, so searches and games share the cores.
+ */
+public class SolverStrategy implements Strategy {
+
+    /**
+     * Solver finding the moves.
+     */
+    private final Solver solver;
+
+    /**
+     * Number of placements to look ahead.
+     */
+    private final int depth;
+
+    /**
+     * Create a strategy playing the solver's moves.
+     *
+     * @param solver : solver for the board size, catalogue and scoring rule played.
+     * @param depth  : number of placements to look ahead, at least 1.
+     */
+    public SolverStrategy(Solver solver, int depth) {
+        this.solver = solver;
+        this.depth = depth;
+    }
+
+    /**
+     * Chooses the solver's best move.
+     *
+     * @param engine : engine with a current and next piece.
+     * @return move to play, or null if neither piece fits anywhere.
+     */
+    @Override
+    public Solution choose(GameEngine engine) {
+        return solver.solve(engine, depth);
+    }
+}
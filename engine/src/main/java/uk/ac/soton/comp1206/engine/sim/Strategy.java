@@ -0,0 +1,21 @@
+package uk.ac.soton.comp1206.engine.sim;
+
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.solver.Solution;
+
+/**
+ * Chooses the moves of a simulated player.
+ * <p>
+ * A strategy is only used by one game at a time, so it may keep scratch state between moves. Strategies shared
+ * between games, such as a Solver, are passed in when each one is created.
+ */
+public interface Strategy {
+
+    /**
+     * Chooses the move to play for the state of an engine, without changing the engine.
+     *
+     * @param engine : engine with a current and next piece.
+     * @return move to play, or null if neither piece fits anywhere.
+     */
+    Solution choose(GameEngine engine);
+}
@@ -0,0 +1,17 @@
+package uk.ac.soton.comp1206.engine.solver;
+
+/**
+ * Scores how healthy a board is to keep playing on, used by the Solver at the leaves of its search.
+ * <p>
+ * Implementations are called from several threads at once and should not allocate.
+ */
+public interface Evaluator {
+
+    /**
+     * Scores a board.
+     *
+     * @param occupied : occupancy mask of the board, bit y * cols + x.
+     * @return value in points, higher is better.
+     */
+    double evaluate(long occupied);
+}
@@ -0,0 +1,75 @@
+package uk.ac.soton.comp1206.engine.solver;
+
+/**
+ * The default Evaluator. Rewards empty cells and penalises holes, empty cells with no empty neighbour that only the
+ * single block piece can fill.
+ */
+public class HealthEvaluator implements Evaluator {
+
+    /**
+     * Points for each empty cell.
+     */
+    public static final double EMPTY_WEIGHT = 4;
+
+    /**
+     * Points lost for each hole.
+     */
+    public static final double HOLE_WEIGHT = 12;
+
+    /**
+     * Number of columns of the board.
+     */
+    private final int cols;
+
+    /**
+     * Mask of every cell on the board.
+     */
+    private final long all;
+
+    /**
+     * Mask of every cell except those in the first column.
+     */
+    private final long notFirstColumn;
+
+    /**
+     * Mask of every cell except those in the last column.
+     */
+    private final long notLastColumn;
+
+    /**
+     * Create an evaluator for boards of the given size.
+     *
+     * @param cols : number of columns.
+     * @param rows : number of rows.
+     */
+    public HealthEvaluator(int cols, int rows) {
+        this.cols = cols;
+        int cells = cols * rows;
+        all = cells == Long.SIZE ? -1L : (1L << cells) - 1;
+
+        long first = 0, last = 0;
+        for (int y = 0; y < rows; y++) {
+            first |= 1L << (y * cols);
+            last |= 1L << (y * cols + cols - 1);
+        }
+        notFirstColumn = all & ~first;
+        notLastColumn = all & ~last;
+    }
+
+    /**
+     * Scores a board by its empty cells and holes.
+     *
+     * @param occupied : occupancy mask of the board, bit y * cols + x.
+     * @return value in points, higher is better.
+     */
+    @Override
+    public double evaluate(long occupied) {
+        long empty = ~occupied & all;
+        long neighbours = ((empty << 1) & notFirstColumn)
+                | ((empty >>> 1) & notLastColumn)
+                | (empty << cols)
+                | (empty >>> cols);
+        long holes = empty & ~neighbours;
+        return EMPTY_WEIGHT * Long.bitCount(empty) - HOLE_WEIGHT * Long.bitCount(holes);
+    }
+}
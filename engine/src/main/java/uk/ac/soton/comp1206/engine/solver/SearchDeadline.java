@@ -0,0 +1,54 @@
+package uk.ac.soton.comp1206.engine.solver;
+
+/**
+ * A time limit for a Solver search, which can also be cancelled early from another thread.
+ * <p>
+ * Searches poll the deadline every few thousand positions, so an expired search stops within a fraction of a
+ * millisecond.
+ */
+public class SearchDeadline {
+
+    /**
+     * Time the search must stop by, from System.nanoTime.
+     */
+    private final long deadline;
+
+    /**
+     * Whether the search has been cancelled.
+     */
+    private volatile boolean cancelled;
+
+    /**
+     * Create a deadline the given time from now.
+     *
+     * @param millis : milliseconds the search may take.
+     */
+    public SearchDeadline(long millis) {
+        this.deadline = System.nanoTime() + millis * 1_000_000;
+    }
+
+    /**
+     * Cancels the search.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the search has been cancelled.
+     *
+     * @return true once cancel has been called.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Checks whether the search should stop.
+     *
+     * @return true if cancelled or out of time.
+     */
+    public boolean isExpired() {
+        return cancelled || System.nanoTime() - deadline >= 0;
+    }
+}
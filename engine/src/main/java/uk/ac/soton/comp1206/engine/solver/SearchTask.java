@@ -0,0 +1,192 @@
+package uk.ac.soton.comp1206.engine.solver;
+
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.Zobrist;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Searches the subtree below one root move of a Solver.
+ * <p>
+ * The search is a depth first recursion over primitive state, so nothing is allocated below the root. When given a
+ * deadline, it is polled every CHECK_INTERVAL positions and the search unwinds as soon as it expires.
+ * <p>
+ * The Zobrist hash of the board is carried down the recursion, updated with the precomputed hash of each placement
+ * and of any cleared cells. When the solver has a TranspositionTable, the value of every position where a new piece
+ * is drawn is cached under that hash combined with the piece in hand, multiplier and depth.
+ */
+class SearchTask extends RecursiveTask<Double> {
+
+    /**
+     * Number of positions searched between deadline checks, a power of two.
+     */
+    private static final int CHECK_INTERVAL = 4096;
+
+    /**
+     * Solver holding the move lists and evaluator.
+     */
+    private final Solver solver;
+
+    /**
+     * Occupancy after the root move, before clearing lines.
+     */
+    private final long occupied;
+
+    /**
+     * Zobrist hash of the occupancy after the root move.
+     */
+    private final long hash;
+
+    /**
+     * Piece left over after the root move, which becomes the current piece.
+     */
+    private final int held;
+
+    /**
+     * Multiplier the root move is scored at.
+     */
+    private final int multiplier;
+
+    /**
+     * Number of placements to search, including the root move.
+     */
+    private final int depth;
+
+    /**
+     * Deadline of the search, null for none.
+     */
+    private final SearchDeadline deadline;
+
+    /**
+     * Number of positions searched.
+     */
+    long positions;
+
+    /**
+     * Whether the deadline expired before the search finished, leaving the result unusable.
+     */
+    boolean expired;
+
+    /**
+     * Create a task for one root move.
+     *
+     * @param solver     : solver to search with.
+     * @param occupied   : occupancy after the root move.
+     * @param hash       : Zobrist hash of the occupancy after the root move.
+     * @param held       : piece left over after the root move.
+     * @param multiplier : multiplier the root move is scored at.
+     * @param depth      : number of placements to search.
+     * @param deadline   : deadline of the search, null for none.
+     */
+    SearchTask(Solver solver, long occupied, long hash, int held, int multiplier, int depth, SearchDeadline deadline) {
+        this.solver = solver;
+        this.occupied = occupied;
+        this.hash = hash;
+        this.held = held;
+        this.multiplier = multiplier;
+        this.depth = depth;
+        this.deadline = deadline;
+    }
+
+    @Override
+    protected Double compute() {
+        return afterPlacement(occupied, hash, held, multiplier, depth);
+    }
+
+    /**
+     * Values a position after a piece is placed: the points for any line clear, then either the board's health or the
+     * expected value over every piece that could come next.
+     *
+     * @param occupied   : occupancy after the placement, before clearing lines.
+     * @param hash       : Zobrist hash of the occupancy.
+     * @param held       : piece left over, which becomes the current piece.
+     * @param multiplier : multiplier the placement is scored at.
+     * @param depth      : placements left to search, including this one.
+     * @return expected points.
+     */
+    private double afterPlacement(long occupied, long hash, int held, int multiplier, int depth) {
+        if ((++positions & (CHECK_INTERVAL - 1)) == 0 && deadline != null && deadline.isExpired()) {
+            expired = true;
+        }
+        if (expired) {
+            return 0;
+        }
+
+        long cells = solver.clearedCells(occupied);
+        double points = 0;
+        if (cells != 0) {
+            points = solver.points(occupied, multiplier);
+            occupied &= ~cells;
+            hash ^= Zobrist.hash(cells);
+            multiplier++;
+        } else {
+            multiplier = 1;
+        }
+
+        if (depth == 1) {
+            return points + solver.getEvaluator().evaluate(occupied);
+        }
+
+        TranspositionTable table = solver.getTable();
+        long key = table == null ? 0 : solver.key(hash, held, multiplier, depth - 1);
+        if (key != 0) {
+            double cached = table.probe(key);
+            if (!Double.isNaN(cached)) {
+                return points + cached;
+            }
+        }
+
+        PieceCatalogue catalogue = solver.getCatalogue();
+        double total = 0;
+        for (int next = 0; next < catalogue.size(); next++) {
+            int weight = catalogue.getWeight(next);
+            if (weight == 0) continue;
+            total += weight * choose(occupied, hash, held, next, multiplier, depth - 1);
+        }
+        double expected = total / catalogue.getTotalWeight();
+        if (key != 0 && !expired) {
+            table.store(key, depth - 1, expected);
+        }
+        return points + expected;
+    }
+
+    /**
+     * Values a position where a piece must be chosen: the best placement of either the current piece, or the next
+     * piece after swapping.
+     *
+     * @param occupied   : occupancy of the board.
+     * @param hash       : Zobrist hash of the occupancy.
+     * @param current    : current piece.
+     * @param next       : next piece.
+     * @param multiplier : multiplier the placement is scored at.
+     * @param depth      : placements left to search.
+     * @return expected points of the best choice.
+     */
+    private double choose(long occupied, long hash, int current, int next, int multiplier, int depth) {
+        double best = Double.NEGATIVE_INFINITY;
+
+        long[] masks = solver.getMasks(current);
+        long[] hashes = solver.getMaskHashes(current);
+        for (int i = 0; i < masks.length; i++) {
+            if ((occupied & masks[i]) == 0) {
+                best = Math.max(best, afterPlacement(occupied | masks[i], hash ^ hashes[i], next, multiplier, depth));
+            }
+        }
+        if (next != current) {
+            masks = solver.getMasks(next);
+            hashes = solver.getMaskHashes(next);
+            for (int i = 0; i < masks.length; i++) {
+                if ((occupied & masks[i]) == 0) {
+                    best = Math.max(best,
+                            afterPlacement(occupied | masks[i], hash ^ hashes[i], current, multiplier, depth));
+                }
+            }
+        }
+
+        if (best == Double.NEGATIVE_INFINITY) {
+            positions++;
+            return solver.getEvaluator().evaluate(occupied) - Solver.STUCK_PENALTY;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,132 @@
+package uk.ac.soton.comp1206.engine.solver;
+
+/**
+ * The best move found by a Solver search.
+ */
+public final class Solution {
+
+    /**
+     * Whether the current and next piece should be swapped before playing.
+     */
+    private final boolean swap;
+
+    /**
+     * Type of the piece to play.
+     */
+    private final int piece;
+
+    /**
+     * Rotation to play the piece in, 0 to 3.
+     */
+    private final int rotation;
+
+    /**
+     * Column of the centre square.
+     */
+    private final int x;
+
+    /**
+     * Row of the centre square.
+     */
+    private final int y;
+
+    /**
+     * Expected points of the move over the searched depth.
+     */
+    private final double value;
+
+    /**
+     * Number of positions searched.
+     */
+    private final long positions;
+
+    /**
+     * Create a solution.
+     *
+     * @param swap      : whether to swap pieces first.
+     * @param piece     : type of the piece to play.
+     * @param rotation  : rotation to play the piece in.
+     * @param x         : column of the centre square.
+     * @param y         : row of the centre square.
+     * @param value     : expected points of the move.
+     * @param positions : number of positions searched.
+     */
+    public Solution(boolean swap, int piece, int rotation, int x, int y, double value, long positions) {
+        this.swap = swap;
+        this.piece = piece;
+        this.rotation = rotation;
+        this.x = x;
+        this.y = y;
+        this.value = value;
+        this.positions = positions;
+    }
+
+    /**
+     * Checks whether the current and next piece should be swapped before playing.
+     *
+     * @return true to play the next piece.
+     */
+    public boolean isSwap() {
+        return swap;
+    }
+
+    /**
+     * Gets the type of the piece to play.
+     *
+     * @return piece type.
+     */
+    public int getPiece() {
+        return piece;
+    }
+
+    /**
+     * Gets the rotation to play the piece in.
+     *
+     * @return rotation, 0 to 3.
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Gets the column of the centre square.
+     *
+     * @return x.
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Gets the row of the centre square.
+     *
+     * @return y.
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Gets the expected points of the move over the searched depth.
+     *
+     * @return value.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the number of positions searched.
+     *
+     * @return positions.
+     */
+    public long getPositions() {
+        return positions;
+    }
+
+    @Override
+    public String toString() {
+        return (swap ? "swap, " : "") + "piece " + piece + " rotation " + rotation + " at " + x + "," + y
+                + " (" + String.format("%.1f", value) + ")";
+    }
+}
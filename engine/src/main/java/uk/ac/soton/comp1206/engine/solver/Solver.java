@@ -0,0 +1,500 @@
+package uk.ac.soton.comp1206.engine.solver;
+
+import uk.ac.soton.comp1206.engine.Board;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.PlacementTable;
+import uk.ac.soton.comp1206.engine.ScoreTable;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+import uk.ac.soton.comp1206.engine.Zobrist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Finds the best placement for the current piece by expectimax search.
+ * <p>
+ * At each turn the player can place the current piece, or swap and place the next piece, in any rotation. After a
+ * placement the piece left over becomes the current piece and a new piece, drawn from the PieceCatalogue in
+ * proportion to the piece weights, becomes the next. A search of depth n looks n placements ahead, taking the weighted
+ * average over the new pieces, and values each line of play by the points it scores plus the Evaluator's health of
+ * the final board.
+ * <p>
+ * Rotations with the same footprint are only searched once. The root moves are searched in parallel on a
+ * ForkJoinPool, and each is a depth first recursion over occupancy masks that does not allocate. Positions reached
+ * by different orders of placement are shared through an optional TranspositionTable, which persists between
+ * searches so repeated hint requests for the same game find most of their positions already valued.
+ */
+public class Solver {
+
+    /**
+     * Points lost when neither piece can be placed, and the turn will be lost to the timer.
+     */
+    public static final double STUCK_PENALTY = 500;
+
+    /**
+     * Positions are only cached below this multiplier, which covers every realistic game.
+     */
+    private static final int MULTIPLIER_KEYS = 32;
+
+    /**
+     * Positions are only cached below this depth.
+     */
+    private static final int DEPTH_KEYS = 16;
+
+    /**
+     * Seed of the multiplier and depth keys.
+     */
+    private static final long KEY_SEED = 0x7E7EC5_0B2157L;
+
+    /**
+     * Number of columns of the boards searched.
+     */
+    private final int cols;
+
+    /**
+     * Number of rows of the boards searched.
+     */
+    private final int rows;
+
+    /**
+     * Pieces new pieces are drawn from.
+     */
+    private final PieceCatalogue catalogue;
+
+    /**
+     * Points of every line clear under the scoring rule of the games searched.
+     */
+    private final ScoreTable scores;
+
+    /**
+     * Mask of the cells in each row.
+     */
+    private final long[] rowMasks;
+
+    /**
+     * Mask of the cells in each column.
+     */
+    private final long[] colMasks;
+
+    /**
+     * Distinct in bounds placement masks of each piece.
+     */
+    private final long[][] masks;
+
+    /**
+     * Rotation and anchor of each mask, encoded as rotation * cells + anchor.
+     */
+    private final int[][] moves;
+
+    /**
+     * Zobrist hash of each mask.
+     */
+    private final long[][] maskHashes;
+
+    /**
+     * Zobrist keys of each depth and multiplier, indexed by depth * MULTIPLIER_KEYS + multiplier.
+     */
+    private final long[] stateKeys = new long[DEPTH_KEYS * MULTIPLIER_KEYS];
+
+    /**
+     * Values the boards at the leaves of the search.
+     */
+    private final Evaluator evaluator;
+
+    /**
+     * Pool the root moves are searched on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Cache of valued positions, null for none.
+     */
+    private final TranspositionTable table;
+
+    /**
+     * Create a solver for boards of the given size played with the standard pieces, searching on the common pool with
+     * a table of the default size.
+     *
+     * @param cols : number of columns.
+     * @param rows : number of rows.
+     */
+    public Solver(int cols, int rows) {
+        this(cols, rows, PieceCatalogue.STANDARD);
+    }
+
+    /**
+     * Create a solver for boards of the given size played with the pieces of a catalogue, searching on the common pool
+     * with a table of the default size.
+     *
+     * @param cols      : number of columns.
+     * @param rows      : number of rows.
+     * @param catalogue : pieces the game is played with.
+     */
+    public Solver(int cols, int rows, PieceCatalogue catalogue) {
+        this(cols, rows, catalogue, ScoringRule.CLASSIC);
+    }
+
+    /**
+     * Create a solver for boards of the given size played with the pieces of a catalogue and scored by a rule,
+     * searching on the common pool with a table of the default size.
+     *
+     * @param cols      : number of columns.
+     * @param rows      : number of rows.
+     * @param catalogue : pieces the game is played with.
+     * @param scoring   : rule line clears are scored by.
+     */
+    public Solver(int cols, int rows, PieceCatalogue catalogue, ScoringRule scoring) {
+        this(cols, rows, catalogue, scoring, new HealthEvaluator(cols, rows), ForkJoinPool.commonPool(),
+                new TranspositionTable(TranspositionTable.DEFAULT_BITS));
+    }
+
+    /**
+     * Create a solver for boards of the given size.
+     *
+     * @param cols      : number of columns.
+     * @param rows      : number of rows.
+     * @param catalogue : pieces the game is played with.
+     * @param scoring   : rule line clears are scored by.
+     * @param evaluator : values the boards at the leaves of the search.
+     * @param pool      : pool to search the root moves on.
+     * @param table     : cache of valued positions, null for none. Must only be shared by solvers of the same size,
+     *                  catalogue, scoring rule and evaluator.
+     */
+    public Solver(int cols, int rows, PieceCatalogue catalogue, ScoringRule scoring, Evaluator evaluator,
+                  ForkJoinPool pool, TranspositionTable table) {
+        if (cols * rows > Board.MASK_CELLS) {
+            throw new IllegalArgumentException("Board of " + cols + "x" + rows + " exceeds " + Board.MASK_CELLS + " cells");
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.catalogue = catalogue;
+        this.scores = new ScoreTable(scoring, cols, rows);
+        this.evaluator = evaluator;
+        this.pool = pool;
+        this.table = table;
+
+        rowMasks = new long[rows];
+        colMasks = new long[cols];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                rowMasks[y] |= 1L << (y * cols + x);
+                colMasks[x] |= 1L << (y * cols + x);
+            }
+        }
+
+        //Collect the distinct footprints of each piece
+        PlacementTable placements = catalogue.getPlacements(cols, rows);
+        int cells = cols * rows;
+        int pieces = catalogue.size();
+        masks = new long[pieces][];
+        moves = new int[pieces][];
+        maskHashes = new long[pieces][];
+        for (int piece = 0; piece < pieces; piece++) {
+            long[] pieceMasks = new long[PlacementTable.ROTATIONS * cells];
+            int[] pieceMoves = new int[PlacementTable.ROTATIONS * cells];
+            int count = 0;
+            for (int rotation = 0; rotation < PlacementTable.ROTATIONS; rotation++) {
+                for (int anchor = 0; anchor < cells; anchor++) {
+                    long mask = placements.mask(piece, rotation, anchor % cols, anchor / cols);
+                    if (mask == PlacementTable.OUT_OF_BOUNDS || contains(pieceMasks, count, mask)) continue;
+                    pieceMasks[count] = mask;
+                    pieceMoves[count] = rotation * cells + anchor;
+                    count++;
+                }
+            }
+            masks[piece] = Arrays.copyOf(pieceMasks, count);
+            moves[piece] = Arrays.copyOf(pieceMoves, count);
+            maskHashes[piece] = new long[count];
+            for (int i = 0; i < count; i++) {
+                maskHashes[piece][i] = Zobrist.hash(masks[piece][i]);
+            }
+        }
+
+        SeededPieceSource random = new SeededPieceSource(KEY_SEED);
+        for (int i = 0; i < stateKeys.length; i++) {
+            stateKeys[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Finds the best move for the state of an engine.
+     *
+     * @param engine : engine to solve, which is not changed.
+     * @param depth  : number of placements to look ahead, at least 1.
+     * @return best move, or null if neither piece can be placed.
+     * @throws IllegalArgumentException if the engine plays with another catalogue.
+     */
+    public Solution solve(GameEngine engine, int depth) {
+        if (engine.getCatalogue() != catalogue) {
+            throw new IllegalArgumentException("Engine plays with a different piece catalogue");
+        }
+        if (engine.getScoring() != scores.getRule()) {
+            throw new IllegalArgumentException("Engine scores with a different rule");
+        }
+        return solve(engine.getBoard().getOccupied(), engine.getCurrentPiece().getType(),
+                engine.getNextPiece().getType(), engine.getMultiplier(), depth);
+    }
+
+    /**
+     * Finds the best move for a board and pair of pieces.
+     *
+     * @param occupied   : occupancy mask of the board, bit y * cols + x.
+     * @param current    : type of the current piece.
+     * @param next       : type of the next piece.
+     * @param multiplier : current multiplier.
+     * @param depth      : number of placements to look ahead, at least 1.
+     * @return best move, or null if neither piece can be placed.
+     */
+    public Solution solve(long occupied, int current, int next, int multiplier, int depth) {
+        return solve(occupied, current, next, multiplier, depth, null);
+    }
+
+    /**
+     * Finds the best move for a board and pair of pieces within a deadline.
+     *
+     * @param occupied   : occupancy mask of the board, bit y * cols + x.
+     * @param current    : type of the current piece.
+     * @param next       : type of the next piece.
+     * @param multiplier : current multiplier.
+     * @param depth      : number of placements to look ahead, at least 1.
+     * @param deadline   : deadline of the search, null for none.
+     * @return best move, or null if neither piece can be placed.
+     * @throws CancellationException if the deadline expires before the search finishes.
+     */
+    public Solution solve(long occupied, int current, int next, int multiplier, int depth, SearchDeadline deadline) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1");
+        }
+
+        List<SearchTask> tasks = new ArrayList<>();
+        List<Integer> roots = new ArrayList<>();
+        long hash = Zobrist.hash(occupied);
+        addRoots(tasks, roots, occupied, hash, current, next, multiplier, depth, deadline, false);
+        if (next != current) {
+            addRoots(tasks, roots, occupied, hash, next, current, multiplier, depth, deadline, true);
+        }
+        if (tasks.isEmpty()) {
+            return null;
+        }
+
+        for (SearchTask task : tasks) {
+            pool.execute(task);
+        }
+
+        //Pick the first best root so the result does not depend on scheduling
+        int best = 0;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        long positions = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            double value = tasks.get(i).join();
+            positions += tasks.get(i).positions;
+            if (tasks.get(i).expired) {
+                throw new CancellationException("Search of depth " + depth + " ran out of time");
+            }
+            if (value > bestValue) {
+                best = i;
+                bestValue = value;
+            }
+        }
+
+        int root = roots.get(best);
+        boolean swap = root < 0;
+        int piece = swap ? next : current;
+        int move = moves[piece][swap ? ~root : root];
+        int cells = cols * rows;
+        int anchor = move % cells;
+        return new Solution(swap, piece, move / cells, anchor % cols, anchor / cols, bestValue, positions);
+    }
+
+    /**
+     * Searches one placement deeper at a time until the deadline expires, reporting the result of each completed depth.
+     *
+     * @param occupied   : occupancy mask of the board, bit y * cols + x.
+     * @param current    : type of the current piece.
+     * @param next       : type of the next piece.
+     * @param multiplier : current multiplier.
+     * @param maxDepth   : deepest search to try.
+     * @param deadline   : deadline of the search.
+     * @param progress   : called with the best move after each completed depth.
+     * @return best move of the deepest completed search, or null if none completed or no piece can be placed.
+     */
+    public Solution deepen(long occupied, int current, int next, int multiplier, int maxDepth,
+                           SearchDeadline deadline, Consumer<Solution> progress) {
+        Solution best = null;
+        for (int depth = 1; depth <= maxDepth && !deadline.isExpired(); depth++) {
+            try {
+                best = solve(occupied, current, next, multiplier, depth, deadline);
+            } catch (CancellationException e) {
+                break;
+            }
+            if (best == null) {
+                break;
+            }
+            progress.accept(best);
+        }
+        return best;
+    }
+
+    /**
+     * Adds a task for every legal placement of a root piece.
+     *
+     * @param tasks      : tasks to add to.
+     * @param roots      : move index of each task, complemented when swapping.
+     * @param occupied   : occupancy mask of the board.
+     * @param hash       : Zobrist hash of the occupancy.
+     * @param piece      : piece to place.
+     * @param held       : piece left over.
+     * @param multiplier : current multiplier.
+     * @param depth      : number of placements to look ahead.
+     * @param deadline   : deadline of the search, null for none.
+     * @param swap       : whether the pieces are swapped first.
+     */
+    private void addRoots(List<SearchTask> tasks, List<Integer> roots, long occupied, long hash, int piece, int held,
+                          int multiplier, int depth, SearchDeadline deadline, boolean swap) {
+        long[] pieceMasks = masks[piece];
+        for (int i = 0; i < pieceMasks.length; i++) {
+            if ((occupied & pieceMasks[i]) != 0) continue;
+            tasks.add(new SearchTask(this, occupied | pieceMasks[i], hash ^ maskHashes[piece][i], held, multiplier,
+                    depth, deadline));
+            roots.add(swap ? ~i : i);
+        }
+    }
+
+    /**
+     * Gets the cells of every full row and column.
+     *
+     * @param occupied : occupancy mask of the board.
+     * @return mask of the cells to clear.
+     */
+    long clearedCells(long occupied) {
+        long cells = 0;
+        for (long row : rowMasks) {
+            if ((occupied & row) == row) cells |= row;
+        }
+        for (long col : colMasks) {
+            if ((occupied & col) == col) cells |= col;
+        }
+        return cells;
+    }
+
+    /**
+     * Scores the full rows and columns.
+     *
+     * @param occupied   : occupancy mask of the board.
+     * @param multiplier : multiplier the clear is scored at.
+     * @return points for clearing the full lines.
+     */
+    int points(long occupied, int multiplier) {
+        int fullRows = 0;
+        for (long row : rowMasks) {
+            if ((occupied & row) == row) fullRows++;
+        }
+        int fullCols = 0;
+        for (long col : colMasks) {
+            if ((occupied & col) == col) fullCols++;
+        }
+        return scores.score(fullRows, fullCols, multiplier);
+    }
+
+    /**
+     * Gets the distinct in bounds placement masks of a piece.
+     *
+     * @param piece : piece type.
+     * @return masks, shared and not to be modified.
+     */
+    long[] getMasks(int piece) {
+        return masks[piece];
+    }
+
+    /**
+     * Gets the Zobrist hashes of a piece's masks, in the same order as getMasks.
+     *
+     * @param piece : piece type.
+     * @return hashes, shared and not to be modified.
+     */
+    long[] getMaskHashes(int piece) {
+        return maskHashes[piece];
+    }
+
+    /**
+     * Gets the table key of a position where a new piece is about to be drawn.
+     *
+     * @param hash       : Zobrist hash of the occupancy.
+     * @param held       : piece in hand.
+     * @param multiplier : current multiplier.
+     * @param depth      : placements left to search.
+     * @return key, or 0 if the position is not cached.
+     */
+    long key(long hash, int held, int multiplier, int depth) {
+        if (multiplier >= MULTIPLIER_KEYS || depth >= DEPTH_KEYS) {
+            return 0;
+        }
+        return hash ^ Zobrist.piece(held) ^ stateKeys[depth * MULTIPLIER_KEYS + multiplier];
+    }
+
+    /**
+     * Gets the cache of valued positions.
+     *
+     * @return table, or null for none.
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the pieces new pieces are drawn from.
+     *
+     * @return piece catalogue.
+     */
+    public PieceCatalogue getCatalogue() {
+        return catalogue;
+    }
+
+    /**
+     * Gets the rule line clears are scored by.
+     *
+     * @return scoring rule.
+     */
+    public ScoringRule getScoring() {
+        return scores.getRule();
+    }
+
+    /**
+     * Gets the evaluator valuing the leaves of the search.
+     *
+     * @return evaluator.
+     */
+    public Evaluator getEvaluator() {
+        return evaluator;
+    }
+
+    /**
+     * Gets the pool the root moves are searched on.
+     *
+     * @return pool.
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Checks whether a mask is among the first entries of an array.
+     *
+     * @param masks : masks found so far.
+     * @param count : number of masks found.
+     * @param mask  : mask to look for.
+     * @return true if already found.
+     */
+    private static boolean contains(long[] masks, int count, long mask) {
+        for (int i = 0; i < count; i++) {
+            if (masks[i] == mask) return true;
+        }
+        return false;
+    }
+}
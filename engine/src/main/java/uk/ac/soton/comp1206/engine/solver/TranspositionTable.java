@@ -0,0 +1,118 @@
+package uk.ac.soton.comp1206.engine.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed size, lock-free cache of evaluated search positions, keyed by Zobrist hash.
+ * <p>
+ * Positions are stored in buckets of two entries. The first entry keeps the deepest result that hashed to the bucket
+ * and the second always takes the latest, so deep results survive while shallow ones churn through. Each entry is a
+ * check word, the value and the depth. The check word is the XOR of the hash, value and depth, so an entry torn by
+ * two threads writing at once fails the check and reads as a miss instead of a wrong value. Nothing is locked and
+ * nothing is allocated after construction.
+ */
+public class TranspositionTable {
+
+    /**
+     * Default size, 2^18 buckets taking 12MB.
+     */
+    public static final int DEFAULT_BITS = 18;
+
+    /**
+     * Entries in each bucket.
+     */
+    private static final int WAYS = 2;
+
+    /**
+     * Longs in each entry: check word, value and depth.
+     */
+    private static final int ENTRY = 3;
+
+    /**
+     * Entries as consecutive longs.
+     */
+    private final AtomicLongArray entries;
+
+    /**
+     * Mask selecting a bucket from a hash.
+     */
+    private final int bucketMask;
+
+    /**
+     * Create a table of 2^bits buckets, each taking 48 bytes.
+     *
+     * @param bits : log2 of the number of buckets, 1 to 24.
+     */
+    public TranspositionTable(int bits) {
+        if (bits < 1 || bits > 24) {
+            throw new IllegalArgumentException("Table size of 2^" + bits + " buckets is out of range");
+        }
+        entries = new AtomicLongArray((1 << bits) * WAYS * ENTRY);
+        bucketMask = (1 << bits) - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param hash : hash of the position.
+     * @return stored value, or NaN if the position is not stored.
+     */
+    public double probe(long hash) {
+        int bucket = bucket(hash);
+        for (int way = 0; way < WAYS; way++) {
+            int entry = bucket + way * ENTRY;
+            long value = entries.getOpaque(entry + 1);
+            long depth = entries.getOpaque(entry + 2);
+            if (entries.getOpaque(entry) == (hash ^ value ^ depth) && depth != 0) {
+                return Double.longBitsToDouble(value);
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Stores a position, keeping the deeper of it and the deep entry of its bucket.
+     *
+     * @param hash  : hash of the position.
+     * @param depth : number of placements searched below the position, at least 1.
+     * @param value : value of the position.
+     */
+    public void store(long hash, int depth, double value) {
+        int entry = bucket(hash);
+        if (depth < entries.getOpaque(entry + 2)) {
+            entry += ENTRY;
+        }
+        long bits = Double.doubleToRawLongBits(value);
+        entries.setOpaque(entry + 1, bits);
+        entries.setOpaque(entry + 2, depth);
+        entries.setOpaque(entry, hash ^ bits ^ depth);
+    }
+
+    /**
+     * Removes every stored position. Must not be called while a search is using the table.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.setPlain(i, 0);
+        }
+    }
+
+    /**
+     * Gets the number of positions the table can hold.
+     *
+     * @return capacity.
+     */
+    public int getCapacity() {
+        return entries.length() / ENTRY;
+    }
+
+    /**
+     * Gets the index of the first long of a hash's bucket.
+     *
+     * @param hash : hash of a position.
+     * @return index into entries.
+     */
+    private int bucket(long hash) {
+        return ((int) (hash ^ (hash >>> 32)) & bucketMask) * WAYS * ENTRY;
+    }
+}
@@ -0,0 +1,45 @@
+package uk.ac.soton.comp1206.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Frames published by an EngineThread.
+ */
+class EngineThreadTest {
+
+    @Test
+    void stuckTurnsAreFlagged() {
+        //No piece of the seed's sequence fits on a single square
+        GameEngine engine = new GameEngine(1, 1, new SeededPieceSource(1));
+        engine.reset(0, 2);
+        engine.nextPiece(true);
+        assertTrue(engine.isStuck());
+
+        EngineThread logic = new EngineThread(engine);
+        logic.timeout();
+        logic.close();
+
+        assertAction(EngineFrame.TIMEOUT, logic.poll(), 1);
+        assertAction(EngineFrame.STUCK, logic.poll(), 1);
+        assertAction(EngineFrame.TIMEOUT, logic.poll(), 0);
+        assertAction(EngineFrame.STUCK, logic.poll(), 0);
+        assertAction(EngineFrame.GAME_OVER, logic.poll(), 0);
+        assertNull(logic.poll());
+    }
+
+    /**
+     * Checks the action of a frame and the lives left after it.
+     *
+     * @param action : expected action.
+     * @param frame  : frame to check.
+     * @param lives  : expected lives.
+     */
+    private static void assertAction(int action, EngineFrame frame, int lives) {
+        assertEquals(action, frame.getAction());
+        assertEquals(lives, frame.getSnapshot().getLives());
+    }
+}
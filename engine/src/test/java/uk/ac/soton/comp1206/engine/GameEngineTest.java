@@ -0,0 +1,75 @@
+package uk.ac.soton.comp1206.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Piece supply of GameEngine with pieces previewed ahead.
+ */
+class GameEngineTest {
+
+    @Test
+    void previewDepthKeepsTheSequence() {
+        GameEngine plain = new GameEngine(5, 5, new SeededPieceSource(9));
+        GameEngine previewed = new GameEngine(5, 5, new SeededPieceSource(9));
+        previewed.setPreviewDepth(3);
+        plain.nextPiece(true);
+        previewed.nextPiece(true);
+
+        for (int i = 0; i < 500; i++) {
+            assertSame(plain.getCurrentPiece(), previewed.getCurrentPiece());
+            assertSame(plain.getNextPiece(), previewed.getNextPiece());
+            assertEquals(plain.snapshot().getPieceState(), previewed.snapshot().getPieceState());
+            assertEquals(3, previewed.getPreviews().size());
+
+            GamePiece preview = previewed.getPreviews().get(0);
+            plain.nextPiece(false);
+            previewed.nextPiece(false);
+            assertSame(preview, previewed.getNextPiece());
+        }
+    }
+
+    @Test
+    void restoreRefillsThePreviews() {
+        GameEngine engine = new GameEngine(5, 5, new SeededPieceSource(4));
+        engine.setPreviewDepth(2);
+        engine.nextPiece(true);
+        EngineSnapshot start = engine.snapshot();
+        GamePiece first = engine.getPreviews().get(0);
+        GamePiece second = engine.getPreviews().get(1);
+
+        for (int i = 0; i < 20; i++) {
+            engine.nextPiece(false);
+        }
+        engine.restore(start);
+
+        assertEquals(2, engine.getPreviews().size());
+        assertSame(first, engine.getPreviews().get(0));
+        assertSame(second, engine.getPreviews().get(1));
+    }
+
+    @Test
+    void changingDepthKeepsTheSequence() {
+        GameEngine plain = new GameEngine(5, 5, new SeededPieceSource(21));
+        GameEngine changed = new GameEngine(5, 5, new SeededPieceSource(21));
+        plain.nextPiece(true);
+        changed.nextPiece(true);
+
+        for (int i = 0; i < 100; i++) {
+            changed.setPreviewDepth(i % (GameEngine.MAX_PREVIEW + 1));
+            plain.nextPiece(false);
+            changed.nextPiece(false);
+            assertSame(plain.getNextPiece(), changed.getNextPiece());
+        }
+    }
+
+    @Test
+    void depthOutsideTheQueueIsRefused() {
+        GameEngine engine = new GameEngine(5, 5, new SeededPieceSource(1));
+        assertThrows(IllegalArgumentException.class, () -> engine.setPreviewDepth(-1));
+        assertThrows(IllegalArgumentException.class, () -> engine.setPreviewDepth(GameEngine.MAX_PREVIEW + 1));
+    }
+}
@@ -0,0 +1,384 @@
+package uk.ac.soton.comp1206.engine.replay;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.soton.comp1206.engine.EngineSnapshot;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips of the replay format and playback through ReplayPlayer.
+ */
+class ReplayTest {
+
+    /**
+     * Columns and rows of the boards played.
+     */
+    private static final int SIZE = 5;
+
+    @Test
+    void recordedGameReplaysToTheSameState() throws IOException {
+        GameEngine live = engine(7);
+        Replay replay = Replay.read(new ByteArrayInputStream(play(live, 7, 3, ScoringRule.CLASSIC, 400)));
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.fastForward();
+
+        assertSame(ScoringRule.CLASSIC, replay.getScoring());
+        assertTrue(player.isFinished());
+        assertSameState(live.snapshot(), player.getEngine().snapshot());
+    }
+
+    @Test
+    void replayIsScoredByTheRecordedRule() throws IOException {
+        GameEngine live = engine(11);
+        Replay replay = Replay.read(new ByteArrayInputStream(play(live, 11, 3, ScoringRule.CASCADE, 400)));
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.fastForward();
+
+        assertSame(ScoringRule.CASCADE, replay.getScoring());
+        assertSame(ScoringRule.CASCADE, player.getEngine().getScoring());
+        assertSameState(live.snapshot(), player.getEngine().snapshot());
+    }
+
+    @Test
+    void seekMatchesSteppingAtEveryPosition() throws IOException {
+        Replay replay = Replay.read(new ByteArrayInputStream(play(engine(3), 3, 2, ScoringRule.CLASSIC, 300)));
+
+        //Reference states from stepping through once, before action i
+        ReplayPlayer stepped = new ReplayPlayer(replay);
+        List<EngineSnapshot> states = new ArrayList<>();
+        List<Boolean> over = new ArrayList<>();
+        for (int i = 0; i <= replay.length(); i++) {
+            states.add(stepped.getEngine().snapshot());
+            over.add(stepped.isOver());
+            stepped.step();
+        }
+
+        List<Integer> targets = new ArrayList<>();
+        for (int i = 0; i <= replay.length(); i++) {
+            targets.add(i);
+        }
+        Collections.shuffle(targets, new Random(3));
+
+        ReplayPlayer player = new ReplayPlayer(replay);
+        for (int target : targets) {
+            player.seek(target);
+            assertEquals(target, player.getPosition());
+            assertEquals(over.get(target), player.isOver(), "game over at " + target);
+            assertSameState(states.get(target), player.getEngine().snapshot());
+        }
+    }
+
+    @Test
+    void gameOverOnAKeyframeIsKept() throws IOException {
+        //With one life fewer than the interval, the last timeout ends the game on a keyframe
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ReplayRecorder recorder = new ReplayRecorder(bytes, 5, SIZE, SIZE, 0, 0,
+                ReplayPlayer.KEYFRAME_INTERVAL - 1, ScoringRule.CLASSIC)) {
+            for (int i = 0; i < ReplayPlayer.KEYFRAME_INTERVAL; i++) {
+                recorder.timeout();
+            }
+        }
+        ReplayPlayer player = new ReplayPlayer(Replay.read(new ByteArrayInputStream(bytes.toByteArray())));
+
+        player.fastForward();
+        assertTrue(player.isOver());
+        player.seek(0);
+        assertFalse(player.isOver());
+        player.seek(ReplayPlayer.KEYFRAME_INTERVAL);
+        assertTrue(player.isOver());
+    }
+
+    @Test
+    void version2FixtureDecodes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(ReplayFormat.MAGIC);
+        out.writeByte(2);
+        out.writeByte(SIZE);
+        out.writeByte(SIZE);
+        out.writeLong(42);
+        out.writeLong(1_600_000_000_000L);
+        out.writeInt(100);
+        out.writeByte(3);
+        out.write(new byte[]{
+                //Place in rotation 1 at (2, 2) after 200 ms
+                9, (byte) 0xc8, 0x01, 12,
+                //Swap after 5 ms
+                2, 5,
+                //Rotate left after 130 ms
+                11, (byte) 0x82, 0x01,
+                //Timeout straight after
+                4, 0});
+
+        assertFixture(Replay.read(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    void version3FixtureDecodes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(ReplayFormat.MAGIC);
+        out.writeByte(3);
+        out.writeShort(SIZE);
+        out.writeShort(SIZE);
+        out.writeLong(42);
+        out.writeLong(1_600_000_000_000L);
+        out.writeInt(100);
+        out.writeByte(3);
+        out.write(new byte[]{9, (byte) 0xc8, 0x01, 12, 2, 5, 11, (byte) 0x82, 0x01, 4, 0});
+
+        assertFixture(Replay.read(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    void olderVersionsReplayToTheSameState() throws IOException {
+        GameEngine live = engine(19);
+        Replay current = Replay.read(new ByteArrayInputStream(play(live, 19, 3, ScoringRule.CLASSIC, 300)));
+
+        for (int version = ReplayFormat.OLDEST_VERSION; version < ReplayFormat.VERSION; version++) {
+            ReplayPlayer player = new ReplayPlayer(Replay.read(new ByteArrayInputStream(encode(current, version))));
+            player.fastForward();
+            assertEquals(current.length(), player.getReplay().length(), "actions of version " + version);
+            assertSameState(live.snapshot(), player.getEngine().snapshot());
+        }
+    }
+
+    @Test
+    void truncatedRecordIsDropped() throws IOException {
+        byte[] bytes = play(engine(23), 23, 3, ScoringRule.CLASSIC, 100);
+        Replay whole = Replay.read(new ByteArrayInputStream(bytes));
+
+        //Every record is at least a tag and a time, so losing a byte cuts the last one
+        Replay cut = Replay.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertEquals(whole.length() - 1, cut.length());
+    }
+
+    @Test
+    void corruptHeadersAreRejected() throws IOException {
+        byte[] bytes = play(engine(29), 29, 3, ScoringRule.CLASSIC, 20);
+        int versionAt = ReplayFormat.MAGIC.length;
+        int scoringAt = versionAt + 1 + 2 + 2 + 8 + 8 + 4 + 1;
+
+        byte[] magic = bytes.clone();
+        magic[0] = 'X';
+        assertRejected(magic);
+
+        byte[] old = bytes.clone();
+        old[versionAt] = ReplayFormat.OLDEST_VERSION - 1;
+        assertRejected(old);
+
+        byte[] future = bytes.clone();
+        future[versionAt] = ReplayFormat.VERSION + 1;
+        assertRejected(future);
+
+        byte[] rule = bytes.clone();
+        rule[scoringAt] = 7;
+        assertRejected(rule);
+
+        byte[] custom = bytes.clone();
+        custom[scoringAt] = (byte) ScoringRule.CUSTOM;
+        assertRejected(custom);
+
+        byte[] empty = bytes.clone();
+        empty[versionAt + 1] = 0;
+        empty[versionAt + 2] = 0;
+        assertRejected(empty);
+
+        assertRejected(Arrays.copyOf(bytes, scoringAt));
+        assertRejected(new byte[0]);
+    }
+
+    /**
+     * Creates an engine for a seeded game.
+     *
+     * @param seed : seed of the piece sequence.
+     * @return engine.
+     */
+    private static GameEngine engine(long seed) {
+        return new GameEngine(SIZE, SIZE, new SeededPieceSource(seed));
+    }
+
+    /**
+     * Plays random actions on an engine, recording each, until the actions run out or the game ends.
+     *
+     * @param engine  : engine to play on, left in the final state.
+     * @param seed    : seed of the engine's piece sequence, also choosing the actions.
+     * @param lives   : starting lives.
+     * @param scoring : rule to score by.
+     * @param actions : most actions to try.
+     * @return the recorded replay.
+     */
+    private static byte[] play(GameEngine engine, long seed, int lives, ScoringRule scoring, int actions) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Random random = new Random(seed);
+        engine.setScoring(scoring);
+        engine.reset(0, lives);
+        engine.nextPiece(true);
+
+        try (ReplayRecorder recorder = new ReplayRecorder(bytes, seed, SIZE, SIZE, 0, 0, lives, scoring)) {
+            for (int i = 0; i < actions; i++) {
+                int roll = random.nextInt(12);
+                if (roll == 0) {
+                    engine.swap();
+                    recorder.swap();
+                } else if (roll == 1) {
+                    boolean left = random.nextBoolean();
+                    engine.rotate(left);
+                    recorder.rotate(left);
+                } else if (roll == 2) {
+                    recorder.timeout();
+                    if (!engine.timeout()) {
+                        break;
+                    }
+                    engine.nextPiece(false);
+                } else {
+                    int x = random.nextInt(SIZE);
+                    int y = random.nextInt(SIZE);
+                    int rotation = engine.getCurrentPiece().getRotation();
+                    if (engine.play(x, y)) {
+                        recorder.place(x, y, rotation);
+                        engine.nextPiece(false);
+                    }
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a replay in an older version of the format.
+     *
+     * @param replay  : replay to write.
+     * @param version : version 2 or 3.
+     * @return the encoded replay.
+     * @throws IOException : never, the stream is in memory.
+     */
+    private static byte[] encode(Replay replay, int version) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(ReplayFormat.MAGIC);
+        out.writeByte(version);
+        if (version >= 3) {
+            out.writeShort(replay.getCols());
+            out.writeShort(replay.getRows());
+        } else {
+            out.writeByte(replay.getCols());
+            out.writeByte(replay.getRows());
+        }
+        out.writeLong(replay.getSeed());
+        out.writeLong(replay.getStart());
+        out.writeInt(replay.getScore());
+        out.writeByte(replay.getLives());
+
+        long time = 0;
+        for (int i = 0; i < replay.length(); i++) {
+            out.writeByte(replay.getAction(i) | replay.getArgument(i) << ReplayFormat.ARGUMENT_SHIFT);
+            writeVarInt(out, (int) (replay.getTime(i) - time));
+            time = replay.getTime(i);
+            if (replay.getAction(i) == ReplayFormat.PLACE) {
+                int cell = replay.getY(i) * replay.getCols() + replay.getX(i);
+                if (version >= 3) {
+                    writeVarInt(out, cell);
+                } else {
+                    out.writeByte(cell);
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes an unsigned LEB128 varint.
+     *
+     * @param out   : stream to write to.
+     * @param value : value, 0 or more.
+     * @throws IOException : never, the stream is in memory.
+     */
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Checks a replay holds the hand written fixture.
+     *
+     * @param replay : replay read from the fixture.
+     */
+    private static void assertFixture(Replay replay) {
+        assertEquals(SIZE, replay.getCols());
+        assertEquals(SIZE, replay.getRows());
+        assertEquals(42, replay.getSeed());
+        assertEquals(1_600_000_000_000L, replay.getStart());
+        assertEquals(100, replay.getScore());
+        assertEquals(3, replay.getLives());
+        assertSame(ScoringRule.CLASSIC, replay.getScoring());
+        assertEquals(4, replay.length());
+
+        assertEquals(ReplayFormat.PLACE, replay.getAction(0));
+        assertEquals(1, replay.getArgument(0));
+        assertEquals(2, replay.getX(0));
+        assertEquals(2, replay.getY(0));
+        assertEquals(200, replay.getTime(0));
+
+        assertEquals(ReplayFormat.SWAP, replay.getAction(1));
+        assertEquals(205, replay.getTime(1));
+
+        assertEquals(ReplayFormat.ROTATE, replay.getAction(2));
+        assertEquals(1, replay.getArgument(2));
+        assertEquals(335, replay.getTime(2));
+
+        assertEquals(ReplayFormat.TIMEOUT, replay.getAction(3));
+        assertEquals(335, replay.getTime(3));
+        assertEquals(335, replay.getDuration());
+    }
+
+    /**
+     * Checks bytes are refused as a replay.
+     *
+     * @param bytes : corrupt replay.
+     */
+    private static void assertRejected(byte[] bytes) {
+        assertThrows(IOException.class, () -> Replay.read(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Checks two snapshots of a SIZE board hold the same game state.
+     *
+     * @param expected : expected state.
+     * @param actual   : state to check.
+     */
+    private static void assertSameState(EngineSnapshot expected, EngineSnapshot actual) {
+        assertEquals(expected.getScore(), actual.getScore(), "score");
+        assertEquals(expected.getMultiplier(), actual.getMultiplier(), "multiplier");
+        assertEquals(expected.getLevel(), actual.getLevel(), "level");
+        assertEquals(expected.getLives(), actual.getLives(), "lives");
+        assertEquals(expected.getPieceState(), actual.getPieceState(), "piece state");
+        assertSame(expected.getCurrentPiece(), actual.getCurrentPiece(), "current piece");
+        assertSame(expected.getNextPiece(), actual.getNextPiece(), "next piece");
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            assertEquals(expected.getCell(cell), actual.getCell(cell), "cell " + cell);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package uk.ac.soton.comp1206.engine.save;
+
+import org.junit.jupiter.api.Test;
+import uk.ac.soton.comp1206.engine.EngineSnapshot;
+import uk.ac.soton.comp1206.engine.GameEngine;
+import uk.ac.soton.comp1206.engine.PieceCatalogue;
+import uk.ac.soton.comp1206.engine.ScoringRule;
+import uk.ac.soton.comp1206.engine.SeededPieceSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Round trips of the save format.
+ */
+class SavedGameTest {
+
+    /**
+     * Columns and rows of the boards played.
+     */
+    private static final int SIZE = 5;
+
+    /**
+     * Offset of the version byte.
+     */
+    private static final int VERSION_AT = SavedGame.MAGIC.length;
+
+    /**
+     * Offset of the scoring rule id.
+     */
+    private static final int SCORING_AT = VERSION_AT + 1 + 2 + 2 + 8 + 8 + 4 * 5;
+
+    /**
+     * Offset of the current piece number.
+     */
+    private static final int PIECES_AT = SCORING_AT + 1;
+
+    /**
+     * Offset of the first cell value.
+     */
+    private static final int CELLS_AT = PIECES_AT + 4;
+
+    @Test
+    void writeThenReadGivesTheSameGame() throws IOException {
+        GameEngine engine = played(13, ScoringRule.CASCADE);
+        byte[] bytes = write(new SavedGame(engine, 13, 4321));
+
+        assertEquals(CELLS_AT + SIZE * SIZE, bytes.length);
+
+        SavedGame save = read(bytes);
+        assertEquals(SIZE, save.getCols());
+        assertEquals(SIZE, save.getRows());
+        assertEquals(13, save.getSeed());
+        assertEquals(4321, save.getTime());
+        assertSame(ScoringRule.CASCADE, save.getScoring());
+        assertSameState(engine.snapshot(), save.getSnapshot());
+    }
+
+    @Test
+    void resumedGameContinuesTheSameWay() throws IOException {
+        GameEngine engine = played(17, ScoringRule.CLASSIC);
+        GameEngine resumed = read(write(new SavedGame(engine, 17, 0))).createEngine();
+
+        assertSameState(engine.snapshot(), resumed.snapshot());
+        playRandomly(engine, new Random(99), 200);
+        playRandomly(resumed, new Random(99), 200);
+        assertSameState(engine.snapshot(), resumed.snapshot());
+    }
+
+    @Test
+    void version1ReadsAsClassic() throws IOException {
+        GameEngine engine = played(19, ScoringRule.CLASSIC);
+        byte[] bytes = write(new SavedGame(engine, 19, 1000));
+
+        //Version 1 is version 2 without the scoring rule
+        byte[] old = new byte[bytes.length - 1];
+        System.arraycopy(bytes, 0, old, 0, SCORING_AT);
+        System.arraycopy(bytes, SCORING_AT + 1, old, SCORING_AT, bytes.length - SCORING_AT - 1);
+        old[VERSION_AT] = 1;
+
+        SavedGame save = read(old);
+        assertSame(ScoringRule.CLASSIC, save.getScoring());
+        assertEquals(1000, save.getTime());
+        assertSameState(engine.snapshot(), save.getSnapshot());
+    }
+
+    @Test
+    void corruptSavesAreRejected() throws IOException {
+        byte[] bytes = write(new SavedGame(played(23, ScoringRule.CLASSIC), 23, 0));
+
+        byte[] magic = bytes.clone();
+        magic[0] = 'X';
+        assertRejected(magic);
+
+        byte[] version = bytes.clone();
+        version[VERSION_AT] = SavedGame.VERSION + 1;
+        assertRejected(version);
+
+        byte[] empty = bytes.clone();
+        empty[VERSION_AT + 1] = 0;
+        empty[VERSION_AT + 2] = 0;
+        assertRejected(empty);
+
+        byte[] rule = bytes.clone();
+        rule[SCORING_AT] = (byte) ScoringRule.CUSTOM;
+        assertRejected(rule);
+
+        byte[] piece = bytes.clone();
+        piece[PIECES_AT] = (byte) PieceCatalogue.STANDARD.size();
+        assertRejected(piece);
+
+        byte[] rotation = bytes.clone();
+        rotation[PIECES_AT + 1] = 4;
+        assertRejected(rotation);
+
+        byte[] cell = bytes.clone();
+        cell[CELLS_AT] = (byte) (PieceCatalogue.STANDARD.size() + 1);
+        assertRejected(cell);
+
+        assertRejected(Arrays.copyOf(bytes, bytes.length - 1));
+        assertRejected(new byte[0]);
+    }
+
+    /**
+     * Creates an engine part way through a seeded game.
+     *
+     * @param seed    : seed of the piece sequence and the moves.
+     * @param scoring : rule to score by.
+     * @return engine.
+     */
+    private static GameEngine played(long seed, ScoringRule scoring) {
+        GameEngine engine = new GameEngine(SIZE, SIZE, new SeededPieceSource(seed));
+        engine.setScoring(scoring);
+        engine.reset(0, 3);
+        engine.nextPiece(true);
+        playRandomly(engine, new Random(seed), 60);
+        return engine;
+    }
+
+    /**
+     * Plays random placements, rotations and swaps, timing out when a placement does not fit.
+     *
+     * @param engine  : engine to play on.
+     * @param random  : chooses the actions.
+     * @param actions : number of actions.
+     */
+    private static void playRandomly(GameEngine engine, Random random, int actions) {
+        for (int i = 0; i < actions; i++) {
+            int roll = random.nextInt(8);
+            if (roll == 0) {
+                engine.swap();
+            } else if (roll == 1) {
+                engine.rotate(random.nextBoolean());
+            } else if (engine.play(random.nextInt(SIZE), random.nextInt(SIZE))) {
+                engine.nextPiece(false);
+            } else if (roll == 2 && engine.timeout()) {
+                engine.nextPiece(false);
+            }
+        }
+    }
+
+    /**
+     * Writes a saved game to bytes.
+     *
+     * @param save : game to write.
+     * @return the encoded save.
+     * @throws IOException : never, the stream is in memory.
+     */
+    private static byte[] write(SavedGame save) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        save.write(bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a saved game of the standard pieces from bytes.
+     *
+     * @param bytes : encoded save.
+     * @return the saved game.
+     * @throws IOException : if the bytes are not a valid save.
+     */
+    private static SavedGame read(byte[] bytes) throws IOException {
+        return SavedGame.read(new ByteArrayInputStream(bytes), PieceCatalogue.STANDARD);
+    }
+
+    /**
+     * Checks bytes are refused as a saved game.
+     *
+     * @param bytes : corrupt save.
+     */
+    private static void assertRejected(byte[] bytes) {
+        assertThrows(IOException.class, () -> read(bytes));
+    }
+
+    /**
+     * Checks two snapshots of a SIZE board hold the same game state.
+     *
+     * @param expected : expected state.
+     * @param actual   : state to check.
+     */
+    private static void assertSameState(EngineSnapshot expected, EngineSnapshot actual) {
+        assertEquals(expected.getScore(), actual.getScore(), "score");
+        assertEquals(expected.getMultiplier(), actual.getMultiplier(), "multiplier");
+        assertEquals(expected.getLevel(), actual.getLevel(), "level");
+        assertEquals(expected.getLives(), actual.getLives(), "lives");
+        assertEquals(expected.getPieceState(), actual.getPieceState(), "piece state");
+        assertSame(expected.getCurrentPiece(), actual.getCurrentPiece(), "current piece");
+        assertSame(expected.getNextPiece(), actual.getNextPiece(), "next piece");
+        for (int cell = 0; cell < SIZE * SIZE; cell++) {
+            assertEquals(expected.getCell(cell), actual.getCell(cell), "cell " + cell);
+        }
+    }
+}